@@ -1,8 +1,16 @@
 package com.flickit.ai.controller;
 
+import com.flickit.ai.dto.AiJobDto;
+import com.flickit.ai.dto.BatchGenerateContentRequest;
+import com.flickit.ai.dto.BatchItemResultDto;
 import com.flickit.ai.dto.GenerateContentRequest;
 import com.flickit.ai.dto.GeneratedContentDto;
 import com.flickit.ai.service.AIService;
+import com.flickit.ai.service.AiBatchService;
+import com.flickit.ai.service.AiJobService;
+import com.flickit.ai.service.AiRequestScheduler;
+import com.flickit.auth.model.CurrentUser;
+import com.flickit.auth.service.AuthContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,9 +20,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @RestController
 @RequestMapping("/ai")
@@ -23,9 +43,137 @@ import org.springframework.web.bind.annotation.*;
 public class AIController {
 
     private final AIService aiService;
+    private final AiJobService aiJobService;
+    private final AiBatchService aiBatchService;
+    private final AiRequestScheduler aiRequestScheduler;
+    private final long maxWaitSeconds;
+    private final long sseTimeoutMs;
 
-    public AIController(AIService aiService) {
+    public AIController(AIService aiService,
+                        AiJobService aiJobService,
+                        AiBatchService aiBatchService,
+                        AiRequestScheduler aiRequestScheduler,
+                        @Value("${flickit.ai.jobs.max-wait-seconds:30}") long maxWaitSeconds,
+                        @Value("${flickit.ai.jobs.sse-timeout-ms:60000}") long sseTimeoutMs) {
         this.aiService = aiService;
+        this.aiJobService = aiJobService;
+        this.aiBatchService = aiBatchService;
+        this.aiRequestScheduler = aiRequestScheduler;
+        this.maxWaitSeconds = maxWaitSeconds;
+        this.sseTimeoutMs = sseTimeoutMs;
+    }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
+    @Operation(
+        summary = "Start AI content generation job",
+        description = "Queues content generation and returns 202 with the job id right away. " +
+                    "Fetch the result with GET /ai/jobs/{id} (optionally long-polling with waitSeconds) " +
+                    "or stream it from GET /ai/jobs/{id}/events. Returns 503 when the AI workers are saturated."
+    )
+    public ResponseEntity<AiJobDto> submitJob(@Valid @RequestBody GenerateContentRequest request) {
+        AiJobDto job = aiJobService.submit(request, currentUserId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/ai/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
+    @Operation(
+        summary = "Get AI job state",
+        description = "Returns the job immediately, or with waitSeconds > 0 holds the request until the job " +
+                    "finishes or the wait elapses (at most 30 seconds) and then returns its current state."
+    )
+    public DeferredResult<ResponseEntity<AiJobDto>> getJob(@PathVariable UUID id,
+                                                           @RequestParam(defaultValue = "0") long waitSeconds) {
+        UUID ownerId = currentUserId();
+        long wait = Math.max(0, Math.min(waitSeconds, maxWaitSeconds));
+        DeferredResult<ResponseEntity<AiJobDto>> response = new DeferredResult<>(Math.max(1, wait) * 1000);
+        Optional<AiJobDto> job = aiJobService.get(id, ownerId);
+        if (job.isEmpty()) {
+            response.setResult(ResponseEntity.notFound().build());
+        } else if (wait == 0 || job.get().getStatus() != AiJobDto.Status.PENDING) {
+            response.setResult(ResponseEntity.ok(job.get()));
+        } else {
+            response.onTimeout(() -> response.setResult(ResponseEntity.ok(aiJobService.get(id, ownerId).orElse(job.get()))));
+            aiJobService.completion(id, ownerId)
+                    .ifPresent(done -> done.thenAccept(finished -> response.setResult(ResponseEntity.ok(finished))));
+        }
+        return response;
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
+    @Operation(
+        summary = "Stream AI job state",
+        description = "Server-sent events: one 'job' event with the current state and, if it is still pending, " +
+                    "another when it finishes. The stream then closes."
+    )
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable UUID id) {
+        UUID ownerId = currentUserId();
+        Optional<AiJobDto> job = aiJobService.get(id, ownerId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        send(emitter, job.get());
+        if (job.get().getStatus() == AiJobDto.Status.PENDING) {
+            aiJobService.completion(id, ownerId).ifPresent(done -> done.thenAccept(finished -> {
+                send(emitter, finished);
+                emitter.complete();
+            }));
+        } else {
+            emitter.complete();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    @PostMapping(value = "/generate-content/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
+    @Operation(
+        summary = "Generate AI content for many images",
+        description = "Processes the items in parallel (a few at a time per vendor) and streams server-sent events: " +
+                    "one 'item' event per item as it finishes, in completion order and carrying the item's index, " +
+                    "then one 'done' event with the counts. A failed item is reported as FAILED and does not stop the others."
+    )
+    public SseEmitter generateContentBatch(@Valid @RequestBody BatchGenerateContentRequest request) {
+        UUID vendorId = currentUserId();
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        aiBatchService.generate(request.getItems(), vendorId, item -> {
+            (item.getStatus() == BatchItemResultDto.Status.SUCCEEDED ? succeeded : failed).incrementAndGet();
+            send(emitter, "item", String.valueOf(item.getIndex()), item);
+        }).thenRun(() -> {
+            send(emitter, "done", null, Map.of("succeeded", succeeded.get(), "failed", failed.get()));
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, AiJobDto job) {
+        send(emitter, "job", job.getStatus().name(), job);
+    }
+
+    private static void send(SseEmitter emitter, String name, String id, Object data) {
+        try {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+            emitter.send(id != null ? event.id(id) : event);
+        } catch (IOException e) {
+            // Client went away; nothing left to deliver
+            emitter.completeWithError(e);
+        } catch (IllegalStateException e) {
+            // Stream already timed out or failed; later events are dropped
+        }
+    }
+
+    private static UUID currentUserId() {
+        CurrentUser currentUser = AuthContext.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("User not authenticated");
+        }
+        return currentUser.getId();
     }
 
     @PostMapping("/generate-content")
@@ -168,7 +316,7 @@ public class AIController {
             )
             @RequestBody GenerateContentRequest request) {
         
-        GeneratedContentDto result = aiService.generateContent(request);
+        GeneratedContentDto result = aiRequestScheduler.generate(request, currentUserId());
         return ResponseEntity.ok(result);
     }
 
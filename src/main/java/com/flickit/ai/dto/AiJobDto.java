@@ -0,0 +1,25 @@
+package com.flickit.ai.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronous content generation job. {@code result} is set once the job
+ * SUCCEEDED, {@code error} once it FAILED.
+ */
+@Value
+@Builder
+public class AiJobDto {
+
+    UUID id;
+    Status status;
+    GeneratedContentDto result;
+    String error;
+    Instant createdAt;
+    Instant completedAt;
+
+    public enum Status {PENDING, SUCCEEDED, FAILED}
+}
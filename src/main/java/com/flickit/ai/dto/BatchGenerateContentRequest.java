@@ -0,0 +1,15 @@
+package com.flickit.ai.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchGenerateContentRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<GenerateContentRequest> items;
+}
@@ -0,0 +1,21 @@
+package com.flickit.ai.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of one item of a batch generation, streamed as soon as it finishes. {@code index} is
+ * the item's position in the request; {@code result} is set when it SUCCEEDED, {@code error}
+ * when it FAILED.
+ */
+@Value
+@Builder
+public class BatchItemResultDto {
+
+    int index;
+    Status status;
+    GeneratedContentDto result;
+    String error;
+
+    public enum Status {SUCCEEDED, FAILED}
+}
@@ -0,0 +1,287 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of generated AI content.
+ *
+ * <p>Entries are keyed by a SHA-256 of the request fields that influence the output, so vendors
+ * regenerating content for the same image and prompt get the stored result instead of a new
+ * provider call. The memory tier is an LRU bounded by {@code max-entries}; when
+ * {@code flickit.ai.cache.disk.dir} is set, entries are also written there as one JSON file per
+ * key and survive restarts, bounded by {@code disk.max-entries}. Both tiers expire entries after
+ * {@code ttl}.
+ */
+@Component
+@Slf4j
+public class AIContentCache {
+
+    // Bump when the generated content format or prompt changes, to orphan old entries
+    private static final String KEY_VERSION = "v1";
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Path diskDir;
+    private final int diskMaxEntries;
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    // Disk keys oldest first, so the first one is the next to evict
+    private final LinkedHashMap<String, Long> diskIndex = new LinkedHashMap<>();
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+    private final Timer latencySaved;
+
+    @Autowired
+    public AIContentCache(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${flickit.ai.cache.max-entries:10000}") int maxEntries,
+                          @Value("${flickit.ai.cache.ttl:24h}") Duration ttl,
+                          @Value("${flickit.ai.cache.disk.dir:}") String diskDir,
+                          @Value("${flickit.ai.cache.disk.max-entries:100000}") int diskMaxEntries) {
+        this(objectMapper, meterRegistry, maxEntries, ttl, diskDir.isBlank() ? null : Path.of(diskDir), diskMaxEntries,
+                Clock.systemUTC());
+    }
+
+    public AIContentCache(ObjectMapper objectMapper, MeterRegistry meterRegistry, int maxEntries, Duration ttl,
+                          Path diskDir, int diskMaxEntries, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.diskDir = diskDir;
+        this.diskMaxEntries = diskMaxEntries;
+        this.memoryHits = hits(meterRegistry, "memory");
+        this.diskHits = hits(meterRegistry, "disk");
+        this.misses = Counter.builder("flickit.ai.cache.requests")
+                .description("AI content cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.latencySaved = Timer.builder("flickit.ai.cache.latency.saved")
+                .description("Generation time of the original call, recorded on each cache hit")
+                .register(meterRegistry);
+        Gauge.builder("flickit.ai.cache.entries", this, cache -> cache.size())
+                .description("Entries in the in-memory tier")
+                .register(meterRegistry);
+        if (diskDir != null) {
+            loadDiskIndex();
+        }
+    }
+
+    /**
+     * Cache key of a request: SHA-256 over the fields that influence the generated content.
+     */
+    public static String key(GenerateContentRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String field : new String[]{KEY_VERSION, request.getImageUrl(), request.getBusinessType(),
+                    request.getAdditionalPrompt(), request.getPreferredLanguage()}) {
+                // Length-prefixed so ("ab", "c") and ("a", "bc") hash differently; -1 marks null
+                byte[] bytes = field == null ? new byte[0] : field.getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(field == null ? -1 : bytes.length).getBytes(StandardCharsets.US_ASCII));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<GeneratedContentDto> get(String key) {
+        long now = clock.millis();
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+            if (entry != null && expired(entry.storedAt, now)) {
+                memory.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            memoryHits.increment();
+            latencySaved.record(entry.generationNanos, TimeUnit.NANOSECONDS);
+            return Optional.of(entry.content);
+        }
+
+        entry = readDisk(key, now);
+        if (entry != null) {
+            putMemory(key, entry);
+            diskHits.increment();
+            latencySaved.record(entry.generationNanos, TimeUnit.NANOSECONDS);
+            return Optional.of(entry.content);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Stores freshly generated content; {@code generationNanos} is what a later hit saves.
+     */
+    public void put(String key, GeneratedContentDto content, long generationNanos) {
+        Entry entry = new Entry(clock.millis(), generationNanos, content);
+        putMemory(key, entry);
+        writeDisk(key, entry);
+    }
+
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private void putMemory(String key, Entry entry) {
+        synchronized (memory) {
+            memory.put(key, entry);
+            if (memory.size() > maxEntries) {
+                Iterator<String> eldest = memory.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private Entry readDisk(String key, long now) {
+        if (diskDir == null) {
+            return null;
+        }
+        synchronized (diskIndex) {
+            Long storedAt = diskIndex.get(key);
+            if (storedAt == null) {
+                return null;
+            }
+            if (expired(storedAt, now)) {
+                removeDisk(key);
+                return null;
+            }
+        }
+        try {
+            return objectMapper.readValue(file(key).toFile(), Entry.class);
+        } catch (IOException e) {
+            log.warn("Dropping unreadable AI cache file for key {}: {}", key, e.getMessage());
+            synchronized (diskIndex) {
+                removeDisk(key);
+            }
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, Entry entry) {
+        if (diskDir == null) {
+            return;
+        }
+        try {
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            objectMapper.writeValue(tmp.toFile(), entry);
+            Files.setLastModifiedTime(tmp, FileTime.fromMillis(entry.storedAt));
+            Files.move(tmp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write AI cache file for key {}: {}", key, e.getMessage());
+            return;
+        }
+        synchronized (diskIndex) {
+            diskIndex.remove(key);
+            diskIndex.put(key, entry.storedAt);
+            while (diskIndex.size() > diskMaxEntries) {
+                removeDisk(diskIndex.keySet().iterator().next());
+            }
+        }
+    }
+
+    private void removeDisk(String key) {
+        diskIndex.remove(key);
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            log.warn("Could not delete AI cache file for key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void loadDiskIndex() {
+        long now = clock.millis();
+        try {
+            Files.createDirectories(diskDir);
+            List<Map.Entry<String, Long>> files;
+            try (Stream<Path> paths = Files.list(diskDir)) {
+                files = paths.filter(path -> path.getFileName().toString().endsWith(".json"))
+                        .map(path -> Map.entry(path.getFileName().toString().replace(".json", ""), lastModified(path)))
+                        .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                        .toList();
+            }
+            synchronized (diskIndex) {
+                for (Map.Entry<String, Long> file : files) {
+                    diskIndex.put(file.getKey(), file.getValue());
+                    if (expired(file.getValue(), now)) {
+                        removeDisk(file.getKey());
+                    }
+                }
+                while (diskIndex.size() > diskMaxEntries) {
+                    removeDisk(diskIndex.keySet().iterator().next());
+                }
+            }
+            log.info("AI content cache loaded {} entries from {}", diskIndex.size(), diskDir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot use AI cache directory " + diskDir, e);
+        }
+    }
+
+    private boolean expired(long storedAt, long now) {
+        return storedAt + ttl.toMillis() <= now;
+    }
+
+    private Path file(String key) {
+        return diskDir.resolve(key + ".json");
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Counter hits(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("flickit.ai.cache.requests")
+                .description("AI content cache lookups")
+                .tag("result", "hit-" + tier)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A cached result as stored in memory and, serialized, on disk.
+     */
+    record Entry(long storedAt, long generationNanos, GeneratedContentDto content) {
+    }
+}
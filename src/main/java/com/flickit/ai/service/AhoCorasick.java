@@ -0,0 +1,108 @@
+package com.flickit.ai.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a fixed keyword dictionary, matching case-insensitively.
+ *
+ * <p>Each keyword carries a bit mask; {@link #scan(CharSequence)} returns the OR of the masks of
+ * every keyword occurring anywhere in the text, overlapping occurrences included, in one pass
+ * over the text regardless of the dictionary size. Immutable once built, so safe to share.
+ */
+public final class AhoCorasick {
+
+    private final Map<Character, Integer>[] transitions;
+    private final int[] failures;
+    private final int[] outputs;
+
+    @SuppressWarnings("unchecked")
+    public AhoCorasick(Map<String, Integer> keywordMasks) {
+        Builder builder = new Builder();
+        keywordMasks.forEach(builder::add);
+        builder.link();
+        this.transitions = builder.next.toArray(new Map[0]);
+        this.failures = builder.fail.stream().mapToInt(Integer::intValue).toArray();
+        this.outputs = builder.output.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public int scan(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int mask = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            Integer target;
+            while ((target = transitions[state].get(c)) == null && state != 0) {
+                state = failures[state];
+            }
+            state = target == null ? 0 : target;
+            mask |= outputs[state];
+        }
+        return mask;
+    }
+
+    private static final class Builder {
+        private final List<Map<Character, Integer>> next = new ArrayList<>();
+        private final List<Integer> fail = new ArrayList<>();
+        private final List<Integer> output = new ArrayList<>();
+
+        private Builder() {
+            addNode();
+        }
+
+        private void add(String keyword, int mask) {
+            if (keyword.isEmpty()) {
+                throw new IllegalArgumentException("Empty keyword");
+            }
+            int state = 0;
+            for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+                Integer child = next.get(state).get(c);
+                if (child == null) {
+                    child = addNode();
+                    next.get(state).put(c, child);
+                }
+                state = child;
+            }
+            output.set(state, output.get(state) | mask);
+        }
+
+        /**
+         * Breadth-first failure links; each node also inherits the output of its failure node, so a
+         * scan never has to walk the failure chain to collect matches.
+         */
+        private void link() {
+            // Depth-1 nodes fail to the root, which they already do
+            Queue<Integer> queue = new ArrayDeque<>(next.get(0).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : next.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int f = fail.get(state);
+                    Integer target;
+                    while ((target = next.get(f).get(edge.getKey())) == null && f != 0) {
+                        f = fail.get(f);
+                    }
+                    int childFail = target == null ? 0 : target;
+                    fail.set(child, childFail);
+                    output.set(child, output.get(child) | output.get(childFail));
+                    queue.add(child);
+                }
+            }
+        }
+
+        private int addNode() {
+            next.add(new HashMap<>());
+            fail.add(0);
+            output.add(0);
+            return next.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.BatchItemResultDto;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Generates content for many images of one vendor in parallel.
+ *
+ * <p>Items go through the {@link AiRequestScheduler} under the vendor's quota, waiting for it to
+ * refill rather than failing when the batch is larger than the burst, and at most
+ * {@code per-vendor-concurrency} of a vendor's items are in flight at once, across all of its
+ * batches, so one vendor's large listing cannot take every AI worker. Waiting items are queued per
+ * vendor rather than blocking a worker. Each item is reported as soon as it finishes, and a failed
+ * item, including one refused for capacity, is reported as FAILED without affecting the others.
+ */
+@Service
+@Slf4j
+public class AiBatchService {
+
+    private final AiRequestScheduler scheduler;
+    private final int maxItems;
+    private final int perVendorConcurrency;
+    private final Map<UUID, VendorSlots> vendors = new ConcurrentHashMap<>();
+    private final Counter succeeded;
+    private final Counter failed;
+
+    public AiBatchService(AiRequestScheduler scheduler,
+                          MeterRegistry meterRegistry,
+                          @Value("${flickit.ai.batch.max-items:20}") int maxItems,
+                          @Value("${flickit.ai.batch.per-vendor-concurrency:4}") int perVendorConcurrency) {
+        this.scheduler = scheduler;
+        this.maxItems = maxItems;
+        this.perVendorConcurrency = perVendorConcurrency;
+        this.succeeded = items(meterRegistry, "succeeded");
+        this.failed = items(meterRegistry, "failed");
+    }
+
+    /**
+     * Starts the batch; {@code onItem} is called once per item, from AI worker threads, in
+     * completion order. The returned future completes after the last item was reported.
+     */
+    public CompletableFuture<Void> generate(List<GenerateContentRequest> requests, UUID vendorId,
+                                            Consumer<BatchItemResultDto> onItem) {
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException("A batch can contain at most " + maxItems + " items");
+        }
+        CompletableFuture<?>[] items = new CompletableFuture<?>[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            GenerateContentRequest request = requests.get(i);
+            items[i] = run(vendorId, () -> scheduler.submitWaitingForQuota(request, vendorId))
+                    .handle((result, error) -> report(index, result, error, onItem));
+        }
+        return CompletableFuture.allOf(items);
+    }
+
+    public int maxItems() {
+        return maxItems;
+    }
+
+    private Void report(int index, GeneratedContentDto result, Throwable error, Consumer<BatchItemResultDto> onItem) {
+        BatchItemResultDto item;
+        if (error == null) {
+            succeeded.increment();
+            item = BatchItemResultDto.builder().index(index).status(BatchItemResultDto.Status.SUCCEEDED).result(result).build();
+        } else {
+            failed.increment();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            log.warn("Batch item {} failed: {}", index, cause.toString());
+            item = BatchItemResultDto.builder().index(index).status(BatchItemResultDto.Status.FAILED).error(cause.getMessage()).build();
+        }
+        try {
+            onItem.accept(item);
+        } catch (RuntimeException e) {
+            log.warn("Could not deliver batch item {}: {}", index, e.getMessage());
+        }
+        return null;
+    }
+
+    private CompletableFuture<GeneratedContentDto> run(UUID vendorId, Supplier<CompletableFuture<GeneratedContentDto>> task) {
+        CompletableFuture<GeneratedContentDto> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<GeneratedContentDto> started;
+            try {
+                started = task.get();
+            } catch (RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((value, error) -> {
+                release(vendorId);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+        if (acquire(vendorId, start)) {
+            start.run();
+        }
+        return result;
+    }
+
+    /**
+     * Takes a slot of the vendor, or queues {@code start} to be run when one is released.
+     */
+    private boolean acquire(UUID vendorId, Runnable start) {
+        boolean[] acquired = new boolean[1];
+        vendors.compute(vendorId, (id, slots) -> {
+            if (slots == null) {
+                slots = new VendorSlots();
+            }
+            if (slots.inFlight < perVendorConcurrency) {
+                slots.inFlight++;
+                acquired[0] = true;
+            } else {
+                slots.waiting.addLast(start);
+            }
+            return slots;
+        });
+        return acquired[0];
+    }
+
+    private void release(UUID vendorId) {
+        Runnable[] next = new Runnable[1];
+        vendors.computeIfPresent(vendorId, (id, slots) -> {
+            next[0] = slots.waiting.pollFirst();
+            if (next[0] == null) {
+                slots.inFlight--;
+            }
+            // The slot passes to the next waiting item; idle vendors are dropped from the map
+            return slots.inFlight == 0 ? null : slots;
+        });
+        if (next[0] != null) {
+            next[0].run();
+        }
+    }
+
+    private static Counter items(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flickit.ai.batch.items")
+                .description("Batch generation items by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class VendorSlots {
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int inFlight;
+    }
+}
@@ -0,0 +1,134 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.AiJobDto;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous content generation. A submitted job goes through the {@link AiRequestScheduler} and
+ * its state is kept in a bounded in-memory store, so the request thread returns immediately and
+ * callers poll, long-poll or stream the result. Finished jobs are forgotten after
+ * {@code retention}; submissions beyond {@code max-jobs} live jobs, or beyond the scheduler's
+ * capacity, are rejected with {@link RejectedExecutionException}, and those beyond the vendor's
+ * quota with {@link AiQuotaExceededException}.
+ */
+@Service
+@Slf4j
+public class AiJobService {
+
+    private final AiRequestScheduler scheduler;
+    private final int maxJobs;
+    private final Duration retention;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    public AiJobService(AiRequestScheduler scheduler,
+                        MeterRegistry meterRegistry,
+                        @Value("${flickit.ai.jobs.max-jobs:10000}") int maxJobs,
+                        @Value("${flickit.ai.jobs.retention:15m}") Duration retention) {
+        this.scheduler = scheduler;
+        this.maxJobs = maxJobs;
+        this.retention = retention;
+        Gauge.builder("flickit.ai.jobs", jobs, Map::size)
+                .description("AI jobs held in the job store")
+                .register(meterRegistry);
+    }
+
+    public AiJobDto submit(GenerateContentRequest request, UUID ownerId) {
+        if (jobs.size() >= maxJobs) {
+            purgeExpired();
+            if (jobs.size() >= maxJobs) {
+                throw new RejectedExecutionException("Too many AI jobs in progress");
+            }
+        }
+
+        Job job = new Job(UUID.randomUUID(), ownerId, Instant.now());
+        jobs.put(job.id, job);
+        try {
+            job.future = scheduler.submit(request, ownerId)
+                    .whenComplete((result, error) -> {
+                        job.completedAt = Instant.now();
+                        if (error != null) {
+                            log.warn("AI job {} failed", job.id, error);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Current state of a job; empty if it does not exist, expired or belongs to someone else.
+     */
+    public Optional<AiJobDto> get(UUID jobId, UUID ownerId) {
+        return find(jobId, ownerId).map(Job::toDto);
+    }
+
+    /**
+     * Completes with the final state of the job; empty if the job is not visible to {@code ownerId}.
+     */
+    public Optional<CompletableFuture<AiJobDto>> completion(UUID jobId, UUID ownerId) {
+        return find(jobId, ownerId).map(job -> job.future.handle((result, error) -> job.toDto()));
+    }
+
+    @Scheduled(fixedDelayString = "${flickit.ai.jobs.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.completedAt != null && job.completedAt.isBefore(cutoff));
+    }
+
+    private Optional<Job> find(UUID jobId, UUID ownerId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerId.equals(ownerId) || job.future == null) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private static final class Job {
+        private final UUID id;
+        private final UUID ownerId;
+        private final Instant createdAt;
+        private volatile CompletableFuture<GeneratedContentDto> future;
+        private volatile Instant completedAt;
+
+        private Job(UUID id, UUID ownerId, Instant createdAt) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.createdAt = createdAt;
+        }
+
+        private AiJobDto toDto() {
+            AiJobDto.AiJobDtoBuilder dto = AiJobDto.builder()
+                    .id(id)
+                    .createdAt(createdAt)
+                    .completedAt(completedAt);
+            if (future == null || !future.isDone()) {
+                return dto.status(AiJobDto.Status.PENDING).build();
+            }
+            try {
+                return dto.status(AiJobDto.Status.SUCCEEDED).result(future.join()).build();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                return dto.status(AiJobDto.Status.FAILED).error(cause.getMessage()).build();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+
+/**
+ * Generates content for one request in a single blocking call. Selected with
+ * {@code flickit.ai.provider} ({@code mock} or {@code http}).
+ */
+public interface AiProvider {
+
+    GeneratedContentDto generate(GenerateContentRequest request);
+}
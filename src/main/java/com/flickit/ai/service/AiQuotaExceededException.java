@@ -0,0 +1,17 @@
+package com.flickit.ai.service;
+
+import lombok.Getter;
+
+/**
+ * A vendor used up its AI request quota; reported as 429 with {@code Retry-After}.
+ */
+@Getter
+public class AiQuotaExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AiQuotaExceededException(long retryAfterSeconds) {
+        super("AI request quota exceeded, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
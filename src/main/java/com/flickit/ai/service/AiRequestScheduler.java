@@ -0,0 +1,369 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fair-share admission of AI requests in front of {@link AIService}.
+ *
+ * <p>Each vendor has a token bucket of {@code vendor.burst} requests refilled at
+ * {@code vendor.rate-per-minute}; a request beyond it is refused with
+ * {@link AiQuotaExceededException}. Admitted requests wait in per-vendor queues and are released
+ * to the provider within the global limits ({@code global.rate-per-second}, {@code global.burst},
+ * {@code global.max-concurrency}) by deficit round-robin: every turn a vendor's deficit grows by
+ * {@code quantum} and it may send requests while the deficit covers their cost. A vendor with a
+ * deep queue therefore gets the same share of the provider as one with a single request, and
+ * prompt-heavy requests cost proportionally more. Queue wait is recorded in
+ * {@code flickit.ai.scheduler.wait}, tagged by {@code mode} ({@code interactive} or
+ * {@code background}) rather than by vendor, so the number of meters stays fixed however many
+ * vendors come and go.
+ *
+ * <p>Background work ({@link #submitWaitingForQuota}, e.g. batch items and event enrichment) is
+ * charged to the same vendor bucket but waits in the vendor's queue for tokens instead of being
+ * refused, so a batch larger than the burst is paced by the refill rate rather than failing.
+ *
+ * <p>Configured under {@code flickit.ai.scheduler}; {@code max-queued} bounds all queues together,
+ * beyond which requests are refused with {@link RejectedExecutionException}.
+ */
+@Service
+@Slf4j
+public class AiRequestScheduler {
+
+    private static final String PREFIX = "flickit.ai.scheduler.";
+    // Prompt characters per extra cost unit
+    private static final int PROMPT_CHARS_PER_UNIT = 250;
+
+    private final AIService aiService;
+    private final Clock clock;
+    private final double vendorBurst;
+    private final double vendorRatePerMs;
+    private final int quantum;
+    private final int maxQueued;
+    private final int maxConcurrency;
+    private final TokenBucket global;
+    private final Map<UUID, Vendor> vendors = new HashMap<>();
+    private final Deque<Vendor> active = new ArrayDeque<>();
+    private final ScheduledExecutorService refillTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-scheduler-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter throttled;
+    private final Timer interactiveWait;
+    private final Timer backgroundWait;
+    private int queued;
+    private int inFlight;
+    // When the pending refill timer fires, 0 if none
+    private long refillAt;
+
+    @Autowired
+    public AiRequestScheduler(AIService aiService, Environment environment, MeterRegistry meterRegistry) {
+        this(aiService, environment, meterRegistry, Clock.systemUTC());
+    }
+
+    public AiRequestScheduler(AIService aiService, Environment environment, MeterRegistry meterRegistry, Clock clock) {
+        this.aiService = aiService;
+        this.clock = clock;
+        this.vendorBurst = environment.getProperty(PREFIX + "vendor.burst", Integer.class, 10);
+        this.vendorRatePerMs = environment.getProperty(PREFIX + "vendor.rate-per-minute", Double.class, 30.0) / 60_000;
+        this.quantum = environment.getProperty(PREFIX + "quantum", Integer.class, 1);
+        this.maxQueued = environment.getProperty(PREFIX + "max-queued", Integer.class, 1000);
+        this.maxConcurrency = environment.getProperty(PREFIX + "global.max-concurrency", Integer.class, 8);
+        this.global = new TokenBucket(environment.getProperty(PREFIX + "global.burst", Integer.class, 20),
+                environment.getProperty(PREFIX + "global.rate-per-second", Double.class, 20.0) / 1000, clock.millis());
+        if (quantum < 1 || maxConcurrency < 1 || vendorBurst < 1) {
+            throw new IllegalStateException("AI scheduler needs a positive quantum, max-concurrency and vendor burst");
+        }
+        this.throttled = Counter.builder("flickit.ai.scheduler.throttled")
+                .description("AI requests refused because the vendor quota was used up")
+                .register(meterRegistry);
+        this.interactiveWait = waitTimer("interactive", meterRegistry);
+        this.backgroundWait = waitTimer("background", meterRegistry);
+        Gauge.builder("flickit.ai.scheduler.queued", this, AiRequestScheduler::queued)
+                .description("AI requests waiting for their turn")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the request under the vendor's quota; the future completes with the generated content.
+     *
+     * @throws AiQuotaExceededException if the vendor has no quota left
+     * @throws RejectedExecutionException if the queues are full
+     */
+    public CompletableFuture<GeneratedContentDto> submit(GenerateContentRequest request, UUID vendorId) {
+        return submit(request, vendorId, false);
+    }
+
+    /**
+     * Like {@link #submit}, but a vendor without quota left does not get an error: the request waits
+     * in the vendor's queue until its bucket has refilled enough.
+     *
+     * @throws RejectedExecutionException if the queues are full
+     */
+    public CompletableFuture<GeneratedContentDto> submitWaitingForQuota(GenerateContentRequest request, UUID vendorId) {
+        return submit(request, vendorId, true);
+    }
+
+    private CompletableFuture<GeneratedContentDto> submit(GenerateContentRequest request, UUID vendorId,
+                                                          boolean waitForQuota) {
+        // Capped at the burst, so an expensive request is slow to admit rather than impossible
+        Pending pending = new Pending(request, (int) Math.min(cost(request), vendorBurst), System.nanoTime(),
+                waitForQuota ? backgroundWait : interactiveWait);
+        synchronized (this) {
+            if (queued >= maxQueued) {
+                throw new RejectedExecutionException("Too many AI requests queued");
+            }
+            Vendor vendor = vendors.computeIfAbsent(vendorId, id -> new Vendor(clock.millis()));
+            long now = clock.millis();
+            if (!waitForQuota) {
+                if (!vendor.bucket.tryTake(pending.cost, now)) {
+                    throttled.increment();
+                    long waitMs = vendor.bucket.millisUntil(pending.cost, now);
+                    throw new AiQuotaExceededException(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMs + 999)));
+                }
+                pending.charged = true;
+            }
+            if (vendor.queue.isEmpty()) {
+                active.addLast(vendor);
+            }
+            vendor.queue.addLast(pending);
+            queued++;
+        }
+        pump();
+        return pending.result;
+    }
+
+    /**
+     * Blocking form of {@link #submit} for synchronous endpoints.
+     */
+    public GeneratedContentDto generate(GenerateContentRequest request, UUID vendorId) {
+        try {
+            return submit(request, vendorId).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    public synchronized int queued() {
+        return queued;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Forgets vendors with nothing queued and a full bucket; they are recreated on their next request.
+     */
+    @Scheduled(fixedDelayString = "${flickit.ai.scheduler.cleanup-interval-ms:300000}")
+    public synchronized void forgetIdleVendors() {
+        long now = clock.millis();
+        vendors.values().removeIf(vendor -> vendor.queue.isEmpty() && vendor.bucket.isFull(now));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refillTimer.shutdownNow();
+    }
+
+    private void pump() {
+        Pending next;
+        while ((next = poll()) != null) {
+            dispatch(next);
+        }
+    }
+
+    private synchronized Pending poll() {
+        if (active.isEmpty() || inFlight >= maxConcurrency) {
+            return null;
+        }
+        long now = clock.millis();
+        long globalWait = global.millisUntil(1, now);
+        if (globalWait > 0) {
+            scheduleRefill(globalWait);
+            return null;
+        }
+        // Vendors passed over in a row because their head request still waits for quota
+        int waitingForQuota = 0;
+        long quotaWait = Long.MAX_VALUE;
+        while (true) {
+            if (waitingForQuota == active.size()) {
+                scheduleRefill(quotaWait);
+                return null;
+            }
+            Vendor vendor = active.peekFirst();
+            Pending head = vendor.queue.peekFirst();
+            if (!head.charged) {
+                if (!vendor.bucket.tryTake(head.cost, now)) {
+                    quotaWait = Math.min(quotaWait, vendor.bucket.millisUntil(head.cost, now));
+                    waitingForQuota++;
+                    active.addLast(active.pollFirst());
+                    continue;
+                }
+                head.charged = true;
+            }
+            waitingForQuota = 0;
+            if (vendor.deficit >= head.cost) {
+                vendor.queue.pollFirst();
+                vendor.deficit -= head.cost;
+                if (vendor.queue.isEmpty()) {
+                    // Idle vendors do not bank credit
+                    vendor.deficit = 0;
+                    active.pollFirst();
+                }
+                global.tryTake(1, now);
+                queued--;
+                inFlight++;
+                return head;
+            }
+            // Turn over: the vendor goes to the back with one more quantum for its next turn
+            active.pollFirst();
+            vendor.deficit += quantum;
+            active.addLast(vendor);
+        }
+    }
+
+    private void dispatch(Pending pending) {
+        pending.wait.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+        CompletableFuture<GeneratedContentDto> started;
+        try {
+            started = aiService.generateContentAsync(pending.request);
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((result, error) -> {
+            synchronized (this) {
+                inFlight--;
+            }
+            pump();
+            if (error != null) {
+                pending.result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                pending.result.complete(result);
+            }
+        });
+    }
+
+    private void scheduleRefill(long delayMs) {
+        long at = clock.millis() + Math.max(1, delayMs);
+        // A wake-up already due sooner covers this one; a later one (e.g. a vendor's quota) does not
+        if (refillAt != 0 && refillAt <= at) {
+            return;
+        }
+        refillAt = at;
+        refillTimer.schedule(() -> {
+            synchronized (this) {
+                if (refillAt == at) {
+                    refillAt = 0;
+                }
+            }
+            pump();
+        }, Math.max(1, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    private static int cost(GenerateContentRequest request) {
+        String prompt = request.getAdditionalPrompt();
+        return 1 + (prompt == null ? 0 : prompt.length() / PROMPT_CHARS_PER_UNIT);
+    }
+
+    private static Timer waitTimer(String mode, MeterRegistry meterRegistry) {
+        return Timer.builder("flickit.ai.scheduler.wait")
+                .description("Time an AI request waited for its vendor's turn")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    private final class Vendor {
+        private final Deque<Pending> queue = new ArrayDeque<>();
+        private final TokenBucket bucket;
+        private int deficit;
+
+        private Vendor(long now) {
+            this.bucket = new TokenBucket(vendorBurst, vendorRatePerMs, now);
+        }
+    }
+
+    private static final class Pending {
+        private final GenerateContentRequest request;
+        private final int cost;
+        private final long enqueuedAt;
+        private final Timer wait;
+        private final CompletableFuture<GeneratedContentDto> result = new CompletableFuture<>();
+        // Whether the cost was already taken from the vendor bucket
+        private boolean charged;
+
+        private Pending(GenerateContentRequest request, int cost, long enqueuedAt, Timer wait) {
+            this.request = request;
+            this.cost = cost;
+            this.enqueuedAt = enqueuedAt;
+            this.wait = wait;
+        }
+    }
+
+    /**
+     * Token bucket refilled continuously; not thread-safe, guarded by the scheduler.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long updatedAt;
+
+        private TokenBucket(double capacity, double refillPerMs, long now) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMs;
+            this.tokens = capacity;
+            this.updatedAt = now;
+        }
+
+        private boolean tryTake(double amount, long now) {
+            refill(now);
+            if (tokens < amount) {
+                return false;
+            }
+            tokens -= amount;
+            return true;
+        }
+
+        private long millisUntil(double amount, long now) {
+            refill(now);
+            return tokens >= amount ? 0 : (long) Math.ceil((amount - tokens) / refillPerMs);
+        }
+
+        private boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerMs);
+                updatedAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.flickit.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * <p>While CLOSED it tracks the outcome of the last {@code windowSize} calls and opens once at
+ * least {@code minimumCalls} were seen and the failure rate reaches {@code failureRateThreshold}.
+ * While OPEN every call is refused; after {@code openDuration} a single probe call is let through
+ * (HALF_OPEN), and its outcome closes or re-opens the circuit. Callers must report the outcome of
+ * every call they were allowed to make, with the permit {@link #tryAcquire()} gave them.
+ *
+ * <p>A permit is the generation the circuit was in when the call was let through, and every state
+ * change starts a new one. Outcomes of calls from an earlier generation are ignored, so a slow call
+ * let through while CLOSED cannot close or re-open the circuit in place of the HALF_OPEN probe.
+ */
+public class CircuitBreaker {
+
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    /** Returned by {@link #tryAcquire()} when the call is refused. */
+    public static final long REFUSED = -1;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    private final boolean[] window;
+    private final Counter refused;
+    private State state = State.CLOSED;
+    private int calls;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long generation;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, Clock clock, MeterRegistry meterRegistry) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Invalid circuit breaker window");
+        }
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.window = new boolean[windowSize];
+        this.refused = Counter.builder("flickit." + name + ".circuit.refused")
+                .description("Calls refused because the circuit was open")
+                .register(meterRegistry);
+        Gauge.builder("flickit." + name + ".circuit.state", this, breaker -> breaker.state().ordinal())
+                .description("Circuit state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A permit for a call made now, or {@link #REFUSED}; a permit must be passed back to
+     * {@link #onSuccess(long)} or {@link #onFailure(long)}.
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openDuration.toMillis()) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            generation++;
+        }
+        if (state == State.CLOSED || (state == State.HALF_OPEN && !probeInFlight)) {
+            probeInFlight = state == State.HALF_OPEN;
+            return generation;
+        }
+        refused.increment();
+        return REFUSED;
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (calls == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+        probeInFlight = false;
+        generation++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        next = 0;
+        probeInFlight = false;
+        generation++;
+    }
+}
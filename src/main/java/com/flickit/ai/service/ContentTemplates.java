@@ -0,0 +1,79 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+
+import java.util.Random;
+
+/**
+ * Template copy per business kind, shared by the mock provider and the keyword pre-classifier.
+ */
+final class ContentTemplates {
+
+    private static final String[] FOOD_TITLES = {
+        "Pyszne Jedzenie w Świetnej Cenie! 🍕",
+        "Nie Do Przegapienia - Lunch Specjal! 🥗",
+        "Flash Sale: Ulubione Dania -30%! 🍔",
+        "Gorące Nowości w Menu! 🌶️"
+    };
+
+    private static final String[] SHOP_TITLES = {
+        "Mega Wyprzedaż - Tylko Dziś! 🛍️",
+        "Nowe Produkty w Sklepie! ✨",
+        "Flash Sale: Wszystko -50%! 💫",
+        "Limitowana Oferta Specjalna! 🎯"
+    };
+
+    private static final String[] SERVICE_TITLES = {
+        "Ekskluzywna Usługa w Promocji! 💆",
+        "Specjalna Oferta na Usługi! ⭐",
+        "Flash Offer: Premium Service! 👑",
+        "Nie Przegap - Tylko Dzisiaj! ⚡"
+    };
+
+    private ContentTemplates() {
+    }
+
+    /**
+     * Title, description, labels and category for the classified request; the caller fills in
+     * the model fields.
+     */
+    static GeneratedContentDto.GeneratedContentDtoBuilder compose(GenerateContentRequest request,
+                                                                 KeywordClassifier.Classification classification,
+                                                                 Random random) {
+        return GeneratedContentDto.builder()
+                .title(title(classification.contentKind(), random))
+                .description(description(classification.urlKind(), request.getAdditionalPrompt()))
+                .labels(classification.labels())
+                .suggestedCategory(classification.category());
+    }
+
+    private static String title(KeywordClassifier.Kind kind, Random random) {
+        if (kind == null) {
+            return "Niesamowita Oferta Specjalna! 🎉";
+        }
+        String[] titles = switch (kind) {
+            case FOOD -> FOOD_TITLES;
+            case SHOP -> SHOP_TITLES;
+            case SERVICE -> SERVICE_TITLES;
+        };
+        return titles[random.nextInt(titles.length)];
+    }
+
+    private static String description(KeywordClassifier.Kind kind, String additionalPrompt) {
+        String baseDescription = kind == null ? "Sprawdź naszą wyjątkową ofertę! Idealna okazja na odkrycie czegoś nowego. "
+                : switch (kind) {
+                    case FOOD -> "Skosztuj najlepszych smaków w okolicy! Świeże składniki, doskonała jakość. ";
+                    case SHOP -> "Odkryj niesamowite produkty w naszym sklepie! Najwyższa jakość w świetnych cenach. ";
+                    case SERVICE -> "Skorzystaj z naszych profesjonalnych usług! Doświadczony zespół czeka na Ciebie. ";
+                };
+
+        String timeLimit = "Oferta ważna tylko przez ograniczony czas - nie zwlekaj!";
+
+        if (additionalPrompt != null && !additionalPrompt.trim().isEmpty()) {
+            baseDescription += additionalPrompt + " ";
+        }
+
+        return baseDescription + timeLimit;
+    }
+}
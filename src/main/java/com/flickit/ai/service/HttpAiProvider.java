@@ -0,0 +1,273 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content generation by a remote model endpoint: the request is POSTed as JSON and a
+ * {@link GeneratedContentDto} is expected back.
+ *
+ * <p>One {@link HttpClient} is shared by all calls, so keep-alive connections to the provider are
+ * pooled and reused. Every call has an overall {@code deadline}, across all of its attempts. A
+ * {@link CircuitBreaker} counts timeouts, transport errors, 429 and 5xx answers; while it is open
+ * calls fail fast with {@link RejectedExecutionException}, which the API reports as 503. Other 4xx
+ * answers are the caller's fault and surface as {@link IllegalArgumentException}.
+ *
+ * <p>With {@code hedge.enabled}, a call still unanswered after the recent p95 latency (but at least
+ * {@code hedge.min-delay}) sends one identical second request; the first successful answer wins
+ * and the other is cancelled. That bounds the tail at roughly p95 plus a typical call, for about
+ * 5% extra provider load.
+ *
+ * <p>Configured under {@code flickit.ai.http}: {@code endpoint}, {@code api-key},
+ * {@code connect-timeout}, {@code deadline}, {@code hedge.*} and {@code circuit.*}.
+ */
+@Component
+@ConditionalOnProperty(name = "flickit.ai.provider", havingValue = "http")
+@Slf4j
+public class HttpAiProvider implements AiProvider {
+
+    private static final String PREFIX = "flickit.ai.http.";
+    // Samples needed before the observed p95 replaces hedge.initial-delay
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final String apiKey;
+    private final Duration deadline;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeInitialDelay;
+    private final Duration hedgeMinDelay;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyWindow latencies = new LatencyWindow(256);
+    private final Timer latency;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public HttpAiProvider(ObjectMapper objectMapper, Environment environment, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(environment.getProperty(PREFIX + "endpoint", "http://localhost:8089/v1/generate"));
+        this.apiKey = environment.getProperty(PREFIX + "api-key", "");
+        this.deadline = duration(environment, PREFIX + "deadline", Duration.ofSeconds(10));
+        this.hedgeEnabled = environment.getProperty(PREFIX + "hedge.enabled", Boolean.class, false);
+        this.hedgeInitialDelay = duration(environment, PREFIX + "hedge.initial-delay", Duration.ofSeconds(2));
+        this.hedgeMinDelay = duration(environment, PREFIX + "hedge.min-delay", Duration.ofMillis(50));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(duration(environment, PREFIX + "connect-timeout", Duration.ofSeconds(2)))
+                .build();
+        this.circuitBreaker = new CircuitBreaker("ai.provider",
+                environment.getProperty(PREFIX + "circuit.window-size", Integer.class, 20),
+                environment.getProperty(PREFIX + "circuit.minimum-calls", Integer.class, 10),
+                environment.getProperty(PREFIX + "circuit.failure-rate", Double.class, 0.5),
+                duration(environment, PREFIX + "circuit.open-duration", Duration.ofSeconds(30)),
+                Clock.systemUTC(), meterRegistry);
+        this.latency = Timer.builder("flickit.ai.provider.latency")
+                .description("Latency of successful AI provider calls, including any hedged request")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.hedgesSent = hedges(meterRegistry, "sent");
+        this.hedgesWon = hedges(meterRegistry, "won");
+    }
+
+    @Override
+    public GeneratedContentDto generate(GenerateContentRequest request) {
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.REFUSED) {
+            throw new RejectedExecutionException("AI provider circuit is open");
+        }
+        long started = System.nanoTime();
+        long deadlineAt = started + deadline.toNanos();
+        CompletableFuture<GeneratedContentDto> call = hedgeEnabled ? hedged(payload(request), deadlineAt)
+                : attempt(payload(request), deadlineAt);
+        try {
+            GeneratedContentDto result = call.get(deadline.toNanos(), TimeUnit.NANOSECONDS);
+            long elapsed = System.nanoTime() - started;
+            latency.record(elapsed, TimeUnit.NANOSECONDS);
+            latencies.record(elapsed);
+            circuitBreaker.onSuccess(permit);
+            return result;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException rejected) {
+                // The provider is healthy, it refused this request
+                circuitBreaker.onSuccess(permit);
+                throw rejected;
+            }
+            circuitBreaker.onFailure(permit);
+            log.warn("AI provider call failed: {}", e.getCause().toString());
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new UncheckedIOException(asIo(e.getCause()));
+        } catch (TimeoutException e) {
+            circuitBreaker.onFailure(permit);
+            throw new UncheckedIOException(new HttpTimeoutException("AI provider did not answer within " + deadline));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            circuitBreaker.onFailure(permit);
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted waiting for the AI provider"));
+        } finally {
+            call.cancel(true);
+        }
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    /**
+     * Sends the request and, if no answer arrived within the hedge delay, one more. Completes with the
+     * first success, or with the last failure once every request sent has failed.
+     */
+    private CompletableFuture<GeneratedContentDto> hedged(byte[] payload, long deadlineAt) {
+        CompletableFuture<GeneratedContentDto> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        CompletableFuture<GeneratedContentDto> primary = attempt(payload, deadlineAt);
+        primary.whenComplete((value, error) -> settle(result, outstanding, value, error, false));
+
+        CompletableFuture.delayedExecutor(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            // Nothing to hedge if the call already finished, or its only request failed
+            if (result.isDone() || outstanding.getAndUpdate(n -> n == 0 ? 0 : n + 1) == 0) {
+                return;
+            }
+            hedgesSent.increment();
+            CompletableFuture<GeneratedContentDto> hedge = attempt(payload, deadlineAt);
+            hedge.whenComplete((value, error) -> settle(result, outstanding, value, error, true));
+            result.whenComplete((value, error) -> hedge.cancel(true));
+        });
+        result.whenComplete((value, error) -> primary.cancel(true));
+        return result;
+    }
+
+    private void settle(CompletableFuture<GeneratedContentDto> result, AtomicInteger outstanding,
+                        GeneratedContentDto value, Throwable error, boolean hedge) {
+        if (error == null) {
+            // Counted before completing, so the caller sees the metric when it gets the result
+            if (hedge && !result.isDone()) {
+                hedgesWon.increment();
+            }
+            result.complete(value);
+        } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }
+    }
+
+    private CompletableFuture<GeneratedContentDto> attempt(byte[] payload, long deadlineAt) {
+        long remaining = deadlineAt - System.nanoTime();
+        if (remaining <= 0) {
+            return CompletableFuture.failedFuture(new HttpTimeoutException("AI provider deadline exceeded"));
+        }
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofNanos(remaining))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(this::parse);
+    }
+
+    private GeneratedContentDto parse(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status >= 400 && status < 500 && status != 429) {
+            throw new IllegalArgumentException("AI provider rejected the request: HTTP " + status);
+        }
+        if (status != 200) {
+            throw new UncheckedIOException(new IOException("AI provider answered HTTP " + status));
+        }
+        try {
+            return objectMapper.readValue(response.body(), GeneratedContentDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed AI provider response", e);
+        }
+    }
+
+    private byte[] payload(GenerateContentRequest request) {
+        try {
+            return objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize AI request", e);
+        }
+    }
+
+    private Duration hedgeDelay() {
+        long p95 = latencies.percentile(0.95, MIN_LATENCY_SAMPLES);
+        if (p95 < 0) {
+            return hedgeInitialDelay;
+        }
+        return Duration.ofNanos(Math.max(p95, hedgeMinDelay.toNanos()));
+    }
+
+    private static Duration duration(Environment environment, String key, Duration defaultValue) {
+        String value = environment.getProperty(key);
+        return value == null ? defaultValue : DurationStyle.detectAndParse(value);
+    }
+
+    private static IOException asIo(Throwable error) {
+        return error instanceof IOException io ? io : new IOException(error);
+    }
+
+    private static Counter hedges(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("flickit.ai.provider.hedges")
+                .description("Hedged second requests sent, and those that answered first")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Latencies of the last {@code size} successful calls, for the hedge delay.
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        private LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * The given percentile in nanos, or -1 with fewer than {@code minSamples} samples.
+         */
+        private synchronized long percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.ceil(percentile * count) - 1)];
+        }
+    }
+}
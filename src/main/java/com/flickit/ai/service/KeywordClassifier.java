@@ -0,0 +1,148 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import com.flickit.ai.dto.VisionLabelDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Classifies a generation request into a business {@link Kind} from keywords in its image URL,
+ * business type and prompt.
+ *
+ * <p>The dictionary ({@code flickit.ai.classifier.keywords.<kind>}, comma-separated) is compiled
+ * once into an {@link AhoCorasick} automaton, so each field is classified in a single pass however
+ * many keywords there are. With {@code flickit.ai.classifier.pre-classify} enabled, an obvious
+ * request (URL and business type point to the same kind, and nothing points elsewhere) is answered
+ * from the content templates without calling the model.
+ */
+@Component
+public class KeywordClassifier {
+
+    private static final String PREFIX = "flickit.ai.classifier.";
+    private static final List<VisionLabelDto> GENERIC_LABELS = List.of(
+            new VisionLabelDto("business", 0.80),
+            new VisionLabelDto("establishment", 0.75),
+            new VisionLabelDto("commercial", 0.70));
+
+    /**
+     * Business kinds, in priority order when a text matches several.
+     */
+    public enum Kind {
+        FOOD("FOOD", List.of("food", "restaurant", "pizza", "burger"), List.of(
+                new VisionLabelDto("food", 0.95),
+                new VisionLabelDto("restaurant", 0.88),
+                new VisionLabelDto("dining", 0.82),
+                new VisionLabelDto("meal", 0.76))),
+        SHOP("OTHER", List.of("shop", "store", "retail"), List.of(
+                new VisionLabelDto("shop", 0.92),
+                new VisionLabelDto("retail", 0.85),
+                new VisionLabelDto("products", 0.79),
+                new VisionLabelDto("store", 0.87))),
+        SERVICE("SERVICE", List.of("service", "salon", "spa"), List.of(
+                new VisionLabelDto("service", 0.89),
+                new VisionLabelDto("business", 0.83),
+                new VisionLabelDto("professional", 0.77)));
+
+        private final String category;
+        private final List<String> defaultKeywords;
+        private final List<VisionLabelDto> labels;
+
+        Kind(String category, List<String> defaultKeywords, List<VisionLabelDto> labels) {
+            this.category = category;
+            this.defaultKeywords = defaultKeywords;
+            this.labels = labels;
+        }
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+    }
+
+    /**
+     * Kinds found in each field; null where the field matched nothing.
+     */
+    public record Classification(Kind urlKind, Kind businessKind, Kind promptKind, int mask) {
+
+        /**
+         * Kind the copy is written for: the declared business type, else what the image shows.
+         */
+        public Kind contentKind() {
+            return businessKind != null ? businessKind : urlKind;
+        }
+
+        public List<VisionLabelDto> labels() {
+            return urlKind != null ? urlKind.labels : GENERIC_LABELS;
+        }
+
+        public String category() {
+            return urlKind != null ? urlKind.category : "OTHER";
+        }
+
+        public boolean obvious() {
+            return urlKind != null && urlKind == businessKind && Integer.bitCount(mask) == 1;
+        }
+    }
+
+    private final AhoCorasick automaton;
+    private final boolean preClassify;
+    private final Random random = new Random();
+    private final Counter preClassified;
+
+    public KeywordClassifier(Environment environment, MeterRegistry meterRegistry) {
+        Map<String, Integer> keywordMasks = new HashMap<>();
+        for (Kind kind : Kind.values()) {
+            String configured = environment.getProperty(PREFIX + "keywords." + kind.name().toLowerCase(Locale.ROOT));
+            List<String> keywords = configured == null ? kind.defaultKeywords
+                    : Arrays.stream(configured.split(",")).map(String::trim).filter(k -> !k.isEmpty()).toList();
+            keywords.forEach(keyword -> keywordMasks.merge(keyword.toLowerCase(Locale.ROOT), kind.bit(), (a, b) -> a | b));
+        }
+        this.automaton = new AhoCorasick(keywordMasks);
+        this.preClassify = environment.getProperty(PREFIX + "pre-classify", Boolean.class, false);
+        this.preClassified = Counter.builder("flickit.ai.classifier.pre-classified")
+                .description("Requests answered by the keyword classifier without a model call")
+                .register(meterRegistry);
+    }
+
+    public Classification classify(GenerateContentRequest request) {
+        int url = automaton.scan(request.getImageUrl());
+        int business = automaton.scan(request.getBusinessType());
+        int prompt = automaton.scan(request.getAdditionalPrompt());
+        return new Classification(first(url), first(business), first(prompt), url | business | prompt);
+    }
+
+    /**
+     * Template content for an obvious request when pre-classification is enabled, otherwise empty.
+     */
+    public Optional<GeneratedContentDto> preClassify(GenerateContentRequest request) {
+        if (!preClassify) {
+            return Optional.empty();
+        }
+        Classification classification = classify(request);
+        if (!classification.obvious()) {
+            return Optional.empty();
+        }
+        preClassified.increment();
+        return Optional.of(ContentTemplates.compose(request, classification, random)
+                .confidence(0.8)
+                .modelUsed("keyword-classifier")
+                .generatedAt(Instant.now())
+                .tokensUsed(0)
+                .build());
+    }
+
+    private static Kind first(int mask) {
+        return mask == 0 ? null : Kind.values()[Integer.numberOfTrailingZeros(mask)];
+    }
+}
@@ -0,0 +1,54 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Random;
+
+@Component
+@ConditionalOnProperty(name = "flickit.ai.provider", havingValue = "mock", matchIfMissing = true)
+@Slf4j
+public class MockAiProvider implements AiProvider {
+
+    private final Random random = new Random();
+    private final KeywordClassifier classifier;
+
+    public MockAiProvider(KeywordClassifier classifier) {
+        this.classifier = classifier;
+    }
+
+    // For MVP - mock AI content generation
+    // Later: integrate with OpenAI Vision + GPT API
+
+    @Override
+    public GeneratedContentDto generate(GenerateContentRequest request) {
+        if (request.getImageUrl() == null) {
+            throw new IllegalArgumentException("Image URL is required");
+        }
+        log.info("Generating AI content for image: {}", request.getImageUrl());
+        
+        // Simulate processing delay
+        try {
+            Thread.sleep(500 + random.nextInt(1000)); // 0.5-1.5s delay
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Mock vision analysis: labels, title and category from keywords in the request
+        GeneratedContentDto result = ContentTemplates.compose(request, classifier.classify(request), random)
+                .confidence(0.85 + random.nextDouble() * 0.1) // 85-95% confidence
+                .modelUsed("gpt-4-vision-preview-mock")
+                .generatedAt(Instant.now())
+                .tokensUsed(150 + random.nextInt(100)) // 150-250 tokens
+                .build();
+
+        log.info("Generated AI content: title='{}', category='{}', confidence={}", 
+            result.getTitle(), result.getSuggestedCategory(), result.getConfidence());
+            
+        return result;
+    }
+}
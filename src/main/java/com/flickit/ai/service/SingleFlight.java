@@ -0,0 +1,81 @@
+package com.flickit.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one execution.
+ *
+ * <p>The first caller for a key becomes the leader and runs the supplier; callers arriving while
+ * it runs become followers and block on the leader's future, receiving its result or its
+ * exception. The key is released as soon as the leader finishes, so later calls execute again
+ * (callers put a cache in front for that). Leaders and followers are counted in
+ * {@code flickit.<name>.singleflight.requests{role}}; followers over the total is the coalescing rate.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = requests(meterRegistry, name, "leader");
+        this.followers = requests(meterRegistry, name, "follower");
+        Gauge.builder("flickit." + name + ".singleflight.in-flight", calls, Map::size)
+                .description("Distinct keys currently being executed")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = calls.putIfAbsent(key, call);
+        if (existing != null) {
+            followers.increment();
+            return await(existing);
+        }
+
+        leaders.increment();
+        try {
+            V value = supplier.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String name, String role) {
+        return Counter.builder("flickit." + name + ".singleflight.requests")
+                .description("Calls that ran the work (leader) or shared an identical in-flight call (follower)")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
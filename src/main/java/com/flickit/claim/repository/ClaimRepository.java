@@ -5,7 +5,12 @@ import com.flickit.claim.model.ClaimId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.UUID;
+
 @Repository
 public interface ClaimRepository extends JpaRepository<ClaimEntity, ClaimId> {
     boolean existsById(ClaimId id);
+
+    List<ClaimEntity> findByIdEventId(UUID eventId);
 }
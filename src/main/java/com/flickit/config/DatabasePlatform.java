@@ -0,0 +1,27 @@
+package com.flickit.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Detects the database behind a {@link DataSource} for the few places that use Postgres-only SQL
+ * ({@code SKIP LOCKED}, declarative partitioning) and need a portable fallback for H2.
+ */
+@Slf4j
+public final class DatabasePlatform {
+
+    private DatabasePlatform() {
+    }
+
+    public static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not detect database product, assuming a non-Postgres database: {}", e.getMessage());
+            return false;
+        }
+    }
+}
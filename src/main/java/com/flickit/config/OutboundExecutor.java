@@ -0,0 +1,151 @@
+package com.flickit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for blocking outbound I/O of one integration.
+ *
+ * <p>On runtimes with virtual threads every task gets its own virtual thread and a semaphore caps
+ * how many run at once; otherwise a fixed platform-thread pool is used. Either way at most
+ * {@code maxConcurrency + queueCapacity} tasks are admitted and anything beyond that is rejected
+ * immediately with {@link RejectedExecutionException}, so callers see backpressure instead of an
+ * unbounded backlog.
+ */
+@Slf4j
+public class OutboundExecutor implements Executor {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int maxConcurrency;
+    @Getter
+    private final int queueCapacity;
+    @Getter
+    private final boolean virtualThreads;
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Counter rejected;
+
+    public OutboundExecutor(String name, int maxConcurrency, int queueCapacity, boolean preferVirtualThreads,
+                            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+
+        ExecutorService virtual = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+        if (virtualThreads) {
+            this.delegate = virtual;
+            this.permits = new Semaphore(maxConcurrency);
+        } else {
+            this.delegate = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), platformThreads(name),
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.permits = null;
+        }
+
+        Gauge.builder("flickit.executor.queued", this, OutboundExecutor::getQueued)
+                .description("Tasks admitted but waiting for a free slot")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("flickit.executor.active", this, OutboundExecutor::getActive)
+                .description("Tasks currently running")
+                .tag("pool", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("flickit.executor.rejected")
+                .description("Tasks rejected because the pool and its queue were full")
+                .tag("pool", name)
+                .register(meterRegistry);
+        log.info("Outbound executor '{}' using {} (max concurrency {}, queue {})", name,
+                virtualThreads ? "virtual threads" : "platform threads", maxConcurrency, queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (admitted.incrementAndGet() > maxConcurrency + queueCapacity) {
+            admitted.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Outbound executor '" + name + "' is saturated");
+        }
+        try {
+            delegate.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            admitted.decrementAndGet();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    public int getQueued() {
+        return Math.max(0, admitted.get() - active.get());
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    private void run(Runnable task) {
+        boolean acquired = false;
+        try {
+            if (permits != null) {
+                permits.acquire();
+                acquired = true;
+            }
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (acquired) permits.release();
+            admitted.decrementAndGet();
+        }
+    }
+
+    private static ThreadFactory platformThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Looked up reflectively so the code still compiles and runs on Java 17, where the
+     * platform-thread pool is used instead.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
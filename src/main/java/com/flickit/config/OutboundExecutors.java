@@ -0,0 +1,48 @@
+package com.flickit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named {@link OutboundExecutor}s, one per external integration, so slow calls to one
+ * provider cannot starve another or the shared {@code ForkJoinPool.commonPool()}.
+ *
+ * <p>Each pool is configured under {@code flickit.executors.<name>}: {@code max-concurrency},
+ * {@code queue-capacity} and {@code virtual-threads} (defaults to {@code flickit.executors.virtual-threads}).
+ */
+@Component
+public class OutboundExecutors {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutboundExecutor> executors = new ConcurrentHashMap<>();
+
+    public OutboundExecutors(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public OutboundExecutor executor(String name) {
+        return executors.computeIfAbsent(name, this::create);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(OutboundExecutor::shutdown);
+    }
+
+    private OutboundExecutor create(String name) {
+        String prefix = "flickit.executors." + name + ".";
+        boolean defaultVirtual = environment.getProperty("flickit.executors.virtual-threads", Boolean.class, true);
+        return new OutboundExecutor(name,
+                environment.getProperty(prefix + "max-concurrency", Integer.class, 8),
+                environment.getProperty(prefix + "queue-capacity", Integer.class, 1000),
+                environment.getProperty(prefix + "virtual-threads", Boolean.class, defaultVirtual),
+                meterRegistry);
+    }
+}
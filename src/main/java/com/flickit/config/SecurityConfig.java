@@ -1,9 +1,11 @@
 package com.flickit.config;
 
 import com.flickit.auth.filter.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -19,10 +21,13 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches only write the result of a request that was already authorized (long-poll, SSE)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         //FIXME: /users endpoint should be more restrictive - only allow POST for registration, not all HTTP methods
                         .requestMatchers("/users").permitAll() // Registration should be public
                         .requestMatchers("/events/latest").permitAll() // Event search should be public
+                        .requestMatchers(HttpMethod.GET, "/images/**").permitAll() // Images shown with public events
                         //FIXME: OpenAPI endpoints are temporarily public for development - restrict access in production
                         // Swagger / OpenAPI
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**").permitAll()
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.Instant;
@@ -39,8 +40,10 @@ public class CreateEventRequest {
     @Future(message = "Event must expire in the future")
     private Instant expiresAt;
     
-    // For MVP - simplified image handling (later will be base64 images)
-    private List<String> imageUrls;
+    // URLs returned by POST /images, or hosted by the vendor
+    @Size(max = 10)
+    private List<@Size(max = 1000) String> imageUrls;
+    @Size(max = 1000)
     private String aiImageUrl; // Which image to use for AI processing
     
     // Additional fields for specific categories
@@ -1,6 +1,7 @@
 package com.flickit.event.dto;
 
 import com.flickit.event.model.EventEntity;
+import com.flickit.rating.dto.RatingSummaryDto;
 import lombok.Data;
 
 import java.time.Instant;
@@ -22,6 +23,7 @@ public class EventDto {
     private Instant expiresAt;
     private EventEntity.Status status;
     private UUID vendorId;
+    private Double vendorScore; // used to rank nearby events
     
     // For display - computed fields
     private String title; // titleVendor || titleAi
@@ -32,4 +34,8 @@ public class EventDto {
     private String aiImageUrl;
     private String discount;
     private String style;
+    private Instant aiEnrichedAt; // null while titleAi/descriptionAi still hold the vendor text
+
+    // Maintained incrementally on each rating, never aggregated at read time
+    private RatingSummaryDto ratingSummary;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.flickit.event.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -8,8 +9,10 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Getter;
+import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -53,6 +56,25 @@ public class EventEntity {
 
     private UUID vendorId;
 
+    @Convert(converter = StringListConverter.class)
+    @Column(length = 10240)
+    private List<String> imageUrls;
+
+    @Column(length = 1000)
+    private String aiImageUrl;
+
+    // Set once by the node that sent the "expiring soon" reminder
+    private Instant expiryReminderSentAt;
+
+    // Set when background AI generation replaced the vendor text in titleAi/descriptionAi
+    private Instant aiEnrichedAt;
+
+    // Last time a node queued the AI generation after creation; the enrichment sweep claims events through it
+    private Instant aiEnrichmentQueuedAt;
+
+    @CreationTimestamp
+    private Instant createdAt;
+
     public enum Category {FOOD, SERVICE, OTHER}
 
     public enum Status {ACTIVE, CLAIMED, EXPIRED, REMOVED}
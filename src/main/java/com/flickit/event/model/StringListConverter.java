@@ -0,0 +1,24 @@
+package com.flickit.event.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores a list of URLs as one newline-separated column; URLs cannot contain a raw newline.
+ */
+@Converter
+public class StringListConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> values) {
+        return values == null ? null : String.join("\n", values);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return column == null ? null : column.isEmpty() ? List.of() : Arrays.asList(column.split("\n"));
+    }
+}
@@ -1,13 +1,60 @@
 package com.flickit.event.repository;
 
 import com.flickit.event.model.EventEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface EventRepository extends JpaRepository<EventEntity, UUID> {
     List<EventEntity> findByLatBetweenAndLonBetween(double minLat, double maxLat, double minLon, double maxLon);
+
+    // Feed the expiry reminder rebuild at startup, in keyset pages
+    List<EventEntity> findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullOrderByIdAsc(EventEntity.Status status,
+                                                                                            Instant now, Pageable pageable);
+
+    List<EventEntity> findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullAndIdGreaterThanOrderByIdAsc(
+            EventEntity.Status status, Instant now, UUID afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventEntity e SET e.expiryReminderSentAt = :sentAt WHERE e.id = :id AND e.expiryReminderSentAt IS NULL")
+    int markExpiryReminderSent(@Param("id") UUID id, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventEntity e SET e.titleAi = :titleAi, e.descriptionAi = :descriptionAi, e.aiEnrichedAt = :enrichedAt " +
+            "WHERE e.id = :id")
+    int updateAiContent(@Param("id") UUID id, @Param("titleAi") String titleAi,
+                        @Param("descriptionAi") String descriptionAi, @Param("enrichedAt") Instant enrichedAt);
+
+    @Query("SELECT e FROM EventEntity e WHERE e.status = :status AND e.aiEnrichedAt IS NULL " +
+            "AND e.createdAt > :createdAfter AND COALESCE(e.aiEnrichmentQueuedAt, e.createdAt) < :queuedBefore " +
+            "AND (e.aiImageUrl IS NOT NULL OR e.imageUrls IS NOT NULL) ORDER BY e.id")
+    List<EventEntity> findAwaitingAiContent(@Param("status") EventEntity.Status status,
+                                            @Param("createdAfter") Instant createdAfter,
+                                            @Param("queuedBefore") Instant queuedBefore, Pageable pageable);
+
+    @Query("SELECT e FROM EventEntity e WHERE e.status = :status AND e.aiEnrichedAt IS NULL " +
+            "AND e.createdAt > :createdAfter AND COALESCE(e.aiEnrichmentQueuedAt, e.createdAt) < :queuedBefore " +
+            "AND (e.aiImageUrl IS NOT NULL OR e.imageUrls IS NOT NULL) AND e.id > :afterId ORDER BY e.id")
+    List<EventEntity> findAwaitingAiContentAfter(@Param("status") EventEntity.Status status,
+                                                 @Param("createdAfter") Instant createdAfter,
+                                                 @Param("queuedBefore") Instant queuedBefore,
+                                                 @Param("afterId") UUID afterId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EventEntity e SET e.aiEnrichmentQueuedAt = :queuedAt WHERE e.id = :id AND e.aiEnrichedAt IS NULL " +
+            "AND COALESCE(e.aiEnrichmentQueuedAt, e.createdAt) < :queuedBefore")
+    int claimAiEnrichment(@Param("id") UUID id, @Param("queuedBefore") Instant queuedBefore,
+                          @Param("queuedAt") Instant queuedAt);
 }
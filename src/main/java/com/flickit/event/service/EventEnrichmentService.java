@@ -0,0 +1,242 @@
+package com.flickit.event.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import com.flickit.ai.service.AiRequestScheduler;
+import com.flickit.event.dto.CreateEventRequest;
+import com.flickit.event.model.EventEntity;
+import com.flickit.event.repository.EventRepository;
+import com.flickit.image.service.ImageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fills in {@code titleAi}/{@code descriptionAi} of new events in the background.
+ *
+ * <p>Events are saved with the vendor's text, so creating one never waits for the model. The
+ * generation then goes through the {@link AiRequestScheduler} under the event's vendor, so it
+ * counts against that vendor's quota and the global limits like any other AI call; it waits for
+ * quota rather than failing. Queued generations live only in memory, so a periodic sweep re-queues
+ * events still without AI text - lost to a restart, dropped because the queues were full, or failed
+ * - once {@code retry-after} has passed since they were last queued, until they are {@code max-age}
+ * old. Each is claimed with a conditional update first, so only one node queues it per round.
+ * Events waiting for their AI text are the {@code flickit.events.enrichment.pending} gauge, and
+ * the time from creation to the AI text being stored is recorded in
+ * {@code flickit.events.enrichment.lag}.
+ *
+ * <p>Nothing keeps a copy of the AI text: event listings, notification text and rating titles read
+ * the row when they need it, so storing it is all there is to refresh.
+ */
+@Service
+@Slf4j
+public class EventEnrichmentService {
+
+    private static final int MAX_PROMPT_LENGTH = 500;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    private final AiRequestScheduler aiRequestScheduler;
+    private final EventRepository eventRepository;
+    private final ImageService imageService;
+    private final Duration maxAge;
+    private final Duration retryAfter;
+    private final int sweepPageSize;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Timer lag;
+    private final Counter enriched;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter skipped;
+
+    public EventEnrichmentService(AiRequestScheduler aiRequestScheduler, EventRepository eventRepository,
+                                  ImageService imageService, MeterRegistry meterRegistry,
+                                  @Value("${flickit.events.enrichment.sweep.max-age:24h}") Duration maxAge,
+                                  @Value("${flickit.events.enrichment.sweep.retry-after:10m}") Duration retryAfter,
+                                  @Value("${flickit.events.enrichment.sweep.page-size:200}") int sweepPageSize) {
+        this.aiRequestScheduler = aiRequestScheduler;
+        this.eventRepository = eventRepository;
+        this.imageService = imageService;
+        this.maxAge = maxAge;
+        this.retryAfter = retryAfter;
+        this.sweepPageSize = sweepPageSize;
+        this.lag = Timer.builder("flickit.events.enrichment.lag")
+                .description("Time from event creation to its AI title and description being stored")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.enriched = outcomes(meterRegistry, "enriched");
+        this.failed = outcomes(meterRegistry, "failed");
+        this.dropped = outcomes(meterRegistry, "dropped");
+        this.skipped = outcomes(meterRegistry, "skipped");
+        Gauge.builder("flickit.events.enrichment.pending", pending, AtomicInteger::get)
+                .description("Events waiting for their AI title and description")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues AI generation for a saved event under its vendor's quota; returns without waiting.
+     * Events without an image are skipped, and nothing is queued when the AI queues are full.
+     */
+    public void enqueue(UUID eventId, CreateEventRequest request, UUID vendorId) {
+        submit(eventId, toGenerateRequest(request), vendorId, Instant.now());
+    }
+
+    /**
+     * Re-queues active events younger than {@code max-age} that still have no AI text and were
+     * last queued over {@code retry-after} ago. Pages continue after the last id read, as claimed
+     * events drop out of the query; the sweep stops early when the AI queues are full.
+     *
+     * @return the number of events queued
+     */
+    @Scheduled(fixedDelayString = "${flickit.events.enrichment.sweep.interval-ms:300000}")
+    public int sweep() {
+        Instant now = Instant.now();
+        Instant createdAfter = now.minus(maxAge);
+        Instant queuedBefore = now.minus(retryAfter);
+        Pageable pageable = PageRequest.ofSize(sweepPageSize);
+        int queued = 0;
+        List<EventEntity> page = eventRepository.findAwaitingAiContent(EventEntity.Status.ACTIVE, createdAfter,
+                queuedBefore, pageable);
+        while (!page.isEmpty()) {
+            for (EventEntity event : page) {
+                // Queued on this node and still waiting for quota, or claimed by another node
+                if (inFlight.contains(event.getId())
+                        || eventRepository.claimAiEnrichment(event.getId(), queuedBefore, now) == 0) {
+                    continue;
+                }
+                if (!submit(event.getId(), toGenerateRequest(event), event.getVendorId(), event.getCreatedAt())) {
+                    return queued;
+                }
+                queued++;
+            }
+            if (page.size() < sweepPageSize) {
+                break;
+            }
+            page = eventRepository.findAwaitingAiContentAfter(EventEntity.Status.ACTIVE, createdAfter, queuedBefore,
+                    page.get(page.size() - 1).getId(), pageable);
+        }
+        if (queued > 0) {
+            log.info("Re-queued AI enrichment of {} events", queued);
+        }
+        return queued;
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * @return false when the AI queues are full
+     */
+    private boolean submit(UUID eventId, GenerateContentRequest generateRequest, UUID vendorId, Instant createdAt) {
+        if (generateRequest.getImageUrl() == null) {
+            skipped.increment();
+            return true;
+        }
+        CompletableFuture<GeneratedContentDto> generation;
+        try {
+            generation = aiRequestScheduler.submitWaitingForQuota(generateRequest, vendorId);
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            log.warn("AI queues full, event {} keeps the vendor text until the next sweep", eventId);
+            return false;
+        }
+        pending.incrementAndGet();
+        inFlight.add(eventId);
+        generation.whenComplete((content, error) -> {
+            try {
+                if (error != null) {
+                    failed.increment();
+                    log.warn("AI enrichment of event {} failed: {}", eventId, error.getMessage());
+                } else {
+                    store(eventId, content, createdAt);
+                }
+            } finally {
+                inFlight.remove(eventId);
+                pending.decrementAndGet();
+            }
+        });
+        return true;
+    }
+
+    private void store(UUID eventId, GeneratedContentDto content, Instant createdAt) {
+        try {
+            int updated = eventRepository.updateAiContent(eventId, truncate(content.getTitle(), MAX_TITLE_LENGTH),
+                    truncate(content.getDescription(), MAX_DESCRIPTION_LENGTH), Instant.now());
+            if (updated == 0) {
+                // Deleted while waiting
+                skipped.increment();
+                return;
+            }
+            enriched.increment();
+            if (createdAt != null) {
+                lag.record(Duration.between(createdAt, Instant.now()));
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Could not store AI text of event {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    GenerateContentRequest toGenerateRequest(CreateEventRequest request) {
+        return toGenerateRequest(request.getAiImageUrl(), request.getImageUrls(), request.getCategory(),
+                request.getTitleVendor(), request.getDescriptionVendor(), request.getDiscount(), request.getStyle());
+    }
+
+    GenerateContentRequest toGenerateRequest(EventEntity event) {
+        // Discount and style are not stored, so a re-queued event is described by its vendor text only
+        return toGenerateRequest(event.getAiImageUrl(), event.getImageUrls(), event.getCategory(),
+                event.getTitleVendor(), event.getDescriptionVendor());
+    }
+
+    private GenerateContentRequest toGenerateRequest(String aiImageUrl, List<String> imageUrls,
+                                                     EventEntity.Category category, String... promptParts) {
+        GenerateContentRequest generateRequest = new GenerateContentRequest();
+        String imageUrl = aiImageUrl;
+        if (imageUrl == null && imageUrls != null && !imageUrls.isEmpty()) {
+            imageUrl = imageUrls.get(0);
+        }
+        // Stored images are sent in their downscaled form
+        generateRequest.setImageUrl(imageService.modelInputUrl(imageUrl));
+        generateRequest.setBusinessType(category != null ? category.name().toLowerCase(Locale.ROOT) : null);
+        String prompt = Stream.of(promptParts)
+                .filter(Objects::nonNull)
+                .filter(part -> !part.isBlank())
+                .collect(Collectors.joining(". "));
+        generateRequest.setAdditionalPrompt(prompt.isEmpty() ? null : truncate(prompt, MAX_PROMPT_LENGTH));
+        return generateRequest;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static Counter outcomes(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flickit.events.enrichment")
+                .description("Event AI enrichment outcomes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,16 +1,29 @@
 package com.flickit.event.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.config.TransactionHooks;
 import com.flickit.event.dto.CreateEventRequest;
 import com.flickit.event.dto.EventDto;
 import com.flickit.event.model.EventEntity;
 import com.flickit.event.repository.EventRepository;
-import com.flickit.notification.service.NotificationService;
+import com.flickit.notification.service.EventExpiryReminderScheduler;
+import com.flickit.notification.service.NotificationOutboxService;
+import com.flickit.rating.dto.RatingSummaryDto;
+import com.flickit.rating.model.RatingSummaryEntity;
+import com.flickit.rating.service.RatingSummaryService;
+import com.flickit.rating.service.VendorScoreService;
+import com.flickit.user.model.UserEntity;
+import com.flickit.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -20,19 +33,31 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final ObjectMapper objectMapper;
-    private final NotificationService notificationService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final EventExpiryReminderScheduler expiryReminderScheduler;
+    private final RatingSummaryService ratingSummaryService;
+    private final UserRepository userRepository;
+    private final VendorScoreService vendorScoreService;
+    private final EventEnrichmentService eventEnrichmentService;
 
     public List<EventDto> getAllEvents() {
-        return eventRepository.findAll().stream()
-                .map(entity -> objectMapper.convertValue(entity, EventDto.class))
+        List<EventEntity> events = eventRepository.findAll();
+        Map<UUID, RatingSummaryDto> summaries = ratingSummaryService.getEventSummaries(
+                events.stream().map(EventEntity::getId).toList());
+        return events.stream()
+                .map(entity -> {
+                    EventDto dto = objectMapper.convertValue(entity, EventDto.class);
+                    dto.setRatingSummary(summaries.get(entity.getId()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public EventDto createEvent(CreateEventRequest request, UUID vendorId) {
-        // For MVP - mock AI title/description generation
-        String aiTitle = "AI: " + request.getTitleVendor();
-        String aiDescription = "AI generated: " + (request.getDescriptionVendor() != null ? 
-            request.getDescriptionVendor() : "Great offer!");
+        // Saved with the vendor text; the AI text replaces it once generated in the background
+        String aiTitle = request.getTitleVendor();
+        String aiDescription = request.getDescriptionVendor();
 
         // Create entity using ObjectMapper and then set additional fields
         EventEntity entity = new EventEntity();
@@ -51,14 +76,19 @@ public class EventService {
         tempDto.setExpiresAt(request.getExpiresAt());
         tempDto.setStatus(EventEntity.Status.ACTIVE);
         tempDto.setVendorId(vendorId);
+        tempDto.setImageUrls(request.getImageUrls());
+        tempDto.setAiImageUrl(request.getAiImageUrl());
         
         entity = objectMapper.convertValue(tempDto, EventEntity.class);
 
         EventEntity saved = eventRepository.save(entity);
         EventDto result = convertToDto(saved);
         
-        // Send notification to subscribers in radius
-        notificationService.sendEventCreatedNotification(request.getLat(), request.getLon(), request.getTitleVendor());
+        // Notify subscribers in radius - recorded in the outbox and fanned out in the background
+        notificationOutboxService.enqueueEventCreated(saved.getId(), request.getLat(), request.getLon(),
+                request.getTitleVendor(), request.getDescriptionVendor(), request.getCategory());
+        TransactionHooks.afterCommit(() -> expiryReminderScheduler.schedule(saved.getId(), saved.getExpiresAt()));
+        TransactionHooks.afterCommit(() -> eventEnrichmentService.enqueue(saved.getId(), request, vendorId));
         
         return result;
     }
@@ -66,28 +96,61 @@ public class EventService {
     public List<EventDto> getEventsByLocation(double lat, double lon, double radiusMeters) {
         // For MVP - simple implementation without actual geo-spatial queries
         // In production this would use PostGIS or similar
-        return eventRepository.findAll().stream()
+        List<EventEntity> nearby = eventRepository.findAll().stream()
                 .filter(event -> {
                     double distance = calculateDistance(lat, lon, event.getLat(), event.getLon());
                     return distance <= radiusMeters;
                 })
                 .filter(event -> event.getStatus() == EventEntity.Status.ACTIVE)
                 .filter(event -> event.getExpiresAt().isAfter(Instant.now()))
-                .map(this::convertToDto)
+                .toList();
+        Map<UUID, RatingSummaryDto> summaries = ratingSummaryService.getEventSummaries(
+                nearby.stream().map(EventEntity::getId).toList());
+        Map<UUID, Double> vendorScores = getVendorScores(nearby);
+
+        // Rank by vendor score, nearest first among equally scored vendors
+        return nearby.stream()
+                .sorted(Comparator.<EventEntity>comparingDouble(event -> -vendorScores.getOrDefault(event.getVendorId(), 0.0))
+                        .thenComparingDouble(event -> calculateDistance(lat, lon, event.getLat(), event.getLon())))
+                .map(event -> {
+                    EventDto dto = convertToDto(event, summaries.get(event.getId()));
+                    dto.setVendorScore(vendorScores.get(event.getVendorId()));
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
+    private Map<UUID, Double> getVendorScores(List<EventEntity> events) {
+        List<UUID> vendorIds = events.stream()
+                .map(EventEntity::getVendorId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Instant now = Instant.now();
+        Map<UUID, Double> scores = new HashMap<>();
+        for (UserEntity vendor : userRepository.findAllById(vendorIds)) {
+            scores.put(vendor.getId(), vendorScoreService.score(vendor, now));
+        }
+        return scores;
+    }
+
     public EventDto getEventById(UUID id) {
         return eventRepository.findById(id)
-                .map(this::convertToDto)
+                .map(entity -> convertToDto(entity,
+                        ratingSummaryService.getSummary(RatingSummaryEntity.SubjectType.EVENT, id)))
                 .orElse(null);
     }
 
     private EventDto convertToDto(EventEntity entity) {
+        return convertToDto(entity, null);
+    }
+
+    private EventDto convertToDto(EventEntity entity, RatingSummaryDto ratingSummary) {
         EventDto dto = objectMapper.convertValue(entity, EventDto.class);
         // Set computed fields
         dto.setTitle(entity.getTitleVendor() != null ? entity.getTitleVendor() : entity.getTitleAi());
         dto.setDescription(entity.getDescriptionVendor() != null ? entity.getDescriptionVendor() : entity.getDescriptionAi());
+        dto.setRatingSummary(ratingSummary);
         return dto;
     }
 
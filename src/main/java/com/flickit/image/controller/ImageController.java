@@ -0,0 +1,85 @@
+package com.flickit.image.controller;
+
+import com.flickit.auth.model.CurrentUser;
+import com.flickit.auth.service.AuthContext;
+import com.flickit.image.dto.ImageDto;
+import com.flickit.image.service.ImageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/images")
+@RequiredArgsConstructor
+@Tag(name = "Images", description = "Image upload and downscaled variants")
+public class ImageController {
+
+    private final ImageService imageService;
+
+    @PostMapping(consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasAnyRole('VENDOR', 'ADMIN')")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(
+        summary = "Upload image",
+        description = "Takes the raw image bytes as the request body. Returns 201 with the stored image, or 200 " +
+                    "with an earlier image when the upload is an exact or near duplicate of it. Use modelUrl " +
+                    "as the event's aiImageUrl and url in imageUrls."
+    )
+    public ResponseEntity<ImageDto> upload(HttpServletRequest request) throws IOException {
+        CurrentUser currentUser = AuthContext.getCurrentUser();
+        if (currentUser == null) {
+            return ResponseEntity.status(401).build();
+        }
+        ImageDto image = imageService.ingest(request.getInputStream(), currentUser.getId());
+        return image.isDuplicate()
+                ? ResponseEntity.ok(image)
+                : ResponseEntity.created(URI.create(image.getUrl())).body(image);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get original image")
+    public ResponseEntity<Resource> getOriginal(@PathVariable UUID id) {
+        return serve(id, ImageService.Variant.ORIGINAL);
+    }
+
+    @GetMapping("/{id}/{variant}")
+    @Operation(summary = "Get downscaled image")
+    public ResponseEntity<Resource> getVariant(
+            @PathVariable UUID id,
+            @Parameter(description = "model (AI input) or thumbnail") @PathVariable String variant) {
+        return ImageService.Variant.fromPath(variant)
+                .filter(v -> v != ImageService.Variant.ORIGINAL)
+                .map(v -> serve(id, v))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<Resource> serve(UUID id, ImageService.Variant variant) {
+        // Stored images never change, so clients and proxies may keep them
+        return imageService.find(id, variant)
+                .map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(file.contentType()))
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic())
+                        .<Resource>body(new FileSystemResource(file.path())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
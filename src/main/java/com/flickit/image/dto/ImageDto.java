@@ -0,0 +1,20 @@
+package com.flickit.image.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+@Builder
+public class ImageDto {
+    UUID id;
+    String url;
+    String modelUrl; // downscaled copy to send to the AI provider
+    String thumbnailUrl;
+    String contentType;
+    int width;
+    int height;
+    long sizeBytes;
+    boolean duplicate; // true when the upload matched an image stored earlier
+}
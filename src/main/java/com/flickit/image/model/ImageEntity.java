@@ -0,0 +1,49 @@
+package com.flickit.image.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An uploaded image. The files live under the image directory in a folder named after the id;
+ * this row holds what is needed to serve them and to find duplicates of later uploads.
+ */
+@Entity
+@Table(name = "images", indexes = {
+        @Index(name = "idx_images_sha256", columnList = "sha256")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ImageEntity {
+
+    // Assigned before the files are written, so the folder and the row share it
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    // 64-bit difference hash of the model variant, see PerceptualHash
+    @Column(nullable = false)
+    private long perceptualHash;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private int width;
+
+    @Column(nullable = false)
+    private int height;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    private UUID uploaderId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,21 @@
+package com.flickit.image.repository;
+
+import com.flickit.image.model.ImageEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ImageRepository extends JpaRepository<ImageEntity, UUID> {
+    Optional<ImageEntity> findFirstBySha256(String sha256);
+
+    // Feed the perceptual hash index rebuild at startup, in keyset pages so rows written or removed
+    // meanwhile do not shift later ones into an already read page
+    List<ImageEntity> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<ImageEntity> findByIdGreaterThanOrderByIdAsc(UUID afterId, Pageable pageable);
+}
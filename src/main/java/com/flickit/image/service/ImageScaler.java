@@ -0,0 +1,108 @@
+package com.flickit.image.service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Decoding and downscaling for {@link ImageService}.
+ *
+ * <p>Images are decoded with source subsampling: the reader skips rows and columns while decoding,
+ * so a 12-megapixel photo needed at 512 pixels is never held in memory at full size.
+ */
+final class ImageScaler {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImageScaler() {
+    }
+
+    /**
+     * Decodes {@code file} at roughly twice {@code targetEdge} on its longer side, or at full size
+     * when it is already smaller. Throws {@link IllegalArgumentException} for files that are not a
+     * readable image or have more than {@code maxPixels} pixels.
+     */
+    static Decoded decode(Path file, int targetEdge, long maxPixels) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep twice the target resolution so the final resize still averages neighbouring pixels
+                int step = Math.max(1, Math.max(width, height) / (targetEdge * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                return new Decoded(image, width, height,
+                        mimeTypes != null && mimeTypes.length > 0 ? mimeTypes[0] : "application/octet-stream");
+            } finally {
+                reader.dispose();
+            }
+        } catch (IIOException e) {
+            throw new IllegalArgumentException("Unreadable image: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Scales {@code image} down so its longer side is at most {@code maxEdge}, onto an opaque RGB
+     * canvas (transparent areas become white, as JPEG has no alpha).
+     */
+    static BufferedImage fit(BufferedImage image, int maxEdge) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    static void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * A subsampled decode, with the dimensions and MIME type of the original file.
+     */
+    record Decoded(BufferedImage image, int width, int height, String contentType) {
+    }
+}
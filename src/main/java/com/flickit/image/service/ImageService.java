@@ -0,0 +1,362 @@
+package com.flickit.image.service;
+
+import com.flickit.image.dto.ImageDto;
+import com.flickit.image.model.ImageEntity;
+import com.flickit.image.repository.ImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploaded images on the local filesystem, with a downscaled copy for AI input and a
+ * thumbnail.
+ *
+ * <p>Uploads are streamed to a temporary file in fixed-size chunks, so request bodies are never held
+ * in memory, and are rejected once they exceed {@code max-bytes}. A byte-identical upload (same
+ * SHA-256) returns the stored image instead of a copy, whoever uploaded it. An upload whose
+ * {@link PerceptualHash} is within {@code duplicate-distance} bits of an image from the same uploader
+ * is treated the same way; near matches are never shared between uploaders, and flat or
+ * low-contrast images, whose hashes carry too little detail to tell them apart, only match exactly.
+ * Since AI content is cached by image URL, a duplicate also gets the earlier generated content
+ * without a new provider call.
+ */
+@Service
+@Slf4j
+public class ImageService {
+
+    static final String PREFIX = "flickit.images.";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // A flat image hashes to 0; fewer set (or clear) bits than this is too little detail to compare
+    private static final int MIN_DETAIL_BITS = 8;
+    // The URL returned on upload; absolute URLs belong to other hosts and are left alone
+    private static final Pattern IMAGE_URL = Pattern.compile("/images/([0-9a-fA-F-]{36})/?");
+
+    private final ImageRepository imageRepository;
+    private final Path dir;
+    private final String publicBaseUrl;
+    private final long maxBytes;
+    private final long maxPixels;
+    private final int modelSize;
+    private final int thumbnailSize;
+    private final int duplicateDistance;
+    // One index per uploader, so near matches never cross vendors
+    private final Map<UUID, PerceptualHashIndex> indexes = new ConcurrentHashMap<>();
+    // Images whose hash is reserved in an index while their files and row are written
+    private final Map<UUID, CompletableFuture<ImageEntity>> storing = new ConcurrentHashMap<>();
+    private final Counter stored;
+    private final Counter exactDuplicates;
+    private final Counter nearDuplicates;
+    private final Timer ingestTime;
+
+    public ImageService(ImageRepository imageRepository, Environment environment, MeterRegistry meterRegistry) {
+        this.imageRepository = imageRepository;
+        this.dir = Path.of(environment.getProperty(PREFIX + "dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "flickit-images").toString()));
+        this.publicBaseUrl = environment.getProperty(PREFIX + "public-base-url", "").replaceAll("/+$", "");
+        this.maxBytes = DataSize.parse(environment.getProperty(PREFIX + "max-bytes", "10MB")).toBytes();
+        this.maxPixels = environment.getProperty(PREFIX + "max-pixels", Long.class, 50_000_000L);
+        this.modelSize = environment.getProperty(PREFIX + "model-size", Integer.class, 512);
+        this.thumbnailSize = environment.getProperty(PREFIX + "thumbnail-size", Integer.class, 160);
+        this.duplicateDistance = environment.getProperty(PREFIX + "duplicate-distance", Integer.class, 5);
+        if (duplicateDistance < 0 || duplicateDistance > 31) {
+            throw new IllegalStateException("Image duplicate-distance must be between 0 and 31");
+        }
+        this.stored = uploads(meterRegistry, "stored");
+        this.exactDuplicates = uploads(meterRegistry, "exact-duplicate");
+        this.nearDuplicates = uploads(meterRegistry, "near-duplicate");
+        this.ingestTime = Timer.builder("flickit.images.ingest")
+                .description("Time to store, hash and downscale an upload")
+                .register(meterRegistry);
+        Gauge.builder("flickit.images.indexed", this, ImageService::indexed)
+                .description("Images in the perceptual hash index")
+                .register(meterRegistry);
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot use image directory " + dir, e);
+        }
+    }
+
+    /**
+     * Loads the stored images into the perceptual hash index. Uploads may be ingested meanwhile;
+     * the images they index or are still storing are not added twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        Pageable pageable = PageRequest.ofSize(REBUILD_PAGE_SIZE);
+        List<ImageEntity> page = imageRepository.findAllByOrderByIdAsc(pageable);
+        while (!page.isEmpty()) {
+            page.forEach(image -> {
+                if (!storing.containsKey(image.getId()) && comparable(image.getUploaderId(), image.getPerceptualHash())) {
+                    index(image.getUploaderId()).add(image.getId(), image.getPerceptualHash());
+                }
+            });
+            if (page.size() < REBUILD_PAGE_SIZE) break;
+            page = imageRepository.findByIdGreaterThanOrderByIdAsc(page.get(page.size() - 1).getId(), pageable);
+        }
+        log.info("Perceptual hash index rebuilt with {} images", indexed());
+    }
+
+    /**
+     * Stores the image read from {@code body}, or returns the stored image it duplicates. Throws
+     * {@link IllegalArgumentException} when the body is too large or not a supported image.
+     */
+    public ImageDto ingest(InputStream body, UUID uploaderId) throws IOException {
+        long started = System.nanoTime();
+        Path upload = Files.createTempFile(dir, "upload", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            long size = copy(body, upload, sha256);
+            String digest = HexFormat.of().formatHex(sha256.digest());
+            Optional<ImageEntity> identical = imageRepository.findFirstBySha256(digest);
+            if (identical.isPresent()) {
+                exactDuplicates.increment();
+                return toDto(identical.get(), true);
+            }
+
+            ImageScaler.Decoded decoded = ImageScaler.decode(upload, modelSize, maxPixels);
+            BufferedImage model = ImageScaler.fit(decoded.image(), modelSize);
+            long hash = PerceptualHash.of(model);
+
+            UUID id = UUID.randomUUID();
+            if (!comparable(uploaderId, hash)) {
+                return toDto(store(id, upload, digest, hash, decoded, model, size, uploaderId), false);
+            }
+            PerceptualHashIndex index = index(uploaderId);
+            CompletableFuture<ImageEntity> reservation = new CompletableFuture<>();
+            Optional<PerceptualHashIndex.Match> match;
+            // Only the hash is reserved under the lock, so a near-identical upload racing this one
+            // finds it; the files and the row are written outside
+            synchronized (index) {
+                match = index.nearest(hash);
+                if (match.isEmpty()) {
+                    storing.put(id, reservation);
+                    index.add(id, hash);
+                }
+            }
+            if (match.isPresent()) {
+                Optional<ImageEntity> similar = stored(match.get().id());
+                if (similar.isPresent()) {
+                    nearDuplicates.increment();
+                    return toDto(similar.get(), true);
+                }
+                // The matched upload failed to store; keep this one without indexing it
+                return toDto(store(id, upload, digest, hash, decoded, model, size, uploaderId), false);
+            }
+            try {
+                ImageEntity image = store(id, upload, digest, hash, decoded, model, size, uploaderId);
+                reservation.complete(image);
+                return toDto(image, false);
+            } catch (IOException | RuntimeException e) {
+                index.remove(id, hash);
+                reservation.completeExceptionally(e);
+                throw e;
+            } finally {
+                storing.remove(id);
+            }
+        } finally {
+            Files.deleteIfExists(upload);
+            ingestTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * The image {@code id}, waiting for it if an upload is still storing it; empty if that upload failed.
+     */
+    private Optional<ImageEntity> stored(UUID id) {
+        CompletableFuture<ImageEntity> pending = storing.get(id);
+        if (pending == null) {
+            return imageRepository.findById(id);
+        }
+        try {
+            return Optional.of(pending.join());
+        } catch (CompletionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ImageEntity store(UUID id, Path upload, String digest, long hash, ImageScaler.Decoded decoded,
+                              BufferedImage model, long size, UUID uploaderId) throws IOException {
+        Path imageDir = Files.createDirectories(dir.resolve(id.toString()));
+        Files.move(upload, imageDir.resolve(Variant.ORIGINAL.fileName), StandardCopyOption.ATOMIC_MOVE);
+        ImageScaler.writeJpeg(model, imageDir.resolve(Variant.MODEL.fileName));
+        ImageScaler.writeJpeg(ImageScaler.fit(model, thumbnailSize), imageDir.resolve(Variant.THUMBNAIL.fileName));
+        ImageEntity image = imageRepository.save(ImageEntity.builder()
+                .id(id)
+                .sha256(digest)
+                .perceptualHash(hash)
+                .contentType(decoded.contentType())
+                .width(decoded.width())
+                .height(decoded.height())
+                .sizeBytes(size)
+                .uploaderId(uploaderId)
+                .createdAt(Instant.now())
+                .build());
+        stored.increment();
+        return image;
+    }
+
+    public Optional<StoredFile> find(UUID id, Variant variant) {
+        return imageRepository.findById(id)
+                .map(image -> new StoredFile(dir.resolve(id.toString()).resolve(variant.fileName),
+                        variant == Variant.ORIGINAL ? image.getContentType() : "image/jpeg"))
+                .filter(file -> Files.isRegularFile(file.path()));
+    }
+
+    /**
+     * The URL to give the AI provider for an event image: for an image stored here, referenced by
+     * the relative {@code /images/<id>} URL returned on upload, its downscaled copy, prefixed with
+     * {@code public-base-url}; any other URL unchanged. Without {@code public-base-url} the result
+     * stays relative, which only a provider running in this service (the mock) can use; a remote
+     * provider needs the base URL to fetch it.
+     */
+    public String modelInputUrl(String imageUrl) {
+        if (imageUrl == null) {
+            return null;
+        }
+        Matcher matcher = IMAGE_URL.matcher(imageUrl);
+        if (!matcher.matches()) {
+            return imageUrl;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(matcher.group(1));
+        } catch (IllegalArgumentException e) {
+            return imageUrl;
+        }
+        return imageRepository.existsById(id)
+                ? publicBaseUrl + "/images/" + id + "/" + Variant.MODEL.path
+                : imageUrl;
+    }
+
+    private PerceptualHashIndex index(UUID uploaderId) {
+        return indexes.computeIfAbsent(uploaderId, id -> new PerceptualHashIndex(duplicateDistance));
+    }
+
+    private int indexed() {
+        return indexes.values().stream().mapToInt(PerceptualHashIndex::size).sum();
+    }
+
+    /**
+     * Whether an image may be matched to near-identical ones: it needs a known uploader and enough
+     * detail in its hash.
+     */
+    static boolean comparable(UUID uploaderId, long hash) {
+        int set = Long.bitCount(hash);
+        return uploaderId != null && Math.min(set, 64 - set) >= MIN_DETAIL_BITS;
+    }
+
+    private long copy(InputStream body, Path target, MessageDigest digest) throws IOException {
+        ReadableByteChannel in = Channels.newChannel(body);
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        long size = 0;
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxBytes) {
+                    throw new IllegalArgumentException("Image larger than " + maxBytes + " bytes");
+                }
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return size;
+    }
+
+    private static ImageDto toDto(ImageEntity image, boolean duplicate) {
+        String url = "/images/" + image.getId();
+        return ImageDto.builder()
+                .id(image.getId())
+                .url(url)
+                .modelUrl(url + "/" + Variant.MODEL.path)
+                .thumbnailUrl(url + "/" + Variant.THUMBNAIL.path)
+                .contentType(image.getContentType())
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .sizeBytes(image.getSizeBytes())
+                .duplicate(duplicate)
+                .build();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Counter uploads(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("flickit.images.uploads")
+                .description("Image uploads by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public enum Variant {
+        ORIGINAL("", "original"),
+        MODEL("model", "model.jpg"),
+        THUMBNAIL("thumbnail", "thumbnail.jpg");
+
+        private final String path;
+        private final String fileName;
+
+        Variant(String path, String fileName) {
+            this.path = path;
+            this.fileName = fileName;
+        }
+
+        public static Optional<Variant> fromPath(String path) {
+            for (Variant variant : values()) {
+                if (variant.path.equals(path)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    public record StoredFile(Path path, String contentType) {
+    }
+}
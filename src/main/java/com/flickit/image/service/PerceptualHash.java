@@ -0,0 +1,53 @@
+package com.flickit.image.service;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 64-bit difference hash (dHash): the image is averaged down to a 9x8 grid of luminance values and
+ * each bit records whether a cell is darker than its right neighbour. Re-encoding, resizing and
+ * mild colour changes flip few bits, so the Hamming distance between two hashes measures how
+ * different the images look.
+ */
+public final class PerceptualHash {
+
+    private static final int COLUMNS = 9;
+    private static final int ROWS = 8;
+
+    private PerceptualHash() {
+    }
+
+    public static long of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[][] sums = new long[ROWS][COLUMNS];
+        int[][] counts = new int[ROWS][COLUMNS];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            int cellY = y * ROWS / height;
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int cellX = x * COLUMNS / width;
+                int rgb = row[x];
+                sums[cellY][cellX] += (((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114);
+                counts[cellY][cellX]++;
+            }
+        }
+
+        long hash = 0;
+        for (int y = 0; y < ROWS; y++) {
+            for (int x = 0; x < COLUMNS - 1; x++) {
+                hash = (hash << 1) | (mean(sums, counts, y, x) < mean(sums, counts, y, x + 1) ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static double mean(long[][] sums, int[][] counts, int y, int x) {
+        // Images narrower than the grid leave cells empty
+        return counts[y][x] == 0 ? 0 : (double) sums[y][x] / counts[y][x];
+    }
+}
@@ -0,0 +1,106 @@
+package com.flickit.image.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds the stored image whose {@link PerceptualHash} is closest to a query, within
+ * {@code maxDistance} bits, without comparing against every image.
+ *
+ * <p>The 64 hash bits are split into {@code maxDistance + 1} bands and every image is filed under
+ * the value of each band. Two hashes that differ in at most {@code maxDistance} bits cannot differ
+ * in all bands, so they share at least one bucket: probing the query's buckets finds every match,
+ * and only the few images in those buckets are compared bit by bit.
+ */
+public class PerceptualHashIndex {
+
+    private final int maxDistance;
+    private final int[] bandShift;
+    private final long[] bandMask;
+    private final List<Map<Long, List<Entry>>> bands = new ArrayList<>();
+    private final Set<UUID> ids = new HashSet<>();
+
+    public PerceptualHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 31) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and 31");
+        }
+        this.maxDistance = maxDistance;
+        int bandCount = maxDistance + 1;
+        this.bandShift = new int[bandCount];
+        this.bandMask = new long[bandCount];
+        int shift = 0;
+        for (int band = 0; band < bandCount; band++) {
+            // Spread the remainder over the first bands, so widths differ by at most one bit
+            int width = 64 / bandCount + (band < 64 % bandCount ? 1 : 0);
+            bandShift[band] = shift;
+            bandMask[band] = width == 64 ? -1L : (1L << width) - 1;
+            shift += width;
+            bands.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Files the image under its hash; an image already in the index is left as it is.
+     */
+    public synchronized void add(UUID id, long hash) {
+        if (!ids.add(id)) {
+            return;
+        }
+        Entry entry = new Entry(id, hash);
+        for (int band = 0; band < bands.size(); band++) {
+            bands.get(band).computeIfAbsent(key(hash, band), k -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    public synchronized void remove(UUID id, long hash) {
+        if (!ids.remove(id)) {
+            return;
+        }
+        for (int band = 0; band < bands.size(); band++) {
+            List<Entry> bucket = bands.get(band).get(key(hash, band));
+            if (bucket != null && bucket.removeIf(entry -> entry.id.equals(id)) && bucket.isEmpty()) {
+                bands.get(band).remove(key(hash, band));
+            }
+        }
+    }
+
+    /**
+     * The indexed image closest to {@code hash}, if one is within {@code maxDistance} bits.
+     */
+    public synchronized Optional<Match> nearest(long hash) {
+        Match best = null;
+        for (int band = 0; band < bands.size(); band++) {
+            List<Entry> bucket = bands.get(band).get(key(hash, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry entry : bucket) {
+                int distance = PerceptualHash.distance(hash, entry.hash);
+                if (distance <= maxDistance && (best == null || distance < best.distance())) {
+                    best = new Match(entry.id, distance);
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    private long key(long hash, int band) {
+        return (hash >>> bandShift[band]) & bandMask[band];
+    }
+
+    public record Match(UUID id, int distance) {
+    }
+
+    private record Entry(UUID id, long hash) {
+    }
+}
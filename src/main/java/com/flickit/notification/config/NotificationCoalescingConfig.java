@@ -0,0 +1,37 @@
+package com.flickit.notification.config;
+
+import com.flickit.notification.dto.PendingNotification;
+import com.flickit.notification.dto.PendingRating;
+import com.flickit.notification.service.NotificationCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class NotificationCoalescingConfig {
+
+    /**
+     * Per-device window for "new deal nearby" pushes; {@code 0s} disables coalescing.
+     */
+    @Bean
+    public NotificationCoalescer<PendingNotification> eventCreatedCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${flickit.notifications.coalesce.event-created.window:60s}") Duration window,
+            @Value("${flickit.notifications.coalesce.max-items-per-digest:5}") int maxItemsPerDigest) {
+        return new NotificationCoalescer<>("event-created", window, maxItemsPerDigest, meterRegistry);
+    }
+
+    /**
+     * Per-vendor window for "rating received" pushes; {@code 0s} disables coalescing.
+     */
+    @Bean
+    public NotificationCoalescer<PendingRating> ratingCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${flickit.notifications.coalesce.rating.window:60s}") Duration window,
+            @Value("${flickit.notifications.coalesce.max-items-per-digest:5}") int maxItemsPerDigest) {
+        return new NotificationCoalescer<>("rating", window, maxItemsPerDigest, meterRegistry);
+    }
+}
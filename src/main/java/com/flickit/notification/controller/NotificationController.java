@@ -1,7 +1,9 @@
 package com.flickit.notification.controller;
 
+import com.flickit.notification.dto.NotificationHistoryDto;
 import com.flickit.notification.dto.SubscribeRequest;
 import com.flickit.notification.model.NotificationSubscription;
+import com.flickit.notification.service.NotificationLogService;
 import com.flickit.notification.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +22,7 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationLogService notificationLogService;
 
     @PostMapping("/subscribe")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -45,6 +48,14 @@ public class NotificationController {
         return ResponseEntity.ok(subscriptions);
     }
 
+    @GetMapping("/history")
+    @PreAuthorize("hasAnyRole('CUSTOMER', 'VENDOR', 'ADMIN')")
+    @Operation(summary = "Get notification history", description = "Notifications sent to the current user, newest first, with cursor pagination")
+    public ResponseEntity<NotificationHistoryDto> getHistory(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(notificationLogService.getHistory(cursor, limit));
+    }
+
     @PostMapping("/test")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Send test notification", description = "Admin endpoint to send test notification to current user")
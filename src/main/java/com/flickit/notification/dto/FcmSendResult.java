@@ -0,0 +1,28 @@
+package com.flickit.notification.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class FcmSendResult {
+
+    String fcmToken;
+    Status status;
+    String error;
+
+    public static FcmSendResult sent(String fcmToken) {
+        return new FcmSendResult(fcmToken, Status.SENT, null);
+    }
+
+    public static FcmSendResult of(String fcmToken, Status status, String error) {
+        return new FcmSendResult(fcmToken, status, error);
+    }
+
+    public enum Status {
+        SENT,
+        UNREGISTERED, // token no longer valid - stop sending to it
+        RETRYABLE,    // transient provider error - safe to retry
+        FAILED        // permanent error for this message
+    }
+}
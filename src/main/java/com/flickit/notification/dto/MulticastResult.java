@@ -0,0 +1,25 @@
+package com.flickit.notification.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Per-token outcome of a multicast, in the order the tokens were submitted.
+ */
+@Value
+public class MulticastResult {
+
+    List<FcmSendResult> results;
+
+    public long count(FcmSendResult.Status status) {
+        return results.stream().filter(r -> r.getStatus() == status).count();
+    }
+
+    public List<String> tokens(FcmSendResult.Status status) {
+        return results.stream()
+                .filter(r -> r.getStatus() == status)
+                .map(FcmSendResult::getFcmToken)
+                .toList();
+    }
+}
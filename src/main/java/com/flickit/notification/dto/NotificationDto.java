@@ -32,6 +32,7 @@ public class NotificationDto {
         PENDING,
         SENT,
         FAILED,
-        CANCELLED
+        CANCELLED,
+        DEAD_LETTER
     }
 }
@@ -0,0 +1,18 @@
+package com.flickit.notification.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of a user's notification history, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the next page; it is {@code null} on the last page.
+ */
+@Value
+@Builder
+public class NotificationHistoryDto {
+
+    List<NotificationDto> items;
+    String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.flickit.notification.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A notification addressed to one device that may be held back and merged into a digest.
+ * {@code subscriptionIds} are the device's subscriptions that matched; {@code subject} is what
+ * the notification is about, e.g. the event title.
+ */
+@Value
+@Builder
+public class PendingNotification {
+
+    List<UUID> subscriptionIds;
+    UUID userId;
+    String fcmToken;
+    String subject;
+}
@@ -0,0 +1,19 @@
+package com.flickit.notification.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A rating a vendor is to be told about, held per vendor while its rating pushes are coalesced.
+ * Devices are resolved when the push goes out, not when the rating arrives.
+ */
+@Value
+@Builder
+public class PendingRating {
+
+    UUID vendorId;
+    String eventTitle;
+    int rating;
+}
@@ -1,5 +1,6 @@
 package com.flickit.notification.dto;
 
+import com.flickit.event.model.EventEntity;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -7,6 +8,9 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 public class SubscribeRequest {
 
@@ -27,4 +31,9 @@ public class SubscribeRequest {
     @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
     @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
     private Double longitude;
+
+    // Optional filters; empty means every category / no keyword filter
+    private List<EventEntity.Category> categories = new ArrayList<>();
+
+    private List<String> keywords = new ArrayList<>();
 }
@@ -0,0 +1,76 @@
+package com.flickit.notification.model;
+
+import com.flickit.event.model.EventEntity;
+import com.flickit.notification.dto.NotificationDto;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Transactional outbox row. Written in the same transaction as the domain change that
+ * triggers a notification, then claimed by one {@code NotificationOutboxDispatcher} through a
+ * short lease ({@code claimedBy}/{@code claimedUntil}), so each row is fanned out by one node.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_created", columnList = "status, createdAt"),
+        @Index(name = "idx_notification_outbox_claimed_by", columnList = "claimedBy")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutboxEntry {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationDto.NotificationType type;
+
+    private UUID eventId;
+
+    @Column(nullable = false)
+    private Double latitude;
+
+    @Column(nullable = false)
+    private Double longitude;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Enumerated(EnumType.STRING)
+    private EventEntity.Category category;
+
+    private Long keywordMask;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private String claimedBy;
+
+    private Instant claimedUntil;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant processedAt;
+
+    public enum Status {PENDING, DONE, FAILED}
+}
@@ -0,0 +1,74 @@
+package com.flickit.notification.model;
+
+import com.flickit.notification.dto.NotificationDto;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One push notification for one device token that could not be delivered on the first try.
+ * Rows are claimed by {@code NotificationRetryDispatcher} through a short lease
+ * ({@code claimedBy}/{@code claimedUntil}) so that concurrent dispatchers never send the same row.
+ */
+@Entity
+@Table(name = "notification_queue", indexes = {
+        @Index(name = "idx_notification_queue_status_next_attempt", columnList = "status, nextAttemptAt"),
+        @Index(name = "idx_notification_queue_claimed_by", columnList = "claimedBy")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationQueueEntry {
+
+    public static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    private UUID userId;
+
+    // Same length as NotificationSubscription.fcmToken, so every subscribed token can be queued
+    @Column(nullable = false, length = 500)
+    private String fcmToken;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 1000)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationDto.NotificationType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationDto.NotificationStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    private String claimedBy;
+
+    private Instant claimedUntil;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+}
@@ -48,6 +48,11 @@ public class NotificationSubscription {
     @Column
     private Instant lastNotificationSent;
 
-    // For MVP - simple subscription
-    // Later: categories, time preferences, etc.
+    // Bit per EventEntity.Category; null or 0 means all categories
+    private Integer categoryMask;
+
+    // Bit per KeywordVocabulary keyword; null or 0 means no keyword filter
+    private Long keywordMask;
+
+    // Later: time preferences, etc.
 }
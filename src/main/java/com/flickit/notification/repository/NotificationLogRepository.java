@@ -0,0 +1,166 @@
+package com.flickit.notification.repository;
+
+import com.flickit.config.DatabasePlatform;
+import com.flickit.notification.dto.NotificationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Append-only notification log, kept outside JPA so that it can be a natively partitioned table.
+ *
+ * <p>On Postgres {@code notification_log} is {@code PARTITION BY RANGE (day_bucket)} with one
+ * partition per UTC day, and retention drops whole partitions. Elsewhere (H2 in tests) it is a
+ * plain table with an indexed {@code day_bucket} column and retention deletes whole buckets.
+ */
+@Repository
+@Slf4j
+public class NotificationLogRepository {
+
+    private static final String TABLE = "notification_log";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String COLUMNS = """
+            id UUID NOT NULL,
+            user_id UUID,
+            fcm_token VARCHAR(500) NOT NULL,
+            type VARCHAR(32) NOT NULL,
+            status VARCHAR(32) NOT NULL,
+            title VARCHAR(255),
+            body VARCHAR(1000),
+            error_message VARCHAR(1000),
+            created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+            sent_at TIMESTAMP WITH TIME ZONE,
+            day_bucket DATE NOT NULL
+            """;
+
+    private static final RowMapper<NotificationDto> ROW_MAPPER = (rs, rowNum) -> NotificationDto.builder()
+            .id(rs.getObject("id", UUID.class))
+            .userId(rs.getObject("user_id", UUID.class))
+            .fcmToken(rs.getString("fcm_token"))
+            .type(NotificationDto.NotificationType.valueOf(rs.getString("type")))
+            .status(NotificationDto.NotificationStatus.valueOf(rs.getString("status")))
+            .title(rs.getString("title"))
+            .body(rs.getString("body"))
+            .errorMessage(rs.getString("error_message"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .sentAt(rs.getTimestamp("sent_at") == null ? null : rs.getTimestamp("sent_at").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean partitioned;
+
+    @Autowired
+    public NotificationLogRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this(jdbcTemplate, DatabasePlatform.isPostgres(dataSource));
+    }
+
+    public NotificationLogRepository(JdbcTemplate jdbcTemplate, boolean partitioned) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitioned = partitioned;
+    }
+
+    public void createSchema() {
+        if (partitioned) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + COLUMNS
+                    + ", PRIMARY KEY (day_bucket, id)) PARTITION BY RANGE (day_bucket)");
+        } else {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (" + COLUMNS + ", PRIMARY KEY (id))");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notification_log_day ON " + TABLE + " (day_bucket)");
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notification_log_user_created ON " + TABLE
+                + " (user_id, created_at DESC, id DESC)");
+    }
+
+    /**
+     * Creates the daily partitions for {@code from} to {@code to} inclusive. No-op when not partitioned.
+     */
+    public void ensurePartitions(LocalDate from, LocalDate to) {
+        if (!partitioned) {
+            return;
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(day), TABLE, day, day.plusDays(1)));
+        }
+    }
+
+    /**
+     * Removes every day before {@code cutoff}: drops partitions on Postgres, deletes buckets elsewhere.
+     * Returns the number of partitions dropped or rows deleted.
+     */
+    public int purgeBefore(LocalDate cutoff) {
+        if (!partitioned) {
+            return jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE day_bucket < ?", Date.valueOf(cutoff));
+        }
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, TABLE);
+        String cutoffName = partitionName(cutoff);
+        int dropped = 0;
+        for (String partition : partitions) {
+            // yyyyMMdd suffixes sort chronologically
+            if (partition.startsWith(TABLE + "_") && partition.compareTo(cutoffName) < 0) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    public void insertBatch(List<NotificationDto> notifications) {
+        jdbcTemplate.batchUpdate("INSERT INTO " + TABLE + " (id, user_id, fcm_token, type, status, title, body, "
+                        + "error_message, created_at, sent_at, day_bucket) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                notifications, notifications.size(), (ps, notification) -> {
+                    ps.setObject(1, notification.getId());
+                    ps.setObject(2, notification.getUserId());
+                    ps.setString(3, notification.getFcmToken());
+                    ps.setString(4, notification.getType().name());
+                    ps.setString(5, notification.getStatus().name());
+                    ps.setString(6, notification.getTitle());
+                    ps.setString(7, notification.getBody());
+                    ps.setString(8, notification.getErrorMessage());
+                    ps.setTimestamp(9, Timestamp.from(notification.getCreatedAt()));
+                    ps.setTimestamp(10, notification.getSentAt() == null ? null : Timestamp.from(notification.getSentAt()));
+                    ps.setDate(11, Date.valueOf(dayOf(notification.getCreatedAt())));
+                });
+    }
+
+    /**
+     * Newest-first page of a user's notifications strictly after the {@code (createdAt, id)} cursor,
+     * or from the newest when the cursor is {@code null}.
+     */
+    public List<NotificationDto> findByUser(UUID userId, Instant cursorCreatedAt, UUID cursorId, int limit) {
+        if (cursorCreatedAt == null) {
+            return jdbcTemplate.query("SELECT * FROM " + TABLE + " WHERE user_id = ? "
+                    + "ORDER BY created_at DESC, id DESC LIMIT ?", ROW_MAPPER, userId, limit);
+        }
+        return jdbcTemplate.query("SELECT * FROM " + TABLE + " WHERE user_id = ? AND (created_at, id) < (?, ?) "
+                        + "ORDER BY created_at DESC, id DESC LIMIT ?",
+                ROW_MAPPER, userId, Timestamp.from(cursorCreatedAt), cursorId, limit);
+    }
+
+    public static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static String partitionName(LocalDate day) {
+        return TABLE + "_" + PARTITION_SUFFIX.format(day);
+    }
+}
@@ -0,0 +1,55 @@
+package com.flickit.notification.repository;
+
+import com.flickit.notification.model.NotificationOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, UUID> {
+
+    /**
+     * Postgres claim: rows locked by another dispatcher are skipped instead of waited on.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE notification_outbox SET claimed_by = :owner, claimed_until = :until
+            WHERE id IN (
+                SELECT id FROM notification_outbox
+                WHERE status = 'PENDING' AND (claimed_until IS NULL OR claimed_until < :now)
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int claimPendingSkipLocked(@Param("owner") String owner, @Param("until") Instant until,
+                               @Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("SELECT o.id FROM NotificationOutboxEntry o WHERE o.status = :status " +
+            "AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.createdAt")
+    List<UUID> findPendingIds(@Param("status") NotificationOutboxEntry.Status status, @Param("now") Instant now,
+                              Pageable pageable);
+
+    /**
+     * Portable claim: only rows that are still unclaimed when the UPDATE runs are taken, so a
+     * concurrent dispatcher that selected the same ids simply claims fewer rows.
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutboxEntry o SET o.claimedBy = :owner, o.claimedUntil = :until " +
+            "WHERE o.id IN :ids AND o.status = :status AND (o.claimedUntil IS NULL OR o.claimedUntil < :now)")
+    int claimIds(@Param("ids") Collection<UUID> ids, @Param("status") NotificationOutboxEntry.Status status,
+                 @Param("owner") String owner, @Param("until") Instant until, @Param("now") Instant now);
+
+    List<NotificationOutboxEntry> findByClaimedByOrderByCreatedAtAsc(String claimedBy);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntry o WHERE o.status = :status AND o.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") NotificationOutboxEntry.Status status, @Param("before") Instant before);
+}
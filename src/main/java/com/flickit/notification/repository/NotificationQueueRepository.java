@@ -0,0 +1,54 @@
+package com.flickit.notification.repository;
+
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationQueueEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationQueueRepository extends JpaRepository<NotificationQueueEntry, UUID> {
+
+    /**
+     * Postgres claim: rows locked by another dispatcher are skipped instead of waited on.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE notification_queue SET claimed_by = :owner, claimed_until = :until
+            WHERE id IN (
+                SELECT id FROM notification_queue
+                WHERE status = 'PENDING' AND next_attempt_at <= :now
+                  AND (claimed_until IS NULL OR claimed_until < :now)
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int claimDueSkipLocked(@Param("owner") String owner, @Param("until") Instant until,
+                           @Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("SELECT q.id FROM NotificationQueueEntry q WHERE q.status = :status AND q.nextAttemptAt <= :now " +
+            "AND (q.claimedUntil IS NULL OR q.claimedUntil < :now) ORDER BY q.nextAttemptAt")
+    List<UUID> findDueIds(@Param("status") NotificationDto.NotificationStatus status, @Param("now") Instant now,
+                          Pageable pageable);
+
+    /**
+     * Portable claim: only rows that are still unclaimed when the UPDATE runs are taken, so a
+     * concurrent dispatcher that selected the same ids simply claims fewer rows.
+     */
+    @Modifying
+    @Query("UPDATE NotificationQueueEntry q SET q.claimedBy = :owner, q.claimedUntil = :until " +
+            "WHERE q.id IN :ids AND q.status = :status AND (q.claimedUntil IS NULL OR q.claimedUntil < :now)")
+    int claimIds(@Param("ids") Collection<UUID> ids, @Param("status") NotificationDto.NotificationStatus status,
+                 @Param("owner") String owner,
+                 @Param("until") Instant until, @Param("now") Instant now);
+
+    List<NotificationQueueEntry> findByClaimedBy(String claimedBy);
+}
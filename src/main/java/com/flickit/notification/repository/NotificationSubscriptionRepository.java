@@ -1,11 +1,16 @@
 package com.flickit.notification.repository;
 
 import com.flickit.notification.model.NotificationSubscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,12 +22,24 @@ public interface NotificationSubscriptionRepository extends JpaRepository<Notifi
 
     List<NotificationSubscription> findByUserId(UUID userId);
 
-    // For MVP - using simple Haversine formula (works with H2 and PostgreSQL)
-    @Query("SELECT ns FROM NotificationSubscription ns " +
-           "WHERE ns.isActive = true " +
-           "AND (6371000 * acos(cos(radians(:lat)) * cos(radians(ns.latitude)) * " +
-           "cos(radians(ns.longitude) - radians(:lon)) + sin(radians(:lat)) * sin(radians(ns.latitude)))) <= ns.radiusMeters")
-    List<NotificationSubscription> findActiveSubscriptionsInRadius(@Param("lat") double lat, @Param("lon") double lon);
+    List<NotificationSubscription> findByUserIdAndIsActiveTrue(UUID userId);
+
+    List<NotificationSubscription> findByUserIdInAndIsActiveTrue(Collection<UUID> userIds);
+
+    // Radius matching is done by SubscriptionIndex; these only feed the index rebuild, in keyset
+    // pages so rows deactivated meanwhile do not shift later ones into an already read page
+    List<NotificationSubscription> findByIsActiveTrueOrderByIdAsc(Pageable pageable);
+
+    List<NotificationSubscription> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(UUID afterId, Pageable pageable);
 
     void deleteByUserIdAndFcmToken(UUID userId, String fcmToken);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationSubscription ns SET ns.isActive = false WHERE ns.isActive = true AND ns.fcmToken IN :tokens")
+    int deactivateByFcmTokens(@Param("tokens") Collection<String> tokens);
+
+    @Modifying
+    @Query("UPDATE NotificationSubscription ns SET ns.lastNotificationSent = :sentAt WHERE ns.id IN :ids")
+    int updateLastNotificationSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") Instant sentAt);
 }
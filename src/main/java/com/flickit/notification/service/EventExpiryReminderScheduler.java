@@ -0,0 +1,150 @@
+package com.flickit.notification.service;
+
+import com.flickit.claim.repository.ClaimRepository;
+import com.flickit.event.model.EventEntity;
+import com.flickit.event.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends the EVENT_EXPIRING reminder {@code lead-time} before each active event expires.
+ *
+ * <p>Pending reminders live in a {@link HierarchicalTimingWheel}, so scheduling one on event
+ * creation and cancelling it are O(1) and the periodic tick only touches reminders that are due;
+ * the events table is read once, at startup, to rebuild the wheel. When a reminder fires the event
+ * is re-read and the reminder is claimed with a conditional update, so an event that was removed,
+ * or already reminded by another node, is skipped.
+ */
+@Component
+@Slf4j
+public class EventExpiryReminderScheduler {
+
+    private final EventRepository eventRepository;
+    private final ClaimRepository claimRepository;
+    private final NotificationService notificationService;
+    private final Duration leadTime;
+    private final int rebuildPageSize;
+    private final HierarchicalTimingWheel<UUID> wheel;
+    private final Map<UUID, HierarchicalTimingWheel.Timeout<UUID>> pending = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter skipped;
+
+    public EventExpiryReminderScheduler(EventRepository eventRepository,
+                                        ClaimRepository claimRepository,
+                                        NotificationService notificationService,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${flickit.notifications.expiring.lead-time:10m}") Duration leadTime,
+                                        @Value("${flickit.notifications.expiring.tick-ms:1000}") long tickMs,
+                                        @Value("${flickit.notifications.expiring.rebuild-page-size:1000}") int rebuildPageSize) {
+        this.eventRepository = eventRepository;
+        this.claimRepository = claimRepository;
+        this.notificationService = notificationService;
+        this.leadTime = leadTime;
+        this.rebuildPageSize = rebuildPageSize;
+        // 256 slots per level, 4 levels: one-second ticks cover over a century
+        this.wheel = new HierarchicalTimingWheel<>(Duration.ofMillis(tickMs), 8, 4, Instant.now());
+        this.sent = Counter.builder("flickit.notifications.expiring.sent")
+                .description("Expiry reminders sent")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("flickit.notifications.expiring.skipped")
+                .description("Due expiry reminders skipped because the event changed or was already reminded")
+                .register(meterRegistry);
+        Gauge.builder("flickit.notifications.expiring.pending", wheel, HierarchicalTimingWheel::size)
+                .description("Expiry reminders waiting in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the reminders of active events not yet reminded. Pages continue after the last id
+     * read: reminders sent meanwhile drop events from the query, and offset pages would skip others.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Instant now = Instant.now();
+        Pageable pageable = PageRequest.ofSize(rebuildPageSize);
+        List<EventEntity> page = eventRepository.findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullOrderByIdAsc(
+                EventEntity.Status.ACTIVE, now, pageable);
+        int scheduled = 0;
+        while (!page.isEmpty()) {
+            for (EventEntity event : page) {
+                schedule(event.getId(), event.getExpiresAt());
+                scheduled++;
+            }
+            if (page.size() < rebuildPageSize) break;
+            page = eventRepository.findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullAndIdGreaterThanOrderByIdAsc(
+                    EventEntity.Status.ACTIVE, now, page.get(page.size() - 1).getId(), pageable);
+        }
+        log.info("Expiry reminders rebuilt for {} active events", scheduled);
+    }
+
+    /**
+     * Schedules (or reschedules) the reminder of an event. Events that expire within the lead time
+     * are reminded on the next tick; already expired ones are ignored.
+     */
+    public void schedule(UUID eventId, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            cancel(eventId);
+            return;
+        }
+        HierarchicalTimingWheel.Timeout<UUID> previous = pending.put(eventId, wheel.schedule(expiresAt.minus(leadTime), eventId));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    public void cancel(UUID eventId) {
+        HierarchicalTimingWheel.Timeout<UUID> timeout = pending.remove(eventId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flickit.notifications.expiring.tick-ms:1000}")
+    public void tick() {
+        List<HierarchicalTimingWheel.Timeout<UUID>> fired = wheel.advance(Instant.now());
+        if (fired.isEmpty()) {
+            return;
+        }
+        // Only the fired handle: the event may have been rescheduled since, and its new handle stays cancellable
+        fired.forEach(timeout -> pending.remove(timeout.item(), timeout));
+        List<UUID> due = fired.stream().map(HierarchicalTimingWheel.Timeout::item).toList();
+
+        Instant now = Instant.now();
+        for (EventEntity event : eventRepository.findAllById(due)) {
+            if (event.getStatus() != EventEntity.Status.ACTIVE || !event.getExpiresAt().isAfter(now)
+                    || eventRepository.markExpiryReminderSent(event.getId(), now) == 0) {
+                skipped.increment();
+                continue;
+            }
+            List<UUID> claimerIds = claimRepository.findByIdEventId(event.getId()).stream()
+                    .map(claim -> claim.getId().getUserId())
+                    .toList();
+            try {
+                notificationService.sendEventExpiringNotification(event, claimerIds, Duration.between(now, event.getExpiresAt()));
+                sent.increment();
+            } catch (RuntimeException e) {
+                log.error("Failed to send expiry reminder for event {}", event.getId(), e);
+            }
+        }
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+}
@@ -1,77 +1,138 @@
 package com.flickit.notification.service;
 
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
 import com.flickit.notification.dto.NotificationDto;
+import com.flickit.config.OutboundExecutors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Multicast dispatcher in front of the FCM transport. Token lists are split into
+ * provider-sized chunks which are sent in parallel on the {@code fcm} outbound executor,
+ * and transient per-token failures are retried before results are returned. Chunks the
+ * executor rejects because it is saturated come back as {@code RETRYABLE}.
+ */
 @Service
 @Slf4j
 public class FcmService {
 
-    // For MVP - mock FCM service
-    // Later: integrate with Firebase Admin SDK
+    private final FcmTransport transport;
+    private final int chunkSize;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final Executor executor;
+
+    @Autowired
+    public FcmService(FcmTransport transport,
+                      OutboundExecutors outboundExecutors,
+                      @Value("${flickit.fcm.multicast.chunk-size:500}") int chunkSize,
+                      @Value("${flickit.fcm.multicast.max-retries:1}") int maxRetries,
+                      @Value("${flickit.fcm.multicast.retry-backoff-ms:200}") long retryBackoffMs) {
+        this(transport, outboundExecutors.executor("fcm"), chunkSize, maxRetries, retryBackoffMs);
+    }
+
+    public FcmService(FcmTransport transport, Executor executor, int chunkSize, int maxRetries, long retryBackoffMs) {
+        this.transport = transport;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * Most tokens sent in one provider call; a multicast of at most this many is one executor task.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
 
     public CompletableFuture<Boolean> sendNotification(NotificationDto notification) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                log.info("Sending FCM notification to token: {}, title: '{}', body: '{}'", 
-                    notification.getFcmToken(), notification.getTitle(), notification.getBody());
-                
-                // Simulate FCM API call
-                Thread.sleep(100); // Simulate network delay
-                
-                // For MVP - always succeed
-                // Later: implement actual FCM API call
-                boolean success = Math.random() > 0.1; // 90% success rate for testing
-                
-                if (success) {
-                    log.info("FCM notification sent successfully");
-                    return true;
-                } else {
-                    log.warn("FCM notification failed (simulated)");
-                    return false;
-                }
-            } catch (Exception e) {
-                log.error("Error sending FCM notification", e);
-                return false;
-            }
-        });
+        return sendMulticast(List.of(notification.getFcmToken()), notification.getTitle(), notification.getBody())
+                .thenApply(result -> result.count(FcmSendResult.Status.SENT) == 1);
     }
 
-    public CompletableFuture<Boolean> sendNotificationToTokens(List<String> fcmTokens, String title, String body) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                log.info("Sending FCM notification to {} tokens: title='{}', body='{}'", 
-                    fcmTokens.size(), title, body);
-                
-                // Simulate batch FCM API call
-                Thread.sleep(200); // Simulate network delay
-                
-                // For MVP - always succeed
-                // Later: implement actual FCM batch API call
-                boolean success = Math.random() > 0.05; // 95% success rate for testing
-                
-                if (success) {
-                    log.info("FCM batch notification sent successfully to {} tokens", fcmTokens.size());
-                    return true;
-                } else {
-                    log.warn("FCM batch notification failed (simulated)");
-                    return false;
+    public CompletableFuture<MulticastResult> sendMulticast(List<String> fcmTokens, String title, String body) {
+        if (fcmTokens.isEmpty()) {
+            return CompletableFuture.completedFuture(new MulticastResult(List.of()));
+        }
+
+        List<CompletableFuture<List<FcmSendResult>>> chunks = new ArrayList<>();
+        for (int from = 0; from < fcmTokens.size(); from += chunkSize) {
+            List<String> chunk = fcmTokens.subList(from, Math.min(from + chunkSize, fcmTokens.size()));
+            chunks.add(submitChunk(chunk, title, body));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<FcmSendResult> results = new ArrayList<>(fcmTokens.size());
+                    chunks.forEach(chunk -> results.addAll(chunk.join()));
+                    MulticastResult multicast = new MulticastResult(results);
+                    log.info("FCM multicast to {} tokens in {} chunks: {} sent, {} unregistered, {} retryable, {} failed",
+                            fcmTokens.size(), chunks.size(),
+                            multicast.count(FcmSendResult.Status.SENT),
+                            multicast.count(FcmSendResult.Status.UNREGISTERED),
+                            multicast.count(FcmSendResult.Status.RETRYABLE),
+                            multicast.count(FcmSendResult.Status.FAILED));
+                    return multicast;
+                });
+    }
+
+    private CompletableFuture<List<FcmSendResult>> submitChunk(List<String> chunk, String title, String body) {
+        try {
+            return CompletableFuture.supplyAsync(() -> sendChunk(chunk, title, body), executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("FCM executor saturated, deferring chunk of {} tokens", chunk.size());
+            return CompletableFuture.completedFuture(all(chunk, FcmSendResult.Status.RETRYABLE, e.getMessage()));
+        }
+    }
+
+    private List<FcmSendResult> sendChunk(List<String> chunk, String title, String body) {
+        Map<String, FcmSendResult> outcome = new HashMap<>();
+        List<String> pending = chunk;
+        for (int attempt = 0; ; attempt++) {
+            List<FcmSendResult> results = sendSafely(pending, title, body);
+            List<String> retryable = new ArrayList<>();
+            for (FcmSendResult result : results) {
+                outcome.put(result.getFcmToken(), result);
+                if (result.getStatus() == FcmSendResult.Status.RETRYABLE) {
+                    retryable.add(result.getFcmToken());
                 }
-            } catch (Exception e) {
-                log.error("Error sending FCM batch notification", e);
-                return false;
             }
-        });
+            if (retryable.isEmpty() || attempt >= maxRetries) {
+                break;
+            }
+            pending = retryable;
+            try {
+                Thread.sleep(retryBackoffMs << attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return chunk.stream().map(outcome::get).toList();
+    }
+
+    private List<FcmSendResult> sendSafely(List<String> tokens, String title, String body) {
+        try {
+            return transport.send(tokens, title, body);
+        } catch (RuntimeException e) {
+            log.error("Error sending FCM chunk of {} tokens", tokens.size(), e);
+            return all(tokens, FcmSendResult.Status.RETRYABLE, e.getMessage());
+        }
     }
 
-    public void sendEventCreatedNotification(double lat, double lon, String eventTitle) {
-        // This will be called when a new event is created
-        // For MVP - just log
-        // Later: find subscribers in radius and send notifications
-        log.info("Event created notification would be sent for event '{}' at ({}, {})", eventTitle, lat, lon);
+    private static List<FcmSendResult> all(List<String> tokens, FcmSendResult.Status status, String error) {
+        return tokens.stream().map(token -> FcmSendResult.of(token, status, error)).toList();
     }
 }
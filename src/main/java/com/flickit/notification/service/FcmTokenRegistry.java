@@ -0,0 +1,72 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Device-token view of subscriptions. One device may own several subscriptions (different radii,
+ * re-subscribes), so fan-outs address tokens rather than subscriptions, and tokens the provider
+ * reports as unregistered are deactivated everywhere at once.
+ */
+@Component
+@Slf4j
+public class FcmTokenRegistry {
+
+    private final NotificationSubscriptionRepository subscriptionRepository;
+    private final SubscriptionIndex subscriptionIndex;
+    private final Counter duplicates;
+    private final Counter deactivated;
+
+    public FcmTokenRegistry(NotificationSubscriptionRepository subscriptionRepository,
+                            SubscriptionIndex subscriptionIndex,
+                            MeterRegistry meterRegistry) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionIndex = subscriptionIndex;
+        this.duplicates = Counter.builder("flickit.notifications.tokens.duplicates")
+                .description("Matched subscriptions skipped because their device was already addressed")
+                .register(meterRegistry);
+        this.deactivated = Counter.builder("flickit.notifications.tokens.deactivated")
+                .description("Subscriptions deactivated because the provider reported their token unregistered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Groups matched subscriptions by device token, keeping first-match order, so each device is
+     * addressed once per fan-out.
+     */
+    public Map<String, List<SubscriptionIndex.Entry>> byToken(Collection<SubscriptionIndex.Entry> matched) {
+        Map<String, List<SubscriptionIndex.Entry>> byToken = new LinkedHashMap<>();
+        for (SubscriptionIndex.Entry entry : matched) {
+            byToken.computeIfAbsent(entry.getFcmToken(), token -> new ArrayList<>(1)).add(entry);
+        }
+        duplicates.increment(matched.size() - byToken.size());
+        return byToken;
+    }
+
+    /**
+     * Deactivates every subscription of the given tokens with one bulk UPDATE and drops them from
+     * the in-memory index so they are no longer matched or sent to. Returns the number of rows updated.
+     */
+    public int deactivate(Collection<String> fcmTokens) {
+        if (fcmTokens.isEmpty()) {
+            return 0;
+        }
+        Set<String> tokens = new HashSet<>(fcmTokens);
+        int rows = subscriptionRepository.deactivateByFcmTokens(tokens);
+        subscriptionIndex.removeByFcmTokens(tokens);
+        deactivated.increment(rows);
+        log.info("Deactivated {} subscriptions for {} unregistered FCM tokens", rows, tokens.size());
+        return rows;
+    }
+}
@@ -0,0 +1,14 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+
+import java.util.List;
+
+/**
+ * Sends one provider-sized chunk of tokens in a single blocking call and reports the
+ * outcome for each token, in submission order.
+ */
+public interface FcmTransport {
+
+    List<FcmSendResult> send(List<String> fcmTokens, String title, String body);
+}
@@ -0,0 +1,195 @@
+package com.flickit.notification.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for large numbers of pending timers.
+ *
+ * <p>Level 0 has one slot per tick; each higher level has slots {@code slotsPerLevel} times
+ * wider. A timer goes into the lowest level whose span covers its delay, so scheduling and
+ * cancelling only link or unlink a node in a slot's list: O(1) regardless of how many timers are
+ * pending. When a level wraps, the next slot of the level above is cascaded down, so every timer
+ * moves at most once per level before it fires. Deadlines beyond the top level's span are parked
+ * in its farthest slot and re-placed when that slot cascades.
+ *
+ * <p>The wheel does not own a thread; the owner calls {@link #advance(Instant)} periodically and
+ * handles the expired timeouts. All methods are thread-safe.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int slotBits;
+    private final int levels;
+    private final Node<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(Duration tick, int slotBits, int levels, Instant start) {
+        if (tick.toMillis() < 1 || slotBits < 1 || levels < 1 || (long) slotBits * levels > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry");
+        }
+        this.tickMs = tick.toMillis();
+        this.slotBits = slotBits;
+        this.levels = levels;
+        this.slots = new Node[levels][1 << slotBits];
+        for (Node<T>[] level : slots) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = Node.sentinel();
+            }
+        }
+        this.currentTick = start.toEpochMilli() / tickMs;
+    }
+
+    /**
+     * Schedules {@code item} to expire at {@code deadline}. Deadlines at or before the current tick
+     * expire on the next {@link #advance(Instant)}.
+     */
+    public synchronized Timeout<T> schedule(Instant deadline, T item) {
+        long deadlineTick = Math.max(currentTick + 1, ceilDiv(deadline.toEpochMilli(), tickMs));
+        Node<T> node = new Node<>(this, deadlineTick, item);
+        place(node);
+        size++;
+        return node;
+    }
+
+    /**
+     * Moves the wheel to {@code now} and returns the timeouts whose deadline has passed, in deadline
+     * order. The handles, not just the items, let an owner that maps items to their current handle
+     * tell a fired timeout from one scheduled for the same item since.
+     */
+    public synchronized List<Timeout<T>> advance(Instant now) {
+        long targetTick = now.toEpochMilli() / tickMs;
+        List<Timeout<T>> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Node<T> head = slots[0][(int) (currentTick & mask())];
+            for (Node<T> node = head.next; node != head; ) {
+                Node<T> next = node.next;
+                node.unlink();
+                size--;
+                expired.add(node);
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Handle of a scheduled item.
+     */
+    public interface Timeout<T> {
+
+        T item();
+
+        /**
+         * Removes the item from the wheel; returns {@code false} if it already expired or was cancelled.
+         */
+        boolean cancel();
+    }
+
+    private void cascade(int level) {
+        if (level >= levels || (currentTick & levelMask(level - 1)) != 0) {
+            return;
+        }
+        // Higher levels first, so their timers can land in this level's slot being emptied below
+        cascade(level + 1);
+        Node<T> head = slots[level][(int) ((currentTick >>> (slotBits * level)) & mask())];
+        Node<T> node = head.next;
+        head.next = head;
+        head.prev = head;
+        while (node != head) {
+            Node<T> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<T> node) {
+        long delay = node.deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delay >= 1L << (slotBits * (level + 1))) {
+            level++;
+        }
+        long slotTick = node.deadlineTick;
+        long span = 1L << (slotBits * (level + 1));
+        if (delay >= span) {
+            // Beyond the top level: park in the farthest slot, re-placed when it cascades
+            slotTick = currentTick + span - 1;
+        }
+        int index = (int) ((slotTick >>> (slotBits * level)) & mask());
+        node.linkBefore(slots[level][index]);
+    }
+
+    private long mask() {
+        return (1L << slotBits) - 1;
+    }
+
+    private long levelMask(int level) {
+        return (1L << (slotBits * (level + 1))) - 1;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Node<T> implements Timeout<T> {
+        private final HierarchicalTimingWheel<T> wheel;
+        private final long deadlineTick;
+        private final T item;
+        private Node<T> prev;
+        private Node<T> next;
+
+        private Node(HierarchicalTimingWheel<T> wheel, long deadlineTick, T item) {
+            this.wheel = wheel;
+            this.deadlineTick = deadlineTick;
+            this.item = item;
+        }
+
+        private static <T> Node<T> sentinel() {
+            Node<T> sentinel = new Node<>(null, 0, null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        @Override
+        public T item() {
+            return item;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (wheel) {
+                if (next == null) {
+                    return false;
+                }
+                unlink();
+                wheel.size--;
+                return true;
+            }
+        }
+
+        private void linkBefore(Node<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.flickit.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.notification.dto.FcmSendResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * FCM multicast over HTTP using the legacy {@code /fcm/send} wire format
+ * ({@code registration_ids} in, one {@code results} element per token out).
+ */
+@Component
+@ConditionalOnProperty(name = "flickit.fcm.transport", havingValue = "http")
+@Slf4j
+public class HttpFcmTransport implements FcmTransport {
+
+    private static final Set<String> UNREGISTERED_ERRORS = Set.of("NotRegistered", "InvalidRegistration", "MismatchSenderId");
+    private static final Set<String> RETRYABLE_ERRORS = Set.of("Unavailable", "InternalServerError", "DeviceMessageRateExceeded");
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI endpoint;
+    private final String serverKey;
+    private final Duration requestTimeout;
+
+    public HttpFcmTransport(ObjectMapper objectMapper,
+                            @Value("${flickit.fcm.endpoint:https://fcm.googleapis.com/fcm/send}") String endpoint,
+                            @Value("${flickit.fcm.server-key:}") String serverKey,
+                            @Value("${flickit.fcm.connect-timeout:2s}") Duration connectTimeout,
+                            @Value("${flickit.fcm.request-timeout:10s}") Duration requestTimeout) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(endpoint);
+        this.serverKey = serverKey;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+    }
+
+    @Override
+    public List<FcmSendResult> send(List<String> fcmTokens, String title, String body) {
+        try {
+            String payload = objectMapper.writeValueAsString(Map.of(
+                    "registration_ids", fcmTokens,
+                    "notification", Map.of("title", title, "body", body)));
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "key=" + serverKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(payload))
+                    .build();
+
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 500 || response.statusCode() == 429) {
+                return all(fcmTokens, FcmSendResult.Status.RETRYABLE, "HTTP " + response.statusCode());
+            }
+            if (response.statusCode() != 200) {
+                return all(fcmTokens, FcmSendResult.Status.FAILED, "HTTP " + response.statusCode());
+            }
+            return parse(fcmTokens, objectMapper.readTree(response.body()).path("results"));
+        } catch (IOException e) {
+            log.warn("FCM multicast of {} tokens failed: {}", fcmTokens.size(), e.getMessage());
+            return all(fcmTokens, FcmSendResult.Status.RETRYABLE, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return all(fcmTokens, FcmSendResult.Status.RETRYABLE, "interrupted");
+        }
+    }
+
+    private List<FcmSendResult> parse(List<String> fcmTokens, JsonNode results) {
+        if (!results.isArray() || results.size() != fcmTokens.size()) {
+            return all(fcmTokens, FcmSendResult.Status.RETRYABLE, "Malformed FCM response");
+        }
+        List<FcmSendResult> parsed = new ArrayList<>(fcmTokens.size());
+        for (int i = 0; i < fcmTokens.size(); i++) {
+            String token = fcmTokens.get(i);
+            JsonNode result = results.get(i);
+            if (!result.hasNonNull("error")) {
+                parsed.add(FcmSendResult.sent(token));
+                continue;
+            }
+            String error = result.get("error").asText();
+            FcmSendResult.Status status = UNREGISTERED_ERRORS.contains(error) ? FcmSendResult.Status.UNREGISTERED
+                    : RETRYABLE_ERRORS.contains(error) ? FcmSendResult.Status.RETRYABLE
+                    : FcmSendResult.Status.FAILED;
+            parsed.add(FcmSendResult.of(token, status, error));
+        }
+        return parsed;
+    }
+
+    private static List<FcmSendResult> all(List<String> fcmTokens, FcmSendResult.Status status, String error) {
+        return fcmTokens.stream().map(token -> FcmSendResult.of(token, status, error)).toList();
+    }
+}
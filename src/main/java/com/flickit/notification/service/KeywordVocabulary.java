@@ -0,0 +1,83 @@
+package com.flickit.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Fixed keyword vocabulary that subscriptions can filter on. Each keyword owns one bit of a
+ * {@code long}, so a subscription's keyword preferences and an event's keywords are both masks
+ * and matching is a single AND.
+ */
+@Component
+public class KeywordVocabulary {
+
+    public static final int MAX_KEYWORDS = Long.SIZE;
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<String, Integer> bits = new HashMap<>();
+
+    public KeywordVocabulary(@Value("${flickit.notifications.keywords:pizza,burger,sushi,kebab,coffee,tea,cake,"
+            + "dessert,ice-cream,breakfast,lunch,dinner,vegan,vegetarian,drinks,beer,wine,bakery,fruit,"
+            + "haircut,barber,nails,massage,spa,fitness,yoga,repair,cleaning,laundry,tailor,books,flowers}")
+                             List<String> keywords) {
+        if (keywords.size() > MAX_KEYWORDS) {
+            throw new IllegalStateException("At most " + MAX_KEYWORDS + " notification keywords are supported");
+        }
+        for (String keyword : keywords) {
+            bits.putIfAbsent(normalize(keyword), bits.size());
+        }
+    }
+
+    /**
+     * Mask of the given subscription keywords; {@code 0} (no filter) for an empty collection.
+     *
+     * @throws IllegalArgumentException for a keyword outside the vocabulary
+     */
+    public long maskOf(Collection<String> keywords) {
+        long mask = 0;
+        for (String keyword : keywords) {
+            Integer bit = bits.get(normalize(keyword));
+            if (bit == null) {
+                throw new IllegalArgumentException("Unknown keyword: " + keyword);
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Mask of the vocabulary keywords occurring as words in free text such as an event title.
+     */
+    public long maskOfText(String text) {
+        if (text == null || text.isBlank()) {
+            return 0;
+        }
+        long mask = 0;
+        String normalized = normalize(text);
+        for (String word : WORD_SEPARATOR.split(normalized)) {
+            Integer bit = bits.get(word);
+            if (bit != null) {
+                mask |= 1L << bit;
+            }
+        }
+        // Multi-word and hyphenated keywords ("ice-cream") are not single words after splitting
+        for (Map.Entry<String, Integer> keyword : bits.entrySet()) {
+            if (WORD_SEPARATOR.matcher(keyword.getKey()).find() && normalized.contains(keyword.getKey())) {
+                mask |= 1L << keyword.getValue();
+            }
+        }
+        return mask;
+    }
+
+    private static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+}
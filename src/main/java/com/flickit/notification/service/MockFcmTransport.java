@@ -0,0 +1,34 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+@ConditionalOnProperty(name = "flickit.fcm.transport", havingValue = "mock", matchIfMissing = true)
+@Slf4j
+public class MockFcmTransport implements FcmTransport {
+
+    // For MVP - mock FCM transport
+    // Later: integrate with Firebase Admin SDK
+
+    @Override
+    public List<FcmSendResult> send(List<String> fcmTokens, String title, String body) {
+        log.info("Sending FCM notification to {} tokens: title='{}', body='{}'", fcmTokens.size(), title, body);
+        try {
+            Thread.sleep(100); // Simulate network delay
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 90% success rate for testing, failures are transient
+        return fcmTokens.stream()
+                .map(token -> ThreadLocalRandom.current().nextDouble() > 0.1
+                        ? FcmSendResult.sent(token)
+                        : FcmSendResult.of(token, FcmSendResult.Status.RETRYABLE, "Unavailable (simulated)"))
+                .toList();
+    }
+}
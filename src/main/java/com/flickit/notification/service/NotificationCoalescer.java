@@ -0,0 +1,142 @@
+package com.flickit.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key notification throttle with digests. The first notification for a key is sent right
+ * away and opens a window; notifications arriving while the window is open are held, and when it
+ * closes they are handed out as one {@link Digest} by {@link #drainDue(Instant)}. A digest opens a
+ * new window, so a sustained burst produces at most one push per key and window.
+ *
+ * <p>Keys are whatever one push goes to: FCM tokens for event pushes, so a device's subscriptions
+ * share one window, and vendor ids for ratings. The owner calls {@code drainDue} from a periodic tick.
+ */
+public class NotificationCoalescer<T> {
+
+    private final Duration window;
+    private final int maxItemsPerDigest;
+    private final Map<String, Window<T>> windows = new ConcurrentHashMap<>();
+    private final Counter held;
+    private final Counter digests;
+
+    public NotificationCoalescer(String name, Duration window, int maxItemsPerDigest, MeterRegistry meterRegistry) {
+        this.window = window;
+        this.maxItemsPerDigest = maxItemsPerDigest;
+        this.held = Counter.builder("flickit.notifications.coalescer.held")
+                .description("Notifications held back to be merged into a digest")
+                .tag("coalescer", name)
+                .register(meterRegistry);
+        this.digests = Counter.builder("flickit.notifications.coalescer.digests")
+                .description("Digest notifications emitted")
+                .tag("coalescer", name)
+                .register(meterRegistry);
+        Gauge.builder("flickit.notifications.coalescer.windows", windows, Map::size)
+                .description("Keys with an open coalescing window")
+                .tag("coalescer", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns {@code true} if the item should be sent now, {@code false} if it was held for a digest.
+     *
+     * @param lastSent when the key was last notified according to persistent state, if known; lets
+     *                 a freshly started node honour windows opened before it started
+     */
+    public boolean offer(String key, T item, Instant lastSent, Instant now) {
+        if (window.isZero()) {
+            return true;
+        }
+        boolean[] sendNow = {false};
+        windows.compute(key, (k, current) -> {
+            if (current == null) {
+                if (lastSent != null && lastSent.plus(window).isAfter(now)) {
+                    Window<T> resumed = new Window<>(lastSent.plus(window));
+                    resumed.hold(item, maxItemsPerDigest);
+                    return resumed;
+                }
+                sendNow[0] = true;
+                return new Window<>(now.plus(window));
+            }
+            if (!current.endsAt.isAfter(now) && current.count == 0) {
+                sendNow[0] = true;
+                return new Window<>(now.plus(window));
+            }
+            current.hold(item, maxItemsPerDigest);
+            return current;
+        });
+        if (!sendNow[0]) {
+            held.increment();
+        }
+        return sendNow[0];
+    }
+
+    /**
+     * Closes every window that ended at or before {@code now}, returning a digest for each one that
+     * held notifications. Idle keys are forgotten.
+     */
+    public List<Digest<T>> drainDue(Instant now) {
+        List<Digest<T>> due = new ArrayList<>();
+        for (String key : windows.keySet()) {
+            windows.computeIfPresent(key, (k, current) -> {
+                if (current.endsAt.isAfter(now)) {
+                    return current;
+                }
+                if (current.count == 0) {
+                    return null;
+                }
+                due.add(new Digest<>(k, current.count, List.copyOf(current.latest)));
+                return new Window<>(now.plus(window));
+            });
+        }
+        digests.increment(due.size());
+        return due;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * Notifications held for one key: the total count and the most recent items, oldest first.
+     */
+    @Value
+    public static class Digest<T> {
+        String key;
+        int count;
+        List<T> items;
+
+        public T getLatest() {
+            return items.get(items.size() - 1);
+        }
+    }
+
+    private static final class Window<T> {
+        private final Instant endsAt;
+        private final Deque<T> latest = new ArrayDeque<>();
+        private int count;
+
+        private Window(Instant endsAt) {
+            this.endsAt = endsAt;
+        }
+
+        private void hold(T item, int maxItems) {
+            count++;
+            latest.addLast(item);
+            if (latest.size() > maxItems) {
+                latest.removeFirst();
+            }
+        }
+    }
+}
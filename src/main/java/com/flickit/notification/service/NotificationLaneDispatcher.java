@@ -0,0 +1,255 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multicast admission in front of {@link FcmService} with one lane per notification type, so a
+ * bulk "new deal" fan-out cannot delay time-critical "expiring soon" pushes.
+ *
+ * <p>Multicasts are split into FCM-sized chunks here rather than in {@link FcmService}, and lanes
+ * are scheduled chunk by chunk: a large fan-out is many small work items, not one that floods the
+ * {@code fcm} executor's FIFO queue ahead of everything admitted after it. Lanes share
+ * {@code max-in-flight} chunks, by default the {@code fcm} executor's concurrency so a started
+ * chunk does not wait there, and are served by self-clocked weighted fair queuing: each chunk is
+ * tagged with a virtual finish time of {@code tokens / weight} after its lane's previous one, and
+ * the smallest tag among lanes below their own concurrency cap goes next. A lane with twice the
+ * weight gets twice the token throughput under contention, and an idle lane does not bank credit.
+ * Multicasts arriving at a lane whose queue is full are not sent and come back as
+ * {@code RETRYABLE}, like chunks the FCM executor rejects.
+ *
+ * <p>Lanes are configured under {@code flickit.notifications.lanes.<type>} (e.g.
+ * {@code event-expiring}) with {@code weight}, {@code max-concurrency} and {@code queue-capacity},
+ * the last two counted in chunks.
+ */
+@Component
+@Slf4j
+public class NotificationLaneDispatcher {
+
+    private static final Map<NotificationDto.NotificationType, Integer> DEFAULT_WEIGHTS = Map.of(
+            NotificationDto.NotificationType.EVENT_EXPIRING, 8,
+            NotificationDto.NotificationType.EVENT_CLAIMED, 4,
+            NotificationDto.NotificationType.RATING_RECEIVED, 2,
+            NotificationDto.NotificationType.EVENT_CREATED, 1);
+
+    private final FcmService fcmService;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final Map<NotificationDto.NotificationType, Lane> lanes = new EnumMap<>(NotificationDto.NotificationType.class);
+    private final AtomicInteger wip = new AtomicInteger();
+    private int inFlight;
+    private double virtualTime;
+
+    public NotificationLaneDispatcher(FcmService fcmService, Environment environment, MeterRegistry meterRegistry) {
+        this.fcmService = fcmService;
+        this.chunkSize = fcmService.getChunkSize();
+        if (chunkSize < 1) {
+            throw new IllegalStateException("FCM multicast chunk-size must be positive");
+        }
+        this.maxInFlight = environment.getProperty("flickit.notifications.lanes.max-in-flight", Integer.class,
+                environment.getProperty("flickit.executors.fcm.max-concurrency", Integer.class, 8));
+        for (NotificationDto.NotificationType type : NotificationDto.NotificationType.values()) {
+            String prefix = "flickit.notifications.lanes." + type.name().toLowerCase(Locale.ROOT).replace('_', '-') + ".";
+            int weight = environment.getProperty(prefix + "weight", Integer.class, DEFAULT_WEIGHTS.getOrDefault(type, 1));
+            // Bulk lanes leave room for the others even when they are the only ones busy
+            int maxConcurrency = environment.getProperty(prefix + "max-concurrency", Integer.class,
+                    type == NotificationDto.NotificationType.EVENT_CREATED ? Math.max(1, maxInFlight / 2) : maxInFlight);
+            int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, 10_000);
+            if (weight < 1 || maxConcurrency < 1) {
+                throw new IllegalStateException("Lane " + type + " needs a positive weight and max-concurrency");
+            }
+            lanes.put(type, new Lane(type, weight, maxConcurrency, queueCapacity, meterRegistry));
+            Gauge.builder("flickit.notifications.lane.queued", this, dispatcher -> dispatcher.queued(type))
+                    .description("Chunks waiting in the lane")
+                    .tag("lane", type.name())
+                    .register(meterRegistry);
+            Gauge.builder("flickit.notifications.lane.in-flight", this, dispatcher -> dispatcher.inFlight(type))
+                    .description("Chunks of the lane currently being sent")
+                    .tag("lane", type.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Queues a multicast on the lane of its type; the future completes when FCM has answered every chunk.
+     */
+    public CompletableFuture<MulticastResult> send(NotificationDto.NotificationType type, List<String> fcmTokens,
+                                                   String title, String body) {
+        if (fcmTokens.isEmpty()) {
+            return CompletableFuture.completedFuture(new MulticastResult(List.of()));
+        }
+        Lane lane = lanes.get(type);
+        long enqueuedAt = System.nanoTime();
+        List<Chunk> chunks = new ArrayList<>();
+        for (int from = 0; from < fcmTokens.size(); from += chunkSize) {
+            chunks.add(new Chunk(lane, fcmTokens.subList(from, Math.min(from + chunkSize, fcmTokens.size())),
+                    title, body, enqueuedAt));
+        }
+        synchronized (this) {
+            if (lane.queue.size() >= lane.queueCapacity) {
+                lane.rejected.increment();
+                log.warn("Notification lane {} is full, deferring multicast to {} tokens", type, fcmTokens.size());
+                return CompletableFuture.completedFuture(new MulticastResult(fcmTokens.stream()
+                        .map(token -> FcmSendResult.of(token, FcmSendResult.Status.RETRYABLE, "Lane " + type + " is full"))
+                        .toList()));
+            }
+            for (Chunk chunk : chunks) {
+                chunk.finishTag = Math.max(virtualTime, lane.lastFinishTag) + (double) chunk.tokens.size() / lane.weight;
+                lane.lastFinishTag = chunk.finishTag;
+                lane.queue.addLast(chunk);
+            }
+        }
+        pump();
+        return CompletableFuture.allOf(chunks.stream().map(chunk -> chunk.result).toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    lane.latency.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                    List<FcmSendResult> results = new ArrayList<>(fcmTokens.size());
+                    chunks.forEach(chunk -> results.addAll(chunk.result.join().getResults()));
+                    return new MulticastResult(results);
+                });
+    }
+
+    public int queued(NotificationDto.NotificationType type) {
+        synchronized (this) {
+            return lanes.get(type).queue.size();
+        }
+    }
+
+    public int inFlight(NotificationDto.NotificationType type) {
+        synchronized (this) {
+            return lanes.get(type).inFlight;
+        }
+    }
+
+    /**
+     * Starts as many queued chunks as the caps allow. Re-entrant calls from completions that
+     * happen while pumping only bump {@code wip}, so the loop runs again instead of recursing.
+     */
+    private void pump() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            Chunk next;
+            while ((next = poll()) != null) {
+                start(next);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private synchronized Chunk poll() {
+        if (inFlight >= maxInFlight) {
+            return null;
+        }
+        Lane best = null;
+        for (Lane lane : lanes.values()) {
+            Chunk head = lane.queue.peekFirst();
+            if (head != null && lane.inFlight < lane.maxConcurrency
+                    && (best == null || head.finishTag < best.queue.peekFirst().finishTag)) {
+                best = lane;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        Chunk next = best.queue.pollFirst();
+        virtualTime = next.finishTag;
+        best.inFlight++;
+        inFlight++;
+        return next;
+    }
+
+    private void start(Chunk chunk) {
+        Lane lane = chunk.lane;
+        lane.wait.record(System.nanoTime() - chunk.enqueuedAt, TimeUnit.NANOSECONDS);
+        CompletableFuture<MulticastResult> sent;
+        try {
+            // At most chunk-size tokens, so FcmService sends it as a single executor task
+            sent = fcmService.sendMulticast(chunk.tokens, chunk.title, chunk.body);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((result, error) -> {
+            synchronized (this) {
+                lane.inFlight--;
+                inFlight--;
+            }
+            pump();
+            if (error != null) {
+                chunk.result.completeExceptionally(error);
+            } else {
+                chunk.result.complete(result);
+            }
+        });
+    }
+
+    private static final class Lane {
+        private final int weight;
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final Deque<Chunk> queue = new ArrayDeque<>();
+        private final Timer wait;
+        private final Timer latency;
+        private final Counter rejected;
+        private int inFlight;
+        private double lastFinishTag;
+
+        private Lane(NotificationDto.NotificationType type, int weight, int maxConcurrency, int queueCapacity,
+                     MeterRegistry meterRegistry) {
+            this.weight = weight;
+            this.maxConcurrency = maxConcurrency;
+            this.queueCapacity = queueCapacity;
+            String lane = type.name();
+            this.wait = Timer.builder("flickit.notifications.lane.wait")
+                    .description("Time a chunk waited in its lane before being sent")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+            this.latency = Timer.builder("flickit.notifications.lane.latency")
+                    .description("Time from queuing a multicast to the FCM answer")
+                    .tag("lane", lane)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("flickit.notifications.lane.rejected")
+                    .description("Multicasts deferred because their lane queue was full")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Chunk {
+        private final Lane lane;
+        private final List<String> tokens;
+        private final String title;
+        private final String body;
+        private final long enqueuedAt;
+        private final CompletableFuture<MulticastResult> result = new CompletableFuture<>();
+        private double finishTag;
+
+        private Chunk(Lane lane, List<String> tokens, String title, String body, long enqueuedAt) {
+            this.lane = lane;
+            this.tokens = tokens;
+            this.title = title;
+            this.body = body;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
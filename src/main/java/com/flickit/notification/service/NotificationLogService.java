@@ -0,0 +1,197 @@
+package com.flickit.notification.service;
+
+import com.flickit.auth.model.CurrentUser;
+import com.flickit.auth.service.AuthContext;
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.dto.NotificationHistoryDto;
+import com.flickit.notification.repository.NotificationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Records every send attempt in the notification log. Records are buffered in memory and written
+ * with batched inserts by a periodic flush, so the FCM callback threads never wait on the database;
+ * when the buffer is full new records are dropped and counted rather than blocking delivery.
+ */
+@Service
+@Slf4j
+public class NotificationLogService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationLogRepository logRepository;
+    private final BlockingQueue<NotificationDto> buffer;
+    private final int batchSize;
+    private final int retentionDays;
+    private final int partitionsAhead;
+    private final Counter dropped;
+
+    public NotificationLogService(NotificationLogRepository logRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${flickit.notifications.log.buffer-capacity:10000}") int bufferCapacity,
+                                  @Value("${flickit.notifications.log.batch-size:500}") int batchSize,
+                                  @Value("${flickit.notifications.log.retention-days:30}") int retentionDays,
+                                  @Value("${flickit.notifications.log.partitions-ahead:3}") int partitionsAhead) {
+        this.logRepository = logRepository;
+        this.buffer = new LinkedBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+        this.partitionsAhead = partitionsAhead;
+        this.dropped = Counter.builder("flickit.notifications.log.dropped")
+                .description("Notification log records dropped because the write buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("flickit.notifications.log.buffered", buffer, BlockingQueue::size)
+                .description("Notification log records waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        logRepository.createSchema();
+        maintainPartitions();
+    }
+
+    public void record(NotificationDto notification) {
+        if (notification.getId() == null) {
+            notification.setId(UUID.randomUUID());
+        }
+        // Truncate to what the database stores so keyset cursors round-trip exactly
+        notification.setCreatedAt(notification.getCreatedAt().truncatedTo(ChronoUnit.MICROS));
+        if (!buffer.offer(notification)) {
+            dropped.increment();
+            log.warn("Notification log buffer full, dropping record for token {}", notification.getFcmToken());
+        }
+    }
+
+    /**
+     * Records one log row per token of a multicast. Retryable failures are logged as PENDING
+     * since the retry queue will attempt them again.
+     */
+    public void recordMulticast(MulticastResult result, Map<String, UUID> userIdsByToken,
+                                NotificationDto.NotificationType type, String title, String body) {
+        Instant now = Instant.now();
+        for (FcmSendResult sendResult : result.getResults()) {
+            NotificationDto.NotificationStatus status = switch (sendResult.getStatus()) {
+                case SENT -> NotificationDto.NotificationStatus.SENT;
+                case RETRYABLE -> NotificationDto.NotificationStatus.PENDING;
+                case UNREGISTERED, FAILED -> NotificationDto.NotificationStatus.FAILED;
+            };
+            record(NotificationDto.builder()
+                    .userId(userIdsByToken.get(sendResult.getFcmToken()))
+                    .fcmToken(sendResult.getFcmToken())
+                    .title(title)
+                    .body(body)
+                    .type(type)
+                    .status(status)
+                    .createdAt(now)
+                    .sentAt(status == NotificationDto.NotificationStatus.SENT ? now : null)
+                    .errorMessage(sendResult.getError())
+                    .build());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flickit.notifications.log.flush-interval-ms:500}")
+    public int flush() {
+        int written = 0;
+        List<NotificationDto> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                logRepository.insertBatch(batch);
+                written += batch.size();
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} notification log records", batch.size(), e);
+            }
+            batch.clear();
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Creates upcoming daily partitions and drops (or deletes) days past the retention period.
+     */
+    @Scheduled(fixedDelayString = "${flickit.notifications.log.maintenance-interval-ms:3600000}",
+            initialDelayString = "${flickit.notifications.log.maintenance-interval-ms:3600000}")
+    public void maintainPartitions() {
+        LocalDate today = NotificationLogRepository.dayOf(Instant.now());
+        logRepository.ensurePartitions(today.minusDays(1), today.plusDays(partitionsAhead));
+        int purged = logRepository.purgeBefore(today.minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} expired notification log partitions/rows", purged);
+        }
+    }
+
+    public NotificationHistoryDto getHistory(String cursor, int limit) {
+        CurrentUser currentUser = AuthContext.getCurrentUser();
+        if (currentUser == null) {
+            throw new IllegalStateException("User not authenticated");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Instant cursorCreatedAt = null;
+        UUID cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorCreatedAt = Instant.parse(parts[0]);
+            cursorId = UUID.fromString(parts[1]);
+        }
+
+        List<NotificationDto> items = logRepository.findByUser(currentUser.getId(), cursorCreatedAt, cursorId, limit);
+        String nextCursor = null;
+        if (items.size() == limit) {
+            NotificationDto last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return NotificationHistoryDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String encodeCursor(Instant createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Instant.parse(parts[0]);
+            UUID.fromString(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
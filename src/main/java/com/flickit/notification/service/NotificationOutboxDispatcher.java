@@ -0,0 +1,160 @@
+package com.flickit.notification.service;
+
+import com.flickit.config.DatabasePlatform;
+import com.flickit.notification.model.NotificationOutboxEntry;
+import com.flickit.notification.repository.NotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Polls the notification outbox and performs subscriber matching and sending in batches,
+ * off the request path that created the outbox rows.
+ *
+ * <p>A batch is claimed with a lease before it is sent, so with several nodes each row is fanned
+ * out by one of them: {@code FOR UPDATE SKIP LOCKED} on Postgres, a conditional UPDATE elsewhere
+ * (H2 in tests). Each entry's outcome is committed on its own, so one failing save does not send
+ * the rest of the batch again; a lease left behind by a node that died expires after
+ * {@code claim-lease} and the rows are picked up again.
+ *
+ * <p>Nothing is claimed until the {@link SubscriptionIndex} has been loaded: polling starts before
+ * the application is ready, and rows left pending by a restart would otherwise match no one and be
+ * marked done.
+ */
+@Component
+@ConditionalOnProperty(name = "flickit.notifications.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    private final SubscriptionIndex subscriptionIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean skipLocked;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final Duration claimLease;
+
+    @Autowired
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        NotificationService notificationService,
+                                        SubscriptionIndex subscriptionIndex,
+                                        PlatformTransactionManager transactionManager,
+                                        DataSource dataSource,
+                                        @Value("${flickit.notifications.outbox.batch-size:100}") int batchSize,
+                                        @Value("${flickit.notifications.outbox.max-attempts:5}") int maxAttempts,
+                                        @Value("${flickit.notifications.outbox.retention:1d}") Duration retention,
+                                        @Value("${flickit.notifications.outbox.claim-lease:5m}") Duration claimLease) {
+        this(outboxRepository, notificationService, subscriptionIndex, transactionManager, DatabasePlatform.isPostgres(dataSource),
+                batchSize, maxAttempts, retention, claimLease);
+    }
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        NotificationService notificationService,
+                                        SubscriptionIndex subscriptionIndex,
+                                        PlatformTransactionManager transactionManager,
+                                        boolean skipLocked,
+                                        int batchSize,
+                                        int maxAttempts,
+                                        Duration retention,
+                                        Duration claimLease) {
+        this.outboxRepository = outboxRepository;
+        this.notificationService = notificationService;
+        this.subscriptionIndex = subscriptionIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.skipLocked = skipLocked;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        this.claimLease = claimLease;
+    }
+
+    @Scheduled(fixedDelayString = "${flickit.notifications.outbox.poll-interval-ms:500}")
+    public int dispatchPending() {
+        if (!subscriptionIndex.isReady()) {
+            return 0;
+        }
+        List<NotificationOutboxEntry> batch = claimBatch();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        for (NotificationOutboxEntry entry : batch) {
+            try {
+                notificationService.sendEventCreatedNotification(entry.getLatitude(), entry.getLongitude(), entry.getTitle(),
+                        entry.getCategory(), entry.getKeywordMask() == null ? 0 : entry.getKeywordMask());
+                entry.setStatus(NotificationOutboxEntry.Status.DONE);
+                entry.setProcessedAt(Instant.now());
+            } catch (RuntimeException e) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setLastError(truncate(e.getMessage()));
+                if (entry.getAttempts() >= maxAttempts) {
+                    log.error("Giving up on outbox entry {} after {} attempts", entry.getId(), entry.getAttempts(), e);
+                    entry.setStatus(NotificationOutboxEntry.Status.FAILED);
+                    entry.setProcessedAt(Instant.now());
+                } else {
+                    log.warn("Outbox entry {} failed (attempt {}), will retry", entry.getId(), entry.getAttempts(), e);
+                }
+            }
+            entry.setClaimedBy(null);
+            entry.setClaimedUntil(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboxRepository.save(entry));
+            } catch (RuntimeException e) {
+                // The lease expires and the entry is dispatched again
+                log.error("Could not record outcome of outbox entry {}", entry.getId(), e);
+            }
+        }
+        log.debug("Dispatched {} outbox entries", batch.size());
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${flickit.notifications.outbox.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeProcessed() {
+        int purged = outboxRepository.deleteProcessedBefore(NotificationOutboxEntry.Status.DONE, Instant.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} processed outbox entries", purged);
+        }
+    }
+
+    private List<NotificationOutboxEntry> claimBatch() {
+        String owner = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Instant until = now.plus(claimLease);
+        return transactionTemplate.execute(status -> {
+            int claimed;
+            if (skipLocked) {
+                claimed = outboxRepository.claimPendingSkipLocked(owner, until, now, batchSize);
+            } else {
+                List<UUID> pending = outboxRepository.findPendingIds(NotificationOutboxEntry.Status.PENDING, now,
+                        PageRequest.of(0, batchSize));
+                claimed = pending.isEmpty() ? 0
+                        : outboxRepository.claimIds(pending, NotificationOutboxEntry.Status.PENDING, owner, until, now);
+            }
+            return claimed == 0 ? List.of() : outboxRepository.findByClaimedByOrderByCreatedAtAsc(owner);
+        });
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,40 @@
+package com.flickit.notification.service;
+
+import com.flickit.event.model.EventEntity;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationOutboxEntry;
+import com.flickit.notification.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final KeywordVocabulary keywordVocabulary;
+
+    /**
+     * Records an event-created notification in the caller's transaction. Matching subscribers
+     * and sending happens later on the dispatcher, so the request path only pays for one insert.
+     */
+    @Transactional
+    public void enqueueEventCreated(UUID eventId, double lat, double lon, String eventTitle,
+                                    String eventDescription, EventEntity.Category category) {
+        outboxRepository.save(NotificationOutboxEntry.builder()
+                .type(NotificationDto.NotificationType.EVENT_CREATED)
+                .eventId(eventId)
+                .latitude(lat)
+                .longitude(lon)
+                .title(eventTitle)
+                .category(category)
+                .keywordMask(keywordVocabulary.maskOfText(eventTitle + " " + (eventDescription == null ? "" : eventDescription)))
+                .status(NotificationOutboxEntry.Status.PENDING)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,101 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationQueueEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically claims due rows from the {@link NotificationRetryQueue} and re-sends them,
+ * batching rows that carry the same message into one multicast.
+ */
+@Component
+@ConditionalOnProperty(name = "flickit.notifications.retry.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class NotificationRetryDispatcher {
+
+    private final NotificationRetryQueue retryQueue;
+    private final NotificationLaneDispatcher laneDispatcher;
+    private final FcmTokenRegistry tokenRegistry;
+    private final NotificationLogService notificationLogService;
+    private final int batchSize;
+    private final AtomicInteger sending = new AtomicInteger();
+
+    public NotificationRetryDispatcher(NotificationRetryQueue retryQueue,
+                                       NotificationLaneDispatcher laneDispatcher,
+                                       FcmTokenRegistry tokenRegistry,
+                                       NotificationLogService notificationLogService,
+                                       @Value("${flickit.notifications.retry.batch-size:500}") int batchSize) {
+        this.retryQueue = retryQueue;
+        this.laneDispatcher = laneDispatcher;
+        this.tokenRegistry = tokenRegistry;
+        this.notificationLogService = notificationLogService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Claims due rows and starts their multicasts without waiting for FCM, so the shared scheduler
+     * thread is not held; each multicast completes its rows when it is answered. A poll that finds
+     * the previous batch still in flight claims nothing.
+     */
+    @Scheduled(fixedDelayString = "${flickit.notifications.retry.poll-interval-ms:1000}")
+    public int dispatchDue() {
+        if (sending.get() > 0) {
+            return 0;
+        }
+        List<NotificationQueueEntry> claimed = retryQueue.claimDue(batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<List<String>, List<NotificationQueueEntry>> byMessage = claimed.stream()
+                .collect(Collectors.groupingBy(entry -> List.of(entry.getType().name(), entry.getTitle(), entry.getBody()),
+                        LinkedHashMap::new, Collectors.toList()));
+        sending.addAndGet(byMessage.size());
+        byMessage.forEach((message, entries) -> {
+            List<String> tokens = entries.stream().map(NotificationQueueEntry::getFcmToken).distinct().toList();
+            NotificationDto.NotificationType type = entries.get(0).getType();
+            laneDispatcher.send(type, tokens, message.get(1), message.get(2))
+                    .thenAccept(result -> complete(entries, result, type, message.get(1), message.get(2)))
+                    // Rows left claimed become due again when their lease expires
+                    .whenComplete((ignored, error) -> {
+                        sending.decrementAndGet();
+                        if (error != null) {
+                            log.error("Failed to complete {} retried notifications", entries.size(), error);
+                        }
+                    });
+        });
+
+        log.debug("Retrying {} queued notifications in {} multicasts", claimed.size(), byMessage.size());
+        return claimed.size();
+    }
+
+    /**
+     * Multicasts started by earlier polls that FCM has not answered yet.
+     */
+    public int sending() {
+        return sending.get();
+    }
+
+    private void complete(List<NotificationQueueEntry> entries, MulticastResult result,
+                          NotificationDto.NotificationType type, String title, String body) {
+        retryQueue.complete(entries, result);
+        Map<String, UUID> userIds = new HashMap<>();
+        entries.forEach(entry -> userIds.putIfAbsent(entry.getFcmToken(), entry.getUserId()));
+        notificationLogService.recordMulticast(result, userIds, type, title, body);
+        tokenRegistry.deactivate(result.tokens(FcmSendResult.Status.UNREGISTERED));
+    }
+}
@@ -0,0 +1,187 @@
+package com.flickit.notification.service;
+
+import com.flickit.config.DatabasePlatform;
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationQueueEntry;
+import com.flickit.notification.repository.NotificationQueueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Durable queue for push notifications that failed on their first send. Retryable failures are
+ * rescheduled with jittered exponential backoff and dead-lettered once {@code max-attempts} is
+ * reached; permanent failures are dead-lettered immediately.
+ *
+ * <p>Due rows are claimed with {@code FOR UPDATE SKIP LOCKED} on Postgres. Other databases (H2 in
+ * tests) fall back to selecting due ids and claiming them with a conditional UPDATE.
+ */
+@Component
+@Slf4j
+public class NotificationRetryQueue {
+
+    private final NotificationQueueRepository queueRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean skipLocked;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimLease;
+
+    @Autowired
+    public NotificationRetryQueue(NotificationQueueRepository queueRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  DataSource dataSource,
+                                  @Value("${flickit.notifications.retry.max-attempts:6}") int maxAttempts,
+                                  @Value("${flickit.notifications.retry.base-backoff:5s}") Duration baseBackoff,
+                                  @Value("${flickit.notifications.retry.max-backoff:1h}") Duration maxBackoff,
+                                  @Value("${flickit.notifications.retry.claim-lease:60s}") Duration claimLease) {
+        this(queueRepository, transactionManager, DatabasePlatform.isPostgres(dataSource), maxAttempts, baseBackoff, maxBackoff, claimLease);
+    }
+
+    public NotificationRetryQueue(NotificationQueueRepository queueRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  boolean skipLocked,
+                                  int maxAttempts,
+                                  Duration baseBackoff,
+                                  Duration maxBackoff,
+                                  Duration claimLease) {
+        this.queueRepository = queueRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.skipLocked = skipLocked;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimLease = claimLease;
+    }
+
+    /**
+     * Stores every non-delivered, non-unregistered token of a multicast. Returns the number of rows written.
+     */
+    public int enqueueFailures(MulticastResult result, Map<String, UUID> userIdsByToken,
+                               NotificationDto.NotificationType type, String title, String body) {
+        Instant now = Instant.now();
+        List<NotificationQueueEntry> entries = new ArrayList<>();
+        for (FcmSendResult sendResult : result.getResults()) {
+            if (sendResult.getStatus() != FcmSendResult.Status.RETRYABLE
+                    && sendResult.getStatus() != FcmSendResult.Status.FAILED) {
+                continue;
+            }
+            NotificationQueueEntry entry = NotificationQueueEntry.builder()
+                    .userId(userIdsByToken.get(sendResult.getFcmToken()))
+                    .fcmToken(sendResult.getFcmToken())
+                    .title(title)
+                    .body(body)
+                    .type(type)
+                    .status(NotificationDto.NotificationStatus.PENDING)
+                    .createdAt(now)
+                    .build();
+            recordFailure(entry, sendResult, now);
+            entries.add(entry);
+        }
+        if (!entries.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> queueRepository.saveAll(entries));
+            log.info("Queued {} undelivered {} notifications for retry", entries.size(), type);
+        }
+        return entries.size();
+    }
+
+    /**
+     * Leases up to {@code limit} due rows to the caller. A lease that is not completed within
+     * {@code claim-lease} (e.g. the node died mid-send) expires and the rows become due again.
+     */
+    public List<NotificationQueueEntry> claimDue(int limit) {
+        String owner = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Instant until = now.plus(claimLease);
+        return transactionTemplate.execute(status -> {
+            int claimed;
+            if (skipLocked) {
+                claimed = queueRepository.claimDueSkipLocked(owner, until, now, limit);
+            } else {
+                List<UUID> due = queueRepository.findDueIds(NotificationDto.NotificationStatus.PENDING, now,
+                        PageRequest.of(0, limit));
+                claimed = due.isEmpty() ? 0
+                        : queueRepository.claimIds(due, NotificationDto.NotificationStatus.PENDING, owner, until, now);
+            }
+            return claimed == 0 ? List.of() : queueRepository.findByClaimedBy(owner);
+        });
+    }
+
+    /**
+     * Applies the outcome of re-sending previously claimed rows and releases their lease.
+     */
+    public void complete(Collection<NotificationQueueEntry> claimed, MulticastResult result) {
+        Map<String, FcmSendResult> byToken = result.getResults().stream()
+                .collect(Collectors.toMap(FcmSendResult::getFcmToken, Function.identity(), (a, b) -> a));
+        Instant now = Instant.now();
+        for (NotificationQueueEntry entry : claimed) {
+            FcmSendResult sendResult = byToken.getOrDefault(entry.getFcmToken(),
+                    FcmSendResult.of(entry.getFcmToken(), FcmSendResult.Status.RETRYABLE, "No result for token"));
+            switch (sendResult.getStatus()) {
+                case SENT -> {
+                    entry.setStatus(NotificationDto.NotificationStatus.SENT);
+                    entry.setSentAt(now);
+                }
+                case UNREGISTERED -> {
+                    entry.setStatus(NotificationDto.NotificationStatus.CANCELLED);
+                    entry.setLastError(truncate(sendResult.getError()));
+                }
+                default -> recordFailure(entry, sendResult, now);
+            }
+            entry.setClaimedBy(null);
+            entry.setClaimedUntil(null);
+        }
+        transactionTemplate.executeWithoutResult(status -> queueRepository.saveAll(claimed));
+    }
+
+    /**
+     * Equal-jitter exponential backoff: half of the capped exponential delay is fixed and the
+     * other half random, so retries after a provider outage spread out instead of arriving together.
+     */
+    Duration backoff(int attempts) {
+        long exponent = Math.min(attempts - 1, 30);
+        long capped = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() << exponent);
+        long half = Math.max(1, capped / 2);
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private void recordFailure(NotificationQueueEntry entry, FcmSendResult sendResult, Instant now) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(truncate(sendResult.getError()));
+        if (sendResult.getStatus() == FcmSendResult.Status.FAILED || entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(NotificationDto.NotificationStatus.DEAD_LETTER);
+            entry.setNextAttemptAt(now);
+            log.warn("Dead-lettered {} notification for token {} after {} attempts: {}",
+                    entry.getType(), entry.getFcmToken(), entry.getAttempts(), sendResult.getError());
+        } else {
+            entry.setStatus(NotificationDto.NotificationStatus.PENDING);
+            entry.setNextAttemptAt(now.plus(backoff(entry.getAttempts())));
+        }
+    }
+
+    private static String truncate(String error) {
+        int max = NotificationQueueEntry.MAX_ERROR_LENGTH;
+        return error == null || error.length() <= max ? error : error.substring(0, max);
+    }
+}
@@ -2,17 +2,33 @@ package com.flickit.notification.service;
 
 import com.flickit.auth.model.CurrentUser;
 import com.flickit.auth.service.AuthContext;
+import com.flickit.config.TransactionHooks;
+import com.flickit.event.model.EventEntity;
+import com.flickit.notification.dto.FcmSendResult;
 import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.dto.PendingNotification;
+import com.flickit.notification.dto.PendingRating;
 import com.flickit.notification.dto.SubscribeRequest;
 import com.flickit.notification.model.NotificationSubscription;
 import com.flickit.notification.repository.NotificationSubscriptionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -21,7 +37,15 @@ import java.util.UUID;
 public class NotificationService {
 
     private final NotificationSubscriptionRepository subscriptionRepository;
-    private final FcmService fcmService;
+    private final NotificationLaneDispatcher laneDispatcher;
+    private final SubscriptionIndex subscriptionIndex;
+    private final SubscriptionBulkUpdater subscriptionBulkUpdater;
+    private final NotificationRetryQueue retryQueue;
+    private final NotificationCoalescer<PendingNotification> eventCreatedCoalescer;
+    private final NotificationCoalescer<PendingRating> ratingCoalescer;
+    private final NotificationLogService notificationLogService;
+    private final FcmTokenRegistry tokenRegistry;
+    private final KeywordVocabulary keywordVocabulary;
 
     @Transactional
     public NotificationSubscription subscribe(SubscribeRequest request) {
@@ -35,6 +59,7 @@ public class NotificationService {
                 .ifPresent(existing -> {
                     log.info("Updating existing subscription for user {}", currentUser.getId());
                     subscriptionRepository.delete(existing);
+                    TransactionHooks.afterCommit(() -> subscriptionIndex.remove(existing.getId()));
                 });
 
         // Create new subscription
@@ -44,11 +69,14 @@ public class NotificationService {
                 .radiusMeters(request.getRadiusMeters())
                 .latitude(request.getLatitude())
                 .longitude(request.getLongitude())
+                .categoryMask(SubscriptionFilter.categoryMask(request.getCategories()))
+                .keywordMask(keywordVocabulary.maskOf(request.getKeywords()))
                 .isActive(true)
                 .createdAt(Instant.now())
                 .build();
 
         NotificationSubscription saved = subscriptionRepository.save(subscription);
+        TransactionHooks.afterCommit(() -> subscriptionIndex.put(saved));
         log.info("User {} subscribed to notifications with radius {}m at ({}, {})", 
             currentUser.getId(), request.getRadiusMeters(), request.getLatitude(), request.getLongitude());
 
@@ -62,6 +90,8 @@ public class NotificationService {
             throw new IllegalStateException("User not authenticated");
         }
 
+        subscriptionRepository.findByUserIdAndFcmToken(currentUser.getId(), fcmToken)
+                .ifPresent(existing -> TransactionHooks.afterCommit(() -> subscriptionIndex.remove(existing.getId())));
         subscriptionRepository.deleteByUserIdAndFcmToken(currentUser.getId(), fcmToken);
         log.info("User {} unsubscribed from notifications with token {}", currentUser.getId(), fcmToken);
     }
@@ -76,86 +106,200 @@ public class NotificationService {
         return subscriptionRepository.findByUserId(currentUser.getId());
     }
 
-    @Transactional
-    public void sendEventCreatedNotification(double lat, double lon, String eventTitle) {
-        // Find all active subscriptions in radius
-        List<NotificationSubscription> subscriptions = subscriptionRepository
-                .findActiveSubscriptionsInRadius(lat, lon);
+    public void sendEventCreatedNotification(double lat, double lon, String eventTitle,
+                                             EventEntity.Category category, long keywordMask) {
+        // Find all active subscriptions in radius whose category/keyword filters accept the event
+        List<SubscriptionIndex.Entry> subscriptions = subscriptionIndex.findContaining(lat, lon,
+                SubscriptionFilter.categoryBit(category), keywordMask);
 
         if (subscriptions.isEmpty()) {
             log.info("No active subscriptions found for event at ({}, {})", lat, lon);
             return;
         }
 
+        // One push per device; devices notified within the coalescing window get this event in their next digest instead
+        Map<String, List<SubscriptionIndex.Entry>> byToken = tokenRegistry.byToken(subscriptions);
+        Instant now = Instant.now();
+        List<PendingNotification> recipients = new ArrayList<>(byToken.size());
+        byToken.forEach((token, entries) -> {
+            PendingNotification pending = pending(token, entries, eventTitle);
+            if (eventCreatedCoalescer.offer(token, pending, lastNotificationSent(entries), now)) {
+                recipients.add(pending);
+            }
+        });
+        if (recipients.size() < byToken.size()) {
+            log.info("Held event notification for {} of {} devices for digest",
+                    byToken.size() - recipients.size(), byToken.size());
+        }
+
+        deliver(recipients, NotificationDto.NotificationType.EVENT_CREATED,
+                "New Deal Nearby!", String.format("Check out: %s", eventTitle));
+    }
+
+    /**
+     * Reminds the event's claimers and the subscribers around it that the event is about to
+     * expire. Each device gets one push even if it is both.
+     */
+    public void sendEventExpiringNotification(EventEntity event, Collection<UUID> claimerIds, Duration remaining) {
+        String eventTitle = event.getTitleVendor() != null ? event.getTitleVendor() : event.getTitleAi();
+        long keywordMask = keywordVocabulary.maskOfText(eventTitle + " "
+                + (event.getDescriptionVendor() != null ? event.getDescriptionVendor() : ""));
+        Map<UUID, SubscriptionIndex.Entry> subscriptions = new LinkedHashMap<>();
+        if (!claimerIds.isEmpty()) {
+            subscriptionRepository.findByUserIdInAndIsActiveTrue(claimerIds)
+                    .forEach(subscription -> subscriptions.put(subscription.getId(), SubscriptionIndex.Entry.from(subscription)));
+        }
+        subscriptionIndex.findContaining(event.getLat(), event.getLon(), SubscriptionFilter.categoryBit(event.getCategory()), keywordMask)
+                .forEach(entry -> subscriptions.putIfAbsent(entry.getId(), entry));
+
+        if (subscriptions.isEmpty()) {
+            log.info("No subscriptions to remind about expiring event {}", event.getId());
+            return;
+        }
+
+        long minutes = Math.max(1, (remaining.toSeconds() + 59) / 60);
+        deliver(devices(new ArrayList<>(subscriptions.values()), eventTitle), NotificationDto.NotificationType.EVENT_EXPIRING,
+                "Ending Soon!", String.format("'%s' ends in %d min", eventTitle, minutes));
+    }
+
+    /**
+     * Sends one digest per device whose coalescing window closed with held notifications; a device
+     * with several matching subscriptions gets one digest, as it gets one push per event.
+     * Digests with identical text are sent as a single multicast.
+     */
+    @Scheduled(fixedDelayString = "${flickit.notifications.coalesce.flush-interval-ms:1000}")
+    public void flushEventCreatedDigests() {
+        List<NotificationCoalescer.Digest<PendingNotification>> digests = eventCreatedCoalescer.drainDue(Instant.now());
+        if (digests.isEmpty()) {
+            return;
+        }
+
+        Map<List<String>, List<PendingNotification>> byMessage = new LinkedHashMap<>();
+        for (NotificationCoalescer.Digest<PendingNotification> digest : digests) {
+            String latest = digest.getLatest().getSubject();
+            List<String> message = digest.getCount() == 1
+                    ? List.of("New Deal Nearby!", String.format("Check out: %s", latest))
+                    : List.of(String.format("%d new deals nearby", digest.getCount()), String.format("Latest: %s", latest));
+            byMessage.computeIfAbsent(message, key -> new ArrayList<>()).add(digest.getLatest());
+        }
+        byMessage.forEach((message, recipients) -> deliver(recipients, NotificationDto.NotificationType.EVENT_CREATED,
+                message.get(0), message.get(1)));
+        log.info("Flushed {} event digests in {} multicasts", digests.size(), byMessage.size());
+    }
+
+    private void deliver(List<PendingNotification> recipients, NotificationDto.NotificationType type,
+                         String title, String body) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
         // Extract FCM tokens
-        List<String> fcmTokens = subscriptions.stream()
-                .map(NotificationSubscription::getFcmToken)
+        List<String> fcmTokens = recipients.stream()
+                .map(PendingNotification::getFcmToken)
                 .toList();
 
-        // Send notification
-        String title = "New Deal Nearby!";
-        String body = String.format("Check out: %s", eventTitle);
-
-        fcmService.sendNotificationToTokens(fcmTokens, title, body)
-                .thenAccept(success -> {
-                    if (success) {
-                        log.info("Event notification sent to {} subscribers", fcmTokens.size());
-                        // Update lastNotificationSent for all subscriptions
-                        subscriptions.forEach(sub -> {
-                            sub.setLastNotificationSent(Instant.now());
-                            subscriptionRepository.save(sub);
-                        });
-                    } else {
-                        log.warn("Failed to send event notification to {} subscribers", fcmTokens.size());
+        laneDispatcher.send(type, fcmTokens, title, body)
+                .thenAccept(result -> {
+                    Set<String> sentTokens = new HashSet<>(result.tokens(FcmSendResult.Status.SENT));
+                    log.info("{} notification sent to {} of {} subscribers", type, sentTokens.size(), fcmTokens.size());
+                    if (!sentTokens.isEmpty()) {
+                        // Update lastNotificationSent for delivered subscriptions
+                        List<UUID> sentIds = recipients.stream()
+                                .filter(recipient -> sentTokens.contains(recipient.getFcmToken()))
+                                .flatMap(recipient -> recipient.getSubscriptionIds().stream())
+                                .toList();
+                        subscriptionBulkUpdater.markNotified(sentIds, Instant.now());
                     }
+                    tokenRegistry.deactivate(result.tokens(FcmSendResult.Status.UNREGISTERED));
+                    Map<String, UUID> userIds = userIdsByToken(recipients);
+                    notificationLogService.recordMulticast(result, userIds, type, title, body);
+                    retryQueue.enqueueFailures(result, userIds, type, title, body);
                 })
                 .exceptionally(throwable -> {
-                    log.error("Error sending event notification", throwable);
+                    log.error("Error sending {} notification", type, throwable);
                     return null;
                 });
     }
 
-    @Transactional
+    private static PendingNotification pending(String fcmToken, List<SubscriptionIndex.Entry> subscriptions, String subject) {
+        return PendingNotification.builder()
+                .subscriptionIds(subscriptions.stream().map(SubscriptionIndex.Entry::getId).toList())
+                .userId(subscriptions.get(0).getUserId())
+                .fcmToken(fcmToken)
+                .subject(subject)
+                .build();
+    }
+
+    private static Instant lastNotificationSent(List<SubscriptionIndex.Entry> subscriptions) {
+        return subscriptions.stream()
+                .map(SubscriptionIndex.Entry::getLastNotificationSent)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private static Map<String, UUID> userIdsByToken(List<PendingNotification> recipients) {
+        Map<String, UUID> userIds = new HashMap<>();
+        recipients.forEach(recipient -> userIds.putIfAbsent(recipient.getFcmToken(), recipient.getUserId()));
+        return userIds;
+    }
+
     public void sendRatingNotification(UUID userId, String eventTitle, int rating) {
         // Find user's active subscriptions
-        List<NotificationSubscription> subscriptions = subscriptionRepository.findByUserId(userId);
-        
+        List<SubscriptionIndex.Entry> subscriptions = activeSubscriptions(userId);
+
         if (subscriptions.isEmpty()) {
             log.info("No active subscriptions found for user {}", userId);
             return;
         }
 
-        // Send rating notification
-        String title = "Rating Received!";
-        String body = String.format("Your event '%s' received a %d-star rating", eventTitle, rating);
-
-        subscriptions.stream()
-                .filter(NotificationSubscription::getIsActive)
-                .forEach(subscription -> {
-                    NotificationDto notification = NotificationDto.builder()
-                            .userId(userId)
-                            .fcmToken(subscription.getFcmToken())
-                            .title(title)
-                            .body(body)
-                            .type(NotificationDto.NotificationType.RATING_RECEIVED)
-                            .status(NotificationDto.NotificationStatus.PENDING)
-                            .createdAt(Instant.now())
-                            .build();
-
-                    fcmService.sendNotification(notification)
-                            .thenAccept(success -> {
-                                if (success) {
-                                    log.info("Rating notification sent to user {} for event '{}'", userId, eventTitle);
-                                    subscription.setLastNotificationSent(Instant.now());
-                                    subscriptionRepository.save(subscription);
-                                } else {
-                                    log.warn("Failed to send rating notification to user {} for event '{}'", userId, eventTitle);
-                                }
-                            })
-                            .exceptionally(throwable -> {
-                                log.error("Error sending rating notification", throwable);
-                                return null;
-                            });
-                });
+        // One window per vendor; ratings arriving while it is open go out as one "N new ratings" push
+        PendingRating pending = PendingRating.builder()
+                .vendorId(userId)
+                .eventTitle(eventTitle)
+                .rating(rating)
+                .build();
+        if (!ratingCoalescer.offer(userId.toString(), pending, lastNotificationSent(subscriptions), Instant.now())) {
+            log.info("Held rating notification for user {} for digest", userId);
+            return;
+        }
+
+        deliver(devices(subscriptions, eventTitle), NotificationDto.NotificationType.RATING_RECEIVED,
+                "Rating Received!", ratingBody(pending));
+    }
+
+    /**
+     * Sends one rating digest per vendor whose coalescing window closed with held ratings, to all
+     * of the vendor's devices in a single multicast.
+     */
+    @Scheduled(fixedDelayString = "${flickit.notifications.coalesce.flush-interval-ms:1000}")
+    public void flushRatingDigests() {
+        for (NotificationCoalescer.Digest<PendingRating> digest : ratingCoalescer.drainDue(Instant.now())) {
+            PendingRating latest = digest.getLatest();
+            List<PendingNotification> recipients = devices(activeSubscriptions(latest.getVendorId()), latest.getEventTitle());
+            if (digest.getCount() == 1) {
+                deliver(recipients, NotificationDto.NotificationType.RATING_RECEIVED, "Rating Received!", ratingBody(latest));
+            } else {
+                deliver(recipients, NotificationDto.NotificationType.RATING_RECEIVED,
+                        String.format("%d new ratings", digest.getCount()),
+                        String.format("Latest: %d stars for '%s'", latest.getRating(), latest.getEventTitle()));
+            }
+        }
+    }
+
+    private List<SubscriptionIndex.Entry> activeSubscriptions(UUID userId) {
+        return subscriptionRepository.findByUserIdAndIsActiveTrue(userId).stream()
+                .map(SubscriptionIndex.Entry::from)
+                .toList();
+    }
+
+    private List<PendingNotification> devices(List<SubscriptionIndex.Entry> subscriptions, String subject) {
+        List<PendingNotification> recipients = new ArrayList<>();
+        tokenRegistry.byToken(subscriptions).forEach((token, entries) -> recipients.add(pending(token, entries, subject)));
+        return recipients;
+    }
+
+    private static String ratingBody(PendingRating rating) {
+        return String.format("Your event '%s' received a %d-star rating", rating.getEventTitle(), rating.getRating());
     }
 }
@@ -0,0 +1,62 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stamps {@code lastNotificationSent} after a fan-out with chunked bulk UPDATEs, each chunk in
+ * its own transaction, instead of merging detached subscriptions one row at a time.
+ */
+@Component
+@Slf4j
+public class SubscriptionBulkUpdater {
+
+    private final NotificationSubscriptionRepository subscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final DistributionSummary rowsPerBatch;
+    private final Timer batchTimer;
+
+    public SubscriptionBulkUpdater(NotificationSubscriptionRepository subscriptionRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${flickit.notifications.bulk-update.chunk-size:1000}") int chunkSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.rowsPerBatch = DistributionSummary.builder("flickit.notifications.last_sent.batch.rows")
+                .description("Subscriptions stamped with lastNotificationSent per bulk UPDATE")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("flickit.notifications.last_sent.batch.duration")
+                .description("Duration of one lastNotificationSent bulk UPDATE")
+                .register(meterRegistry);
+    }
+
+    public int markNotified(List<UUID> subscriptionIds, Instant sentAt) {
+        int updated = 0;
+        for (int from = 0; from < subscriptionIds.size(); from += chunkSize) {
+            List<UUID> chunk = new ArrayList<>(subscriptionIds.subList(from, Math.min(from + chunkSize, subscriptionIds.size())));
+            Integer rows = batchTimer.record(() -> transactionTemplate.execute(
+                    status -> subscriptionRepository.updateLastNotificationSent(chunk, sentAt)));
+            int chunkRows = rows == null ? 0 : rows;
+            rowsPerBatch.record(chunkRows);
+            updated += chunkRows;
+        }
+        log.debug("Stamped lastNotificationSent on {} subscriptions", updated);
+        return updated;
+    }
+}
@@ -0,0 +1,35 @@
+package com.flickit.notification.service;
+
+import com.flickit.event.model.EventEntity;
+
+import java.util.Collection;
+
+/**
+ * Bitmask encoding of subscription preferences. A mask of {@code 0} on a subscription means
+ * "no filter"; otherwise the subscription matches when it shares at least one bit with the event.
+ */
+public final class SubscriptionFilter {
+
+    /** Event-side mask that every subscription accepts, for events without a category. */
+    public static final int ANY_CATEGORY = -1;
+
+    private SubscriptionFilter() {
+    }
+
+    public static int categoryMask(Collection<EventEntity.Category> categories) {
+        int mask = 0;
+        for (EventEntity.Category category : categories) {
+            mask |= categoryBit(category);
+        }
+        return mask;
+    }
+
+    public static int categoryBit(EventEntity.Category category) {
+        return category == null ? ANY_CATEGORY : 1 << category.ordinal();
+    }
+
+    public static boolean matches(int subscriptionCategories, long subscriptionKeywords, int eventCategory, long eventKeywords) {
+        return (subscriptionCategories == 0 || (subscriptionCategories & eventCategory) != 0)
+                && (subscriptionKeywords == 0 || (subscriptionKeywords & eventKeywords) != 0);
+    }
+}
@@ -0,0 +1,260 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.model.NotificationSubscription;
+import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory grid index of active subscription circles.
+ *
+ * <p>Each circle is registered in every grid cell its bounding box touches, so matching a new
+ * event is a point-in-circles stabbing query: look up the event's cell and run the exact
+ * distance check over the few circles registered there, instead of evaluating the great-circle
+ * formula for every subscription in the database. Writers are serialized, readers are lock-free.
+ */
+@Component
+@Slf4j
+public class SubscriptionIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private final NotificationSubscriptionRepository subscriptionRepository;
+    private final double cellDegrees;
+    private final int lonCells;
+    private final int rebuildPageSize;
+
+    // Replaced whole by rebuild, so readers never see a half-loaded index
+    private volatile Maps maps = new Maps();
+    private volatile boolean ready;
+
+    public SubscriptionIndex(NotificationSubscriptionRepository subscriptionRepository,
+                             @Value("${flickit.notifications.index.cell-degrees:0.05}") double cellDegrees,
+                             @Value("${flickit.notifications.index.rebuild-page-size:1000}") int rebuildPageSize) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.cellDegrees = cellDegrees;
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        this.rebuildPageSize = rebuildPageSize;
+    }
+
+    /**
+     * Loads the active subscriptions into fresh maps and swaps them in once complete; until then
+     * matching keeps using the previous index. Pages continue after the last id read, so rows
+     * deactivated or deleted meanwhile cannot make a page skip a live subscription.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Maps loaded = new Maps();
+        Pageable pageable = PageRequest.ofSize(rebuildPageSize);
+        List<NotificationSubscription> page = subscriptionRepository.findByIsActiveTrueOrderByIdAsc(pageable);
+        while (!page.isEmpty()) {
+            page.forEach(subscription -> add(loaded, Entry.from(subscription)));
+            if (page.size() < rebuildPageSize) break;
+            UUID lastId = page.get(page.size() - 1).getId();
+            page = subscriptionRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, pageable);
+        }
+        maps = loaded;
+        ready = true;
+        log.info("Subscription index rebuilt with {} active subscriptions", loaded.byId.size());
+    }
+
+    public void put(NotificationSubscription subscription) {
+        if (!Boolean.TRUE.equals(subscription.getIsActive())) {
+            remove(subscription.getId());
+            return;
+        }
+        put(Entry.from(subscription));
+    }
+
+    public synchronized void put(Entry entry) {
+        remove(entry.getId());
+        add(maps, entry);
+    }
+
+    public synchronized void remove(UUID subscriptionId) {
+        Maps current = maps;
+        Entry existing = current.byId.remove(subscriptionId);
+        if (existing == null) return;
+        current.idsByToken.computeIfPresent(existing.getFcmToken(), (token, ids) -> {
+            ids.remove(subscriptionId);
+            return ids.isEmpty() ? null : ids;
+        });
+        forEachCoveredCell(existing, cell -> {
+            Set<Entry> entries = current.cells.get(cell);
+            if (entries != null) {
+                entries.remove(existing);
+                if (entries.isEmpty()) current.cells.remove(cell);
+            }
+        });
+    }
+
+    /**
+     * Drops every subscription registered under one of the given tokens.
+     */
+    public synchronized void removeByFcmTokens(Collection<String> fcmTokens) {
+        for (String token : fcmTokens) {
+            Set<UUID> ids = maps.idsByToken.get(token);
+            if (ids != null) {
+                List.copyOf(ids).forEach(this::remove);
+            }
+        }
+    }
+
+    /**
+     * Returns all indexed subscriptions whose circle contains the given point, ignoring their filters.
+     */
+    public List<Entry> findContaining(double lat, double lon) {
+        return findContaining(lat, lon, SubscriptionFilter.ANY_CATEGORY, -1L);
+    }
+
+    /**
+     * Returns the indexed subscriptions whose circle contains the given point and whose category
+     * and keyword filters accept an event with the given masks. The filter is a couple of bit
+     * operations and runs before the distance check.
+     */
+    public List<Entry> findContaining(double lat, double lon, int eventCategory, long eventKeywords) {
+        Set<Entry> candidates = maps.cells.get(cellKey(latIndex(lat), lonIndex(lon)));
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (SubscriptionFilter.matches(entry.getCategoryMask(), entry.getKeywordMask(), eventCategory, eventKeywords)
+                    && distanceMeters(lat, lon, entry.getLatitude(), entry.getLongitude()) <= entry.getRadiusMeters()) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Whether the index has been loaded from the database at least once; before that it matches
+     * only subscriptions written since startup.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return maps.byId.size();
+    }
+
+    private void add(Maps target, Entry entry) {
+        target.byId.put(entry.getId(), entry);
+        target.idsByToken.computeIfAbsent(entry.getFcmToken(), token -> ConcurrentHashMap.newKeySet()).add(entry.getId());
+        forEachCoveredCell(entry, cell -> target.cells.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(entry));
+    }
+
+    private void forEachCoveredCell(Entry entry, LongConsumer action) {
+        double dLat = entry.getRadiusMeters() / METERS_PER_DEGREE_LAT;
+        double minLat = Math.max(-90.0, entry.getLatitude() - dLat);
+        double maxLat = Math.min(90.0, entry.getLatitude() + dLat);
+
+        // Longitude degrees shrink towards the poles; widen the box using the circle's most poleward latitude
+        double poleward = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double cos = Math.max(Math.cos(Math.toRadians(poleward)), 1e-6);
+        double dLon = entry.getRadiusMeters() / (METERS_PER_DEGREE_LAT * cos);
+
+        int fromLat = latIndex(minLat);
+        int toLat = latIndex(maxLat);
+        int fromLon;
+        int span;
+        if (dLon >= 180.0) {
+            fromLon = 0;
+            span = lonCells;
+        } else {
+            fromLon = lonIndex(entry.getLongitude() - dLon);
+            int toLon = lonIndex(entry.getLongitude() + dLon);
+            span = Math.floorMod(toLon - fromLon, lonCells) + 1; // wraps across the antimeridian
+        }
+
+        for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+            for (int i = 0; i < span; i++) {
+                action.accept(cellKey(latIdx, Math.floorMod(fromLon + i, lonCells)));
+            }
+        }
+    }
+
+    private int latIndex(double lat) {
+        return (int) Math.floor((Math.min(lat, 90.0) + 90.0) / cellDegrees);
+    }
+
+    private int lonIndex(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180.0) / cellDegrees), lonCells);
+    }
+
+    private static long cellKey(int latIdx, int lonIdx) {
+        return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+    }
+
+    private static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        // Haversine formula; unlike the acos form it stays well-conditioned for nearby points
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(Math.max(0.0, 1 - a)));
+        return EARTH_RADIUS_METERS * c;
+    }
+
+    private static final class Maps {
+        private final Map<Long, Set<Entry>> cells = new ConcurrentHashMap<>();
+        private final Map<UUID, Entry> byId = new ConcurrentHashMap<>();
+        private final Map<String, Set<UUID>> idsByToken = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Immutable snapshot of the subscription fields needed for matching and sending.
+     */
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @ToString
+    public static class Entry {
+        private final UUID id;
+        private final UUID userId;
+        private final String fcmToken;
+        private final double latitude;
+        private final double longitude;
+        private final double radiusMeters;
+        private final Instant lastNotificationSent;
+        private final int categoryMask;
+        private final long keywordMask;
+
+        public static Entry from(NotificationSubscription subscription) {
+            return Entry.builder()
+                    .id(subscription.getId())
+                    .userId(subscription.getUserId())
+                    .fcmToken(subscription.getFcmToken())
+                    .latitude(subscription.getLatitude())
+                    .longitude(subscription.getLongitude())
+                    .radiusMeters(subscription.getRadiusMeters())
+                    .lastNotificationSent(subscription.getLastNotificationSent())
+                    .categoryMask(subscription.getCategoryMask() == null ? 0 : subscription.getCategoryMask())
+                    .keywordMask(subscription.getKeywordMask() == null ? 0 : subscription.getKeywordMask())
+                    .build();
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.flickit.rating.controller;
 
 import com.flickit.rating.dto.CreateRatingRequest;
 import com.flickit.rating.dto.RatingDto;
+import com.flickit.rating.dto.RatingSummaryDto;
+import com.flickit.rating.model.RatingSummaryEntity;
 import com.flickit.rating.service.RatingService;
+import com.flickit.rating.service.RatingSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -11,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/ratings")
 @RequiredArgsConstructor
@@ -18,6 +23,7 @@ import org.springframework.web.bind.annotation.*;
 public class RatingController {
 
     private final RatingService ratingService;
+    private final RatingSummaryService ratingSummaryService;
 
     @PostMapping
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -25,4 +31,17 @@ public class RatingController {
     public ResponseEntity<RatingDto> rate(@RequestBody @Valid CreateRatingRequest request) {
         return ResponseEntity.ok(ratingService.rateEvent(request));
     }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Get rating histogram for an event or a vendor")
+    public ResponseEntity<RatingSummaryDto> summary(@RequestParam(required = false) UUID eventId,
+                                                    @RequestParam(required = false) UUID vendorId) {
+        if ((eventId == null) == (vendorId == null)) {
+            throw new IllegalArgumentException("Exactly one of eventId or vendorId is required");
+        }
+        RatingSummaryDto summary = eventId != null
+                ? ratingSummaryService.getSummary(RatingSummaryEntity.SubjectType.EVENT, eventId)
+                : ratingSummaryService.getSummary(RatingSummaryEntity.SubjectType.VENDOR, vendorId);
+        return ResponseEntity.ok(summary);
+    }
 }
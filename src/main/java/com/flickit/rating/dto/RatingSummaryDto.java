@@ -0,0 +1,20 @@
+package com.flickit.rating.dto;
+
+import com.flickit.rating.model.RatingSummaryEntity;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Value
+@Builder
+public class RatingSummaryDto {
+    RatingSummaryEntity.SubjectType subjectType;
+    UUID subjectId;
+    long ratingCount;
+    Double averageRating;
+    Map<Integer, Long> histogram; // stars (1–5) -> count
+    List<RecentRatingDto> recentComments;
+}
@@ -0,0 +1,14 @@
+package com.flickit.rating.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+@Builder
+public class RecentRatingDto {
+    int rating;
+    String comment;
+    Instant ratedAt;
+}
@@ -0,0 +1,51 @@
+package com.flickit.rating.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Incrementally maintained rating histogram for a single event or vendor.
+ * Updated on every new rating so reads never aggregate the {@code ratings} table.
+ */
+@Entity
+@Table(name = "rating_summaries")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RatingSummaryEntity {
+
+    @EmbeddedId
+    private RatingSummaryId id;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    @Column(nullable = false)
+    private long oneStar;
+
+    @Column(nullable = false)
+    private long twoStars;
+
+    @Column(nullable = false)
+    private long threeStars;
+
+    @Column(nullable = false)
+    private long fourStars;
+
+    @Column(nullable = false)
+    private long fiveStars;
+
+    // Last-N comments, newest first, serialized as JSON
+    @Column(length = 4000)
+    private String recentCommentsJson;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public enum SubjectType {EVENT, VENDOR}
+}
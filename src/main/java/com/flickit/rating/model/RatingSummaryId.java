@@ -0,0 +1,26 @@
+package com.flickit.rating.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class RatingSummaryId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", nullable = false, length = 16)
+    private RatingSummaryEntity.SubjectType subjectType;
+
+    @Column(name = "subject_id", nullable = false)
+    private UUID subjectId;
+}
@@ -0,0 +1,51 @@
+package com.flickit.rating.repository;
+
+import com.flickit.rating.model.RatingSummaryEntity;
+import com.flickit.rating.model.RatingSummaryId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface RatingSummaryRepository extends JpaRepository<RatingSummaryEntity, RatingSummaryId> {
+
+    /**
+     * Postgres: creates the empty summary row unless it exists. A concurrent first rating that
+     * inserted it waits on the unique key and then inserts nothing, instead of failing.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO rating_summaries (subject_type, subject_id, rating_count, rating_sum, one_star, two_stars,
+                                          three_stars, four_stars, five_stars, updated_at)
+            VALUES (:subjectType, :subjectId, 0, 0, 0, 0, 0, 0, 0, :now)
+            ON CONFLICT (subject_type, subject_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("subjectType") String subjectType, @Param("subjectId") UUID subjectId,
+                       @Param("now") Instant now);
+
+    /**
+     * Portable variant of {@link #insertIfAbsent} (H2 in tests).
+     */
+    @Modifying
+    @Query(value = """
+            MERGE INTO rating_summaries t
+            USING (SELECT CAST(:subjectType AS VARCHAR(16)) AS subject_type, CAST(:subjectId AS UUID) AS subject_id) s
+            ON t.subject_type = s.subject_type AND t.subject_id = s.subject_id
+            WHEN NOT MATCHED THEN
+                INSERT (subject_type, subject_id, rating_count, rating_sum, one_star, two_stars, three_stars,
+                        four_stars, five_stars, updated_at)
+                VALUES (s.subject_type, s.subject_id, 0, 0, 0, 0, 0, 0, 0, :now)
+            """, nativeQuery = true)
+    int mergeIfAbsent(@Param("subjectType") String subjectType, @Param("subjectId") UUID subjectId,
+                      @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT rs FROM RatingSummaryEntity rs WHERE rs.id = :id")
+    Optional<RatingSummaryEntity> findByIdForUpdate(@Param("id") RatingSummaryId id);
+}
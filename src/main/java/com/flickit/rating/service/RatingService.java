@@ -27,6 +27,8 @@ public class RatingService {
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
     private final NotificationService notificationService;
+    private final RatingSummaryService ratingSummaryService;
+    private final VendorScoreService vendorScoreService;
 
     @Transactional
     public RatingDto rateEvent(CreateRatingRequest request) {
@@ -48,17 +50,20 @@ public class RatingService {
 
         RatingEntity saved = ratingRepository.save(entity);
 
-        updateVendorRating(request.getEventId(), request.getRating());
+        updateVendorRating(request.getEventId(), request.getRating(), entity.getRatedAt());
 
-        // Send notification to vendor about new rating
         UUID vendorId = getVendorIdFromEvent(request.getEventId());
+        ratingSummaryService.recordRating(entity.getEventId(), vendorId, entity.getRating(),
+                entity.getComment(), entity.getRatedAt());
+
+        // Send notification to vendor about new rating
         String eventTitle = getEventTitle(request.getEventId());
         notificationService.sendRatingNotification(vendorId, eventTitle, request.getRating());
 
         return objectMapper.convertValue(saved, RatingDto.class);
     }
 
-    private void updateVendorRating(UUID eventId, int newRating) {
+    private void updateVendorRating(UUID eventId, int newRating, Instant ratedAt) {
         UUID vendorId = getVendorIdFromEvent(eventId);
         UserEntity vendor = userRepository.findById(vendorId)
                 .orElseThrow(() -> new IllegalStateException("Vendor not found"));
@@ -71,6 +76,7 @@ public class RatingService {
 
         vendor.setRating(Math.round(newAverage * 100.0) / 100.0); // zaokrąglenie
         vendor.setRatingCount(newCount);
+        vendorScoreService.applyRating(vendor, newRating, ratedAt);
 
         userRepository.save(vendor);
     }
@@ -0,0 +1,207 @@
+package com.flickit.rating.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.config.DatabasePlatform;
+import com.flickit.config.TransactionHooks;
+import com.flickit.rating.dto.RatingSummaryDto;
+import com.flickit.rating.dto.RecentRatingDto;
+import com.flickit.rating.model.RatingSummaryEntity;
+import com.flickit.rating.model.RatingSummaryEntity.SubjectType;
+import com.flickit.rating.model.RatingSummaryId;
+import com.flickit.rating.repository.RatingSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Maintains per-event and per-vendor rating histograms. Each new rating bumps the
+ * matching summary rows; reads are served from a bounded in-memory cache backed
+ * by the {@code rating_summaries} table, never by aggregating {@code ratings}.
+ *
+ * <p>A summary row is created with an insert-if-absent before it is locked, so two first ratings
+ * of a subject do not race to insert it. Summaries only grow, so the rating count orders cached
+ * copies: a commit or a read that lands late never replaces a newer summary.
+ */
+@Service
+@Slf4j
+public class RatingSummaryService {
+
+    private static final TypeReference<List<RecentRatingDto>> RECENT_TYPE = new TypeReference<>() {};
+
+    private final RatingSummaryRepository summaryRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean postgres;
+    private final int recentCommentLimit;
+    private final Map<RatingSummaryId, RatingSummaryDto> cache;
+
+    @Autowired
+    public RatingSummaryService(RatingSummaryRepository summaryRepository,
+                                ObjectMapper objectMapper,
+                                DataSource dataSource,
+                                @Value("${flickit.ratings.summary.recent-comments:5}") int recentCommentLimit,
+                                @Value("${flickit.ratings.summary.cache-size:10000}") int cacheSize) {
+        this(summaryRepository, objectMapper, DatabasePlatform.isPostgres(dataSource), recentCommentLimit, cacheSize);
+    }
+
+    public RatingSummaryService(RatingSummaryRepository summaryRepository,
+                                ObjectMapper objectMapper,
+                                boolean postgres,
+                                int recentCommentLimit,
+                                int cacheSize) {
+        this.summaryRepository = summaryRepository;
+        this.objectMapper = objectMapper;
+        this.postgres = postgres;
+        this.recentCommentLimit = recentCommentLimit;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RatingSummaryId, RatingSummaryDto> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Transactional
+    public void recordRating(UUID eventId, UUID vendorId, int rating, String comment, Instant ratedAt) {
+        apply(new RatingSummaryId(SubjectType.EVENT, eventId), rating, comment, ratedAt);
+        if (vendorId != null) {
+            apply(new RatingSummaryId(SubjectType.VENDOR, vendorId), rating, comment, ratedAt);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public RatingSummaryDto getSummary(SubjectType subjectType, UUID subjectId) {
+        RatingSummaryId id = new RatingSummaryId(subjectType, subjectId);
+        RatingSummaryDto cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        RatingSummaryDto loaded = summaryRepository.findById(id)
+                .map(this::toDto)
+                .orElseGet(() -> empty(id));
+        return cache(id, loaded);
+    }
+
+    /**
+     * Batch variant for list endpoints: cache hits are answered from memory and all
+     * misses are loaded with a single primary-key lookup.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, RatingSummaryDto> getEventSummaries(Collection<UUID> eventIds) {
+        Map<UUID, RatingSummaryDto> result = new HashMap<>();
+        List<RatingSummaryId> misses = new ArrayList<>();
+        for (UUID eventId : eventIds) {
+            if (eventId == null) continue;
+            RatingSummaryId id = new RatingSummaryId(SubjectType.EVENT, eventId);
+            RatingSummaryDto cached = cache.get(id);
+            if (cached != null) {
+                result.put(eventId, cached);
+            } else {
+                misses.add(id);
+            }
+        }
+        if (misses.isEmpty()) {
+            return result;
+        }
+
+        Map<RatingSummaryId, RatingSummaryDto> loaded = new HashMap<>();
+        summaryRepository.findAllById(misses).forEach(entity -> loaded.put(entity.getId(), toDto(entity)));
+        for (RatingSummaryId id : misses) {
+            result.put(id.getSubjectId(), cache(id, loaded.getOrDefault(id, empty(id))));
+        }
+        return result;
+    }
+
+    private void apply(RatingSummaryId id, int rating, String comment, Instant ratedAt) {
+        if (postgres) {
+            summaryRepository.insertIfAbsent(id.getSubjectType().name(), id.getSubjectId(), ratedAt);
+        } else {
+            summaryRepository.mergeIfAbsent(id.getSubjectType().name(), id.getSubjectId(), ratedAt);
+        }
+        RatingSummaryEntity summary = summaryRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new IllegalStateException("Rating summary of " + id.getSubjectType() + " " + id.getSubjectId() + " was not created"));
+
+        summary.setRatingCount(summary.getRatingCount() + 1);
+        summary.setRatingSum(summary.getRatingSum() + rating);
+        switch (rating) {
+            case 1 -> summary.setOneStar(summary.getOneStar() + 1);
+            case 2 -> summary.setTwoStars(summary.getTwoStars() + 1);
+            case 3 -> summary.setThreeStars(summary.getThreeStars() + 1);
+            case 4 -> summary.setFourStars(summary.getFourStars() + 1);
+            case 5 -> summary.setFiveStars(summary.getFiveStars() + 1);
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+
+        if (comment != null && !comment.isBlank()) {
+            List<RecentRatingDto> recent = new ArrayList<>(readRecent(summary.getRecentCommentsJson()));
+            recent.add(0, RecentRatingDto.builder().rating(rating).comment(comment).ratedAt(ratedAt).build());
+            if (recent.size() > recentCommentLimit) {
+                recent = recent.subList(0, recentCommentLimit);
+            }
+            summary.setRecentCommentsJson(writeRecent(recent));
+        }
+        summary.setUpdatedAt(ratedAt);
+
+        RatingSummaryDto dto = toDto(summaryRepository.save(summary));
+        TransactionHooks.afterCommit(() -> cache(id, dto));
+    }
+
+    /**
+     * Caches {@code dto} unless a summary with more ratings is already cached, and returns the cached one.
+     */
+    private RatingSummaryDto cache(RatingSummaryId id, RatingSummaryDto dto) {
+        return cache.merge(id, dto, (cached, fresh) -> fresh.getRatingCount() >= cached.getRatingCount() ? fresh : cached);
+    }
+
+    private RatingSummaryDto toDto(RatingSummaryEntity entity) {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, entity.getOneStar());
+        histogram.put(2, entity.getTwoStars());
+        histogram.put(3, entity.getThreeStars());
+        histogram.put(4, entity.getFourStars());
+        histogram.put(5, entity.getFiveStars());
+
+        Double average = entity.getRatingCount() == 0 ? null
+                : Math.round((double) entity.getRatingSum() / entity.getRatingCount() * 100.0) / 100.0;
+
+        return RatingSummaryDto.builder()
+                .subjectType(entity.getId().getSubjectType())
+                .subjectId(entity.getId().getSubjectId())
+                .ratingCount(entity.getRatingCount())
+                .averageRating(average)
+                .histogram(histogram)
+                .recentComments(readRecent(entity.getRecentCommentsJson()))
+                .build();
+    }
+
+    private RatingSummaryDto empty(RatingSummaryId id) {
+        return toDto(RatingSummaryEntity.builder().id(id).build());
+    }
+
+    private List<RecentRatingDto> readRecent(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, RECENT_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping unreadable recent comments in rating summary", e);
+            return List.of();
+        }
+    }
+
+    private String writeRecent(List<RecentRatingDto> recent) {
+        try {
+            return objectMapper.writeValueAsString(recent);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize recent comments", e);
+        }
+    }
+}
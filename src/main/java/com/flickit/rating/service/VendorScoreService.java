@@ -0,0 +1,71 @@
+package com.flickit.rating.service;
+
+import com.flickit.user.model.UserEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Time-decayed Bayesian vendor score.
+ *
+ * <p>Each vendor keeps exponentially decayed running sums of ratings and rating weights,
+ * anchored at a reference timestamp. A new rating decays the sums to its own timestamp and
+ * adds itself, so updates are O(1) and never rescan {@code ratings}. The score shrinks the
+ * decayed average towards a prior mean, which keeps a vendor with three 5-star ratings from
+ * outranking one with hundreds of 4.8s, and lets old behaviour fade out over time.
+ */
+@Service
+public class VendorScoreService {
+
+    private final double priorMean;
+    private final double priorWeight;
+    private final double decayPerMilli;
+
+    public VendorScoreService(@Value("${flickit.ratings.score.prior-mean:3.5}") double priorMean,
+                              @Value("${flickit.ratings.score.prior-weight:5}") double priorWeight,
+                              @Value("${flickit.ratings.score.half-life:30d}") Duration halfLife) {
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+        this.decayPerMilli = Math.log(2) / halfLife.toMillis();
+    }
+
+    public void applyRating(UserEntity vendor, int rating, Instant ratedAt) {
+        double sum = vendor.getDecayedRatingSum() == null ? 0.0 : vendor.getDecayedRatingSum();
+        double weight = vendor.getDecayedRatingWeight() == null ? 0.0 : vendor.getDecayedRatingWeight();
+        Instant reference = vendor.getScoreReferenceAt();
+
+        if (reference == null || !ratedAt.isBefore(reference)) {
+            // Move the reference forward to the new rating
+            double factor = reference == null ? 1.0 : decay(reference, ratedAt);
+            vendor.setDecayedRatingSum(sum * factor + rating);
+            vendor.setDecayedRatingWeight(weight * factor + 1.0);
+            vendor.setScoreReferenceAt(ratedAt);
+        } else {
+            // Late rating: decay it to the existing reference instead
+            double factor = decay(ratedAt, reference);
+            vendor.setDecayedRatingSum(sum + rating * factor);
+            vendor.setDecayedRatingWeight(weight + factor);
+        }
+    }
+
+    /**
+     * Score as of {@code now}. Decaying both sums by the same factor keeps their ratio, so only
+     * the prior's relative pull grows while a vendor receives no new ratings.
+     */
+    public double score(UserEntity vendor, Instant now) {
+        if (vendor.getScoreReferenceAt() == null || vendor.getDecayedRatingWeight() == null) {
+            return priorMean;
+        }
+        double factor = now.isAfter(vendor.getScoreReferenceAt()) ? decay(vendor.getScoreReferenceAt(), now) : 1.0;
+        double sum = vendor.getDecayedRatingSum() * factor;
+        double weight = vendor.getDecayedRatingWeight() * factor;
+        double score = (priorWeight * priorMean + sum) / (priorWeight + weight);
+        return Math.round(score * 100.0) / 100.0;
+    }
+
+    private double decay(Instant from, Instant to) {
+        return Math.exp(-decayPerMilli * Duration.between(from, to).toMillis());
+    }
+}
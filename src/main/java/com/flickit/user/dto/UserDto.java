@@ -19,4 +19,5 @@ public class UserDto {
     private Role role;
     private Double rating;
     private Integer ratingCount;
+    private Double score; // time-decayed Bayesian vendor score, vendors only
 }
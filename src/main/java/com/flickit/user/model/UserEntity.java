@@ -47,6 +47,11 @@ public class UserEntity {
     private Double rating;
     private Integer ratingCount;
 
+    // Exponentially decayed running sums behind the vendor score, anchored at scoreReferenceAt
+    private Double decayedRatingSum;
+    private Double decayedRatingWeight;
+    private Instant scoreReferenceAt;
+
     public enum Role {
         VENDOR, CUSTOMER, ADMIN
     }
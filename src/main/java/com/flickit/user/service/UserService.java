@@ -1,6 +1,7 @@
 package com.flickit.user.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.rating.service.VendorScoreService;
 import com.flickit.user.dto.CreateUserRequest;
 import com.flickit.user.dto.UserDto;
 import com.flickit.user.model.UserEntity;
@@ -9,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Service
@@ -17,6 +19,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final VendorScoreService vendorScoreService;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     public UserDto create(CreateUserRequest request) {
@@ -32,7 +35,13 @@ public class UserService {
 
     public UserDto getById(UUID id) {
         return userRepository.findById(id)
-                .map(entity -> objectMapper.convertValue(entity, UserDto.class))
+                .map(entity -> {
+                    UserDto dto = objectMapper.convertValue(entity, UserDto.class);
+                    if (entity.getRole() == UserEntity.Role.VENDOR) {
+                        dto.setScore(vendorScoreService.score(entity, Instant.now()));
+                    }
+                    return dto;
+                })
                 .orElse(null);
     }
 
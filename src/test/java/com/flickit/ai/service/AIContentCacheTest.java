@@ -0,0 +1,134 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import com.flickit.ai.dto.VisionLabelDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIContentCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-19T20:00:00Z");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path diskDir;
+
+    @Test
+    void key_shouldDependOnEveryContentField() {
+        // given
+        GenerateContentRequest base = request("https://example.com/pizza.jpg", "restaurant", "lunch");
+
+        // when & then
+        assertEquals(AIContentCache.key(base), AIContentCache.key(request("https://example.com/pizza.jpg", "restaurant", "lunch")));
+        assertNotEquals(AIContentCache.key(base), AIContentCache.key(request("https://example.com/pizza.jpg", "restaurant", "dinner")));
+        assertNotEquals(AIContentCache.key(base), AIContentCache.key(request("https://example.com/pizza.jpg", "restaurantlunch", null)));
+        GenerateContentRequest english = request("https://example.com/pizza.jpg", "restaurant", "lunch");
+        english.setPreferredLanguage("en");
+        assertNotEquals(AIContentCache.key(base), AIContentCache.key(english));
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedBeyondMaxEntries() {
+        // given
+        AIContentCache cache = cache(2, null, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("a", content("A"), 1_000_000);
+        cache.put("b", content("B"), 1_000_000);
+        cache.get("a");
+
+        // when
+        cache.put("c", content("C"), 1_000_000);
+
+        // then
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    void get_shouldExpireEntriesAfterTtlInBothTiers() {
+        // given
+        AIContentCache cache = cache(10, diskDir, Clock.fixed(NOW, ZoneOffset.UTC));
+        cache.put("a", content("A"), 1_000_000);
+        assertTrue(cache.get("a").isPresent());
+
+        // when - the same files seen two hours later
+        AIContentCache later = cache(10, diskDir, Clock.fixed(NOW.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+
+        // then
+        assertTrue(later.get("a").isEmpty());
+        assertEquals(0, diskDir.toFile().list().length);
+    }
+
+    @Test
+    void get_shouldReadDiskTierAfterRestartAndRecordSavedLatency() {
+        // given
+        cache(10, diskDir, Clock.fixed(NOW, ZoneOffset.UTC)).put("a", content("A"), 800_000_000);
+
+        // when - a new instance, as after a restart
+        AIContentCache restarted = cache(10, diskDir, Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+
+        // then
+        assertEquals("A", restarted.get("a").orElseThrow().getTitle());
+        assertEquals(1.0, meterRegistry.get("flickit.ai.cache.requests").tag("result", "hit-disk").counter().count());
+        assertEquals(800.0, meterRegistry.get("flickit.ai.cache.latency.saved").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertTrue(restarted.get("a").isPresent());
+        assertEquals(1.0, meterRegistry.get("flickit.ai.cache.requests").tag("result", "hit-memory").counter().count());
+    }
+
+    @Test
+    void put_shouldBoundDiskTier() {
+        // given
+        AIContentCache cache = new AIContentCache(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                10, Duration.ofHours(1), diskDir, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // when
+        cache.put("a", content("A"), 1);
+        cache.put("b", content("B"), 1);
+        cache.put("c", content("C"), 1);
+
+        // then
+        assertEquals(2, diskDir.toFile().list().length);
+        assertFalse(diskDir.resolve("a.json").toFile().exists());
+    }
+
+    private AIContentCache cache(int maxEntries, Path dir, Clock clock) {
+        return new AIContentCache(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                maxEntries, Duration.ofHours(1), dir, 100, clock);
+    }
+
+    private static GenerateContentRequest request(String imageUrl, String businessType, String prompt) {
+        GenerateContentRequest request = new GenerateContentRequest();
+        request.setImageUrl(imageUrl);
+        request.setBusinessType(businessType);
+        request.setAdditionalPrompt(prompt);
+        return request;
+    }
+
+    private static GeneratedContentDto content(String title) {
+        return GeneratedContentDto.builder()
+                .title(title)
+                .description("description")
+                .labels(List.of(new VisionLabelDto("food", 0.9)))
+                .suggestedCategory("FOOD")
+                .confidence(0.9)
+                .modelUsed("mock")
+                .generatedAt(NOW)
+                .tokensUsed(200)
+                .build();
+    }
+}
@@ -3,24 +3,34 @@ package com.flickit.ai.service;
 import com.flickit.ai.dto.GenerateContentRequest;
 import com.flickit.ai.dto.GeneratedContentDto;
 import com.flickit.ai.dto.VisionLabelDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class)
 class AIServiceTest {
 
-    @InjectMocks
     private AIService aiService;
 
     private GenerateContentRequest testRequest;
 
     @BeforeEach
     void setUp() {
+        aiService = aiService(Runnable::run, new SimpleMeterRegistry());
         testRequest = new GenerateContentRequest();
         testRequest.setImageUrl("https://example.com/food-image.jpg");
         testRequest.setBusinessType("restaurant");
@@ -168,4 +178,70 @@ class AIServiceTest {
             assertFalse(label.getLabel().isEmpty());
         }
     }
+
+    @Test
+    void generateContentAsync_shouldRunOnProvidedExecutor() {
+        // given
+        List<Runnable> submitted = new ArrayList<>();
+        AIService queued = aiService(submitted::add, new SimpleMeterRegistry());
+
+        // when
+        CompletableFuture<GeneratedContentDto> future = queued.generateContentAsync(testRequest);
+
+        // then
+        assertFalse(future.isDone());
+        assertEquals(1, submitted.size());
+        submitted.get(0).run();
+        assertNotNull(future.join().getTitle());
+    }
+
+    @Test
+    void generateContent_shouldServeRepeatedRequestFromCache() {
+        // given
+        GeneratedContentDto first = aiService.generateContent(testRequest);
+
+        // when
+        long started = System.nanoTime();
+        GeneratedContentDto second = aiService.generateContent(testRequest);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // then
+        assertEquals(first, second);
+        assertTrue(elapsedMs < 400, "cached call took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void generateContent_shouldShareInFlightGenerationWithIdenticalRequests() throws Exception {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AIService coalescing = aiService(Runnable::run, meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // when
+        List<Future<GeneratedContentDto>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> coalescing.generateContent(testRequest)));
+        }
+        GeneratedContentDto first = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<GeneratedContentDto> result : results) {
+            assertEquals(first, result.get(10, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+
+        // then - one generation; the others waited on it or hit the cache it filled
+        assertEquals(1.0, meterRegistry.get("flickit.ai.singleflight.requests").tag("role", "leader").counter().count());
+    }
+
+    private static AIService aiService(Executor executor, SimpleMeterRegistry meterRegistry) {
+        return new AIService(new MockAiProvider(classifier()), executor, cache(), classifier(), meterRegistry);
+    }
+
+    private static AIContentCache cache() {
+        return new AIContentCache(new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                100, Duration.ofHours(1), null, 100, Clock.systemUTC());
+    }
+
+    private static KeywordClassifier classifier() {
+        return new KeywordClassifier(new MockEnvironment(), new SimpleMeterRegistry());
+    }
 }
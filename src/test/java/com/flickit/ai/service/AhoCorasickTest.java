@@ -0,0 +1,41 @@
+package com.flickit.ai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTest {
+
+    @Test
+    void scan_shouldFindOverlappingAndNestedKeywords() {
+        // given
+        AhoCorasick automaton = new AhoCorasick(Map.of("he", 1, "she", 2, "his", 4, "hers", 8));
+
+        // when & then - "ushers" contains she, he and hers
+        assertEquals(1 | 2 | 8, automaton.scan("ushers"));
+        assertEquals(4, automaton.scan("this"));
+        assertEquals(0, automaton.scan("hi"));
+    }
+
+    @Test
+    void scan_shouldFollowFailureLinksAfterPartialMatch() {
+        // given
+        AhoCorasick automaton = new AhoCorasick(Map.of("abcd", 1, "bce", 2));
+
+        // when & then - "abc" is a dead end for abcd but its suffix continues bce
+        assertEquals(2, automaton.scan("xabce"));
+        assertEquals(1, automaton.scan("abcd"));
+    }
+
+    @Test
+    void scan_shouldIgnoreCase() {
+        // given
+        AhoCorasick automaton = new AhoCorasick(Map.of("Pizza", 1));
+
+        // when & then
+        assertEquals(1, automaton.scan("https://example.com/PIZZA-night.jpg"));
+        assertEquals(0, automaton.scan(null));
+    }
+}
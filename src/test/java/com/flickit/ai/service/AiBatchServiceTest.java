@@ -0,0 +1,157 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.BatchItemResultDto;
+import com.flickit.ai.dto.GenerateContentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiBatchServiceTest {
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final List<BatchItemResultDto> reported = new CopyOnWriteArrayList<>();
+    private final UUID vendorId = UUID.randomUUID();
+    private SimpleMeterRegistry meterRegistry;
+    private AiBatchService aiBatchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aiBatchService = new AiBatchService(scheduler(submitted::add), meterRegistry, 10, 2);
+    }
+
+    @Test
+    void generate_shouldLimitConcurrencyPerVendor() {
+        // when
+        CompletableFuture<Void> done = aiBatchService.generate(requests(5), vendorId, reported::add);
+
+        // then - two items started, the rest wait for a slot
+        assertEquals(2, submitted.size());
+        submitted.get(0).run();
+        assertEquals(3, submitted.size());
+        assertEquals(1, reported.size());
+
+        for (int i = 1; i < 5; i++) {
+            submitted.get(i).run();
+        }
+        assertTrue(done.isDone());
+        assertEquals(5, reported.size());
+        assertEquals(List.of(0, 1, 2, 3, 4), reported.stream().map(BatchItemResultDto::getIndex).sorted().toList());
+    }
+
+    @Test
+    void generate_shouldShareVendorLimitAcrossBatches() {
+        // given
+        aiBatchService.generate(requests(2), vendorId, reported::add);
+
+        // when
+        aiBatchService.generate(requests(2), vendorId, reported::add);
+        aiBatchService.generate(requests(1), UUID.randomUUID(), reported::add);
+
+        // then - the second batch waits for the vendor's slots, another vendor does not
+        assertEquals(3, submitted.size());
+    }
+
+    @Test
+    void generate_shouldReportFailedItemsWithoutFailingBatch() {
+        // given
+        List<GenerateContentRequest> requests = requests(3);
+        requests.get(1).setImageUrl(null);
+        AiBatchService inline = new AiBatchService(scheduler(Runnable::run), meterRegistry, 10, 2);
+
+        // when
+        inline.generate(requests, vendorId, reported::add).join();
+
+        // then
+        assertEquals(3, reported.size());
+        BatchItemResultDto failed = reported.stream().filter(item -> item.getIndex() == 1).findFirst().orElseThrow();
+        assertEquals(BatchItemResultDto.Status.FAILED, failed.getStatus());
+        assertEquals(2, reported.stream().filter(item -> item.getStatus() == BatchItemResultDto.Status.SUCCEEDED).count());
+        assertEquals(1.0, meterRegistry.get("flickit.ai.batch.items").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void generate_shouldWaitForQuotaInsteadOfFailingItems() {
+        // given - a batch three times the vendor burst
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("flickit.ai.scheduler.vendor.burst", "2")
+                .withProperty("flickit.ai.scheduler.vendor.rate-per-minute", "600");
+        ExecutorService workers = Executors.newFixedThreadPool(6);
+        try {
+            AiBatchService paced = new AiBatchService(scheduler(workers, environment), meterRegistry, 10, 6);
+
+            // when
+            paced.generate(requests(6), vendorId, reported::add).join();
+
+            // then
+            assertEquals(6, reported.size());
+            assertTrue(reported.stream().allMatch(item -> item.getStatus() == BatchItemResultDto.Status.SUCCEEDED));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void generate_shouldReportItemsRejectedBySaturatedExecutor() {
+        // given
+        AiBatchService saturated = new AiBatchService(scheduler(task -> {
+            throw new RejectedExecutionException("ai executor is full");
+        }), meterRegistry, 10, 2);
+
+        // when
+        saturated.generate(requests(3), vendorId, reported::add).join();
+
+        // then
+        assertEquals(3, reported.size());
+        assertTrue(reported.stream().allMatch(item -> item.getStatus() == BatchItemResultDto.Status.FAILED));
+    }
+
+    @Test
+    void generate_shouldRejectOversizedBatch() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> aiBatchService.generate(requests(11), vendorId, reported::add));
+        assertTrue(submitted.isEmpty());
+    }
+
+    private AiRequestScheduler scheduler(Executor executor) {
+        return scheduler(executor, new MockEnvironment());
+    }
+
+    private AiRequestScheduler scheduler(Executor executor, MockEnvironment environment) {
+        AIContentCache cache = new AIContentCache(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                100, Duration.ofHours(1), null, 100, Clock.systemUTC());
+        AIService aiService = new AIService(new MockAiProvider(classifier()), executor, cache, classifier(), meterRegistry);
+        return new AiRequestScheduler(aiService, environment, meterRegistry);
+    }
+
+    private static List<GenerateContentRequest> requests(int count) {
+        List<GenerateContentRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            GenerateContentRequest request = new GenerateContentRequest();
+            request.setImageUrl("https://example.com/pizza-" + i + ".jpg");
+            request.setBusinessType("restaurant");
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    private static KeywordClassifier classifier() {
+        return new KeywordClassifier(new MockEnvironment(), new SimpleMeterRegistry());
+    }
+}
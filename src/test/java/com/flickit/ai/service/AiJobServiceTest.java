@@ -0,0 +1,115 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.AiJobDto;
+import com.flickit.ai.dto.GenerateContentRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiJobServiceTest {
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final UUID ownerId = UUID.randomUUID();
+    private AiJobService aiJobService;
+    private GenerateContentRequest request;
+
+    @BeforeEach
+    void setUp() {
+        aiJobService = new AiJobService(scheduler(submitted::add), new SimpleMeterRegistry(), 2, Duration.ofMinutes(15));
+        request = new GenerateContentRequest();
+        request.setImageUrl("https://example.com/pizza.jpg");
+        request.setBusinessType("restaurant");
+    }
+
+    @Test
+    void submit_shouldReturnPendingJobAndCompleteInBackground() {
+        // when
+        AiJobDto job = aiJobService.submit(request, ownerId);
+
+        // then
+        assertEquals(AiJobDto.Status.PENDING, job.getStatus());
+        CompletableFuture<AiJobDto> done = aiJobService.completion(job.getId(), ownerId).orElseThrow();
+        assertFalse(done.isDone());
+
+        submitted.get(0).run();
+
+        AiJobDto finished = done.join();
+        assertEquals(AiJobDto.Status.SUCCEEDED, finished.getStatus());
+        assertNotNull(finished.getResult().getTitle());
+        assertNotNull(finished.getCompletedAt());
+        assertEquals(finished, aiJobService.get(job.getId(), ownerId).orElseThrow());
+    }
+
+    @Test
+    void submit_shouldReportFailedJob() {
+        // given - no image URL makes the generator fail
+        request.setImageUrl(null);
+        AiJobDto job = aiJobService.submit(request, ownerId);
+
+        // when
+        submitted.get(0).run();
+
+        // then
+        assertEquals(AiJobDto.Status.FAILED, aiJobService.get(job.getId(), ownerId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void get_shouldHideJobsOfOtherUsers() {
+        // given
+        AiJobDto job = aiJobService.submit(request, ownerId);
+
+        // when & then
+        assertTrue(aiJobService.get(job.getId(), UUID.randomUUID()).isEmpty());
+        assertTrue(aiJobService.completion(job.getId(), UUID.randomUUID()).isEmpty());
+        assertTrue(aiJobService.get(UUID.randomUUID(), ownerId).isEmpty());
+    }
+
+    @Test
+    void submit_shouldRejectWhenStoreIsFullOfLiveJobs() {
+        // given
+        aiJobService.submit(request, ownerId);
+        aiJobService.submit(request, ownerId);
+
+        // when & then
+        assertThrows(RejectedExecutionException.class, () -> aiJobService.submit(request, ownerId));
+    }
+
+    @Test
+    void purgeExpired_shouldForgetFinishedJobsAfterRetention() throws InterruptedException {
+        // given
+        AiJobService shortLived = new AiJobService(scheduler(Runnable::run), new SimpleMeterRegistry(), 10, Duration.ZERO);
+        AiJobDto job = shortLived.submit(request, ownerId);
+
+        // when
+        Thread.sleep(5);
+        shortLived.purgeExpired();
+
+        // then
+        assertTrue(shortLived.get(job.getId(), ownerId).isEmpty());
+    }
+
+    private static AiRequestScheduler scheduler(Executor executor) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AIContentCache cache = new AIContentCache(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                100, Duration.ofHours(1), null, 100, Clock.systemUTC());
+        AIService aiService = new AIService(new MockAiProvider(classifier()), executor, cache, classifier(), meterRegistry);
+        return new AiRequestScheduler(aiService, new MockEnvironment(), meterRegistry);
+    }
+
+    private static KeywordClassifier classifier() {
+        return new KeywordClassifier(new MockEnvironment(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,206 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiRequestSchedulerTest {
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final List<String> generated = new ArrayList<>();
+    private final UUID vendorA = UUID.randomUUID();
+    private final UUID vendorB = UUID.randomUUID();
+    private SimpleMeterRegistry meterRegistry;
+    private Instant now;
+    private MockEnvironment environment;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = Instant.parse("2025-08-19T20:00:00Z");
+        environment = new MockEnvironment()
+                .withProperty("flickit.ai.scheduler.vendor.burst", "10")
+                .withProperty("flickit.ai.scheduler.global.max-concurrency", "1");
+    }
+
+    @Test
+    void submit_shouldServeVendorsRoundRobinWhateverTheirBacklog() {
+        // given
+        AiRequestScheduler scheduler = scheduler();
+        scheduler.submit(request("a1"), vendorA);
+        scheduler.submit(request("a2"), vendorA);
+        scheduler.submit(request("a3"), vendorA);
+        scheduler.submit(request("a4"), vendorA);
+        scheduler.submit(request("b1"), vendorB);
+        scheduler.submit(request("b2"), vendorB);
+
+        // when - each completion lets the next request through
+        for (int i = 0; i < submitted.size(); i++) {
+            submitted.get(i).run();
+        }
+
+        // then
+        assertEquals(List.of("a1", "a2", "b1", "a3", "b2", "a4"), generated);
+        assertEquals(0, scheduler.queued());
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void submit_shouldChargePromptHeavyRequestsMore() {
+        // given - b1 costs two turns
+        AiRequestScheduler scheduler = scheduler();
+        scheduler.submit(request("a1"), vendorA);
+        scheduler.submit(request("a2"), vendorA);
+        scheduler.submit(request("a3"), vendorA);
+        GenerateContentRequest heavy = request("b1");
+        heavy.setAdditionalPrompt("x".repeat(300));
+        scheduler.submit(heavy, vendorB);
+
+        // when
+        for (int i = 0; i < submitted.size(); i++) {
+            submitted.get(i).run();
+        }
+
+        // then
+        assertEquals(List.of("a1", "a2", "a3", "b1"), generated);
+    }
+
+    @Test
+    void submit_shouldRefuseVendorOverQuotaUntilRefilled() {
+        // given
+        environment.setProperty("flickit.ai.scheduler.vendor.burst", "2");
+        environment.setProperty("flickit.ai.scheduler.vendor.rate-per-minute", "6");
+        AiRequestScheduler scheduler = scheduler();
+        scheduler.submit(request("a1"), vendorA);
+        scheduler.submit(request("a2"), vendorA);
+
+        // when
+        AiQuotaExceededException refused = assertThrows(AiQuotaExceededException.class,
+                () -> scheduler.submit(request("a3"), vendorA));
+
+        // then
+        assertEquals(10, refused.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> scheduler.submit(request("b1"), vendorB));
+        now = now.plusSeconds(10);
+        assertDoesNotThrow(() -> scheduler.submit(request("a3"), vendorA));
+    }
+
+    @Test
+    void submitWaitingForQuota_shouldQueueVendorOverQuotaUntilRefilled() {
+        // given
+        environment.setProperty("flickit.ai.scheduler.vendor.burst", "2");
+        environment.setProperty("flickit.ai.scheduler.vendor.rate-per-minute", "6");
+        environment.setProperty("flickit.ai.scheduler.global.max-concurrency", "10");
+        AiRequestScheduler scheduler = scheduler();
+
+        // when
+        scheduler.submitWaitingForQuota(request("a1"), vendorA);
+        scheduler.submitWaitingForQuota(request("a2"), vendorA);
+        CompletableFuture<GeneratedContentDto> third = scheduler.submitWaitingForQuota(request("a3"), vendorA);
+
+        // then - the third waits for the bucket instead of failing, other vendors are not held up
+        assertEquals(2, submitted.size());
+        assertEquals(1, scheduler.queued());
+        assertFalse(third.isCompletedExceptionally());
+        scheduler.submit(request("b1"), vendorB);
+        assertEquals(3, submitted.size());
+
+        now = now.plusSeconds(10);
+        scheduler.submit(request("b2"), vendorB);
+        assertEquals(5, submitted.size());
+        assertEquals(0, scheduler.queued());
+    }
+
+    @Test
+    void submit_shouldHoldRequestsBeyondGlobalRate() {
+        // given
+        environment.setProperty("flickit.ai.scheduler.global.max-concurrency", "10");
+        environment.setProperty("flickit.ai.scheduler.global.burst", "1");
+        environment.setProperty("flickit.ai.scheduler.global.rate-per-second", "1");
+        AiRequestScheduler scheduler = scheduler();
+
+        // when
+        scheduler.submit(request("a1"), vendorA);
+        scheduler.submit(request("b1"), vendorB);
+
+        // then
+        assertEquals(1, submitted.size());
+        assertEquals(1, scheduler.queued());
+        now = now.plusSeconds(1);
+        scheduler.submit(request("a2"), vendorA);
+        assertEquals(2, submitted.size());
+        assertEquals(1, scheduler.queued());
+    }
+
+    @Test
+    void submit_shouldRecordQueueWaitByModeNotByVendor() {
+        // given
+        AiRequestScheduler scheduler = scheduler();
+        CompletableFuture<GeneratedContentDto> first = scheduler.submit(request("a1"), vendorA);
+        scheduler.submit(request("b1"), vendorB);
+        scheduler.submitWaitingForQuota(request("c1"), UUID.randomUUID());
+
+        // when
+        for (int i = 0; i < submitted.size(); i++) {
+            submitted.get(i).run();
+        }
+
+        // then - one meter per mode, however many vendors were seen
+        assertNotNull(first.join());
+        assertEquals(2, meterRegistry.get("flickit.ai.scheduler.wait").tag("mode", "interactive").timer().count());
+        assertEquals(1, meterRegistry.get("flickit.ai.scheduler.wait").tag("mode", "background").timer().count());
+        assertEquals(2, meterRegistry.get("flickit.ai.scheduler.wait").timers().size());
+    }
+
+    private AiRequestScheduler scheduler() {
+        AIContentCache cache = new AIContentCache(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                100, Duration.ofHours(1), null, 100, Clock.systemUTC());
+        AiProvider provider = request -> {
+            generated.add(request.getImageUrl());
+            return GeneratedContentDto.builder().title(request.getImageUrl()).build();
+        };
+        AIService aiService = new AIService(provider, submitted::add, cache, classifier(), meterRegistry);
+        return new AiRequestScheduler(aiService, environment, meterRegistry, new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        });
+    }
+
+    private static GenerateContentRequest request(String imageUrl) {
+        GenerateContentRequest request = new GenerateContentRequest();
+        request.setImageUrl(imageUrl);
+        return request;
+    }
+
+    private static KeywordClassifier classifier() {
+        return new KeywordClassifier(new MockEnvironment(), new SimpleMeterRegistry());
+    }
+}
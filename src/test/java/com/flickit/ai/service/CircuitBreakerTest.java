@@ -0,0 +1,152 @@
+package com.flickit.ai.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private Instant now;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        now = Instant.parse("2025-08-19T20:00:00Z");
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        circuitBreaker = new CircuitBreaker("test", 10, 4, 0.5, Duration.ofSeconds(30), clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldStayClosedUntilMinimumCallsSeen() {
+        // when
+        fail(3);
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertNotEquals(CircuitBreaker.REFUSED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateReachesThreshold() {
+        // given
+        succeed(2);
+
+        // when
+        fail(2);
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.REFUSED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldForgetOutcomesOutsideWindow() {
+        // given - old failures pushed out of the 10-call window by successes
+        succeed(1);
+        fail(1);
+        succeed(10);
+
+        // when
+        fail(4);
+
+        // then - 4 failures out of the last 10 calls
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void shouldLetOneProbeThroughAfterOpenDuration() {
+        // given
+        fail(4);
+        now = now.plusSeconds(30);
+
+        // when
+        long probe = circuitBreaker.tryAcquire();
+
+        // then
+        assertNotEquals(CircuitBreaker.REFUSED, probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.REFUSED, circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertNotEquals(CircuitBreaker.REFUSED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReopenWhenProbeFails() {
+        // given
+        fail(4);
+        now = now.plusSeconds(30);
+        long probe = circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onFailure(probe);
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        now = now.plusSeconds(29);
+        assertEquals(CircuitBreaker.REFUSED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void shouldIgnoreOutcomeOfCallLetThroughBeforeTheProbe() {
+        // given - a slow call let through while closed
+        long slow = circuitBreaker.tryAcquire();
+        fail(4);
+        now = now.plusSeconds(30);
+        long probe = circuitBreaker.tryAcquire();
+
+        // when
+        circuitBreaker.onSuccess(slow);
+
+        // then - still waiting for the probe
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.REFUSED, circuitBreaker.tryAcquire());
+
+        // when
+        circuitBreaker.onFailure(probe);
+        circuitBreaker.onSuccess(slow);
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            long permit = circuitBreaker.tryAcquire();
+            assertNotEquals(CircuitBreaker.REFUSED, permit);
+            circuitBreaker.onSuccess(permit);
+        }
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            long permit = circuitBreaker.tryAcquire();
+            assertNotEquals(CircuitBreaker.REFUSED, permit);
+            circuitBreaker.onFailure(permit);
+        }
+    }
+}
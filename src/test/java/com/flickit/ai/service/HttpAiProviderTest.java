@@ -0,0 +1,187 @@
+package com.flickit.ai.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpAiProviderTest {
+
+    private static final String RESPONSE = """
+            {"title":"Pizza -30%","description":"Hot and fresh","suggestedCategory":"FOOD","confidence":0.9,"modelUsed":"stub"}
+            """;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private HttpServer server;
+    // Latency in ms of the n-th request (1-based) the stub receives
+    private volatile IntUnaryOperator latencyMs = n -> 0;
+    private volatile int status = 200;
+    private GenerateContentRequest request;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/generate", exchange -> {
+            int n = requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latencyMs.applyAsInt(n));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+            try {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (IOException e) {
+                // Client gave up on this request (deadline or lost hedge race)
+            }
+            exchange.close();
+        });
+        server.start();
+        request = new GenerateContentRequest();
+        request.setImageUrl("https://example.com/pizza.jpg");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void generate_shouldReturnProviderContent() {
+        // given
+        HttpAiProvider provider = provider(environment());
+
+        // when
+        GeneratedContentDto result = provider.generate(request);
+
+        // then
+        assertEquals("Pizza -30%", result.getTitle());
+        assertEquals("FOOD", result.getSuggestedCategory());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void generate_shouldFailWhenDeadlinePasses() {
+        // given
+        latencyMs = n -> 1000;
+        HttpAiProvider provider = provider(environment().withProperty("flickit.ai.http.deadline", "200ms"));
+
+        // when
+        long started = System.nanoTime();
+        assertThrows(UncheckedIOException.class, () -> provider.generate(request));
+
+        // then
+        assertTrue((System.nanoTime() - started) / 1_000_000 < 900);
+    }
+
+    @Test
+    void generate_shouldReportClientErrorsWithoutOpeningCircuit() {
+        // given
+        status = 422;
+        HttpAiProvider provider = provider(environment()
+                .withProperty("flickit.ai.http.circuit.window-size", "2")
+                .withProperty("flickit.ai.http.circuit.minimum-calls", "2"));
+
+        // when
+        assertThrows(IllegalArgumentException.class, () -> provider.generate(request));
+        assertThrows(IllegalArgumentException.class, () -> provider.generate(request));
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, provider.circuitState());
+    }
+
+    @Test
+    void generate_shouldFailFastOnceCircuitOpens() {
+        // given
+        status = 503;
+        HttpAiProvider provider = provider(environment()
+                .withProperty("flickit.ai.http.circuit.window-size", "2")
+                .withProperty("flickit.ai.http.circuit.minimum-calls", "2"));
+        assertThrows(UncheckedIOException.class, () -> provider.generate(request));
+        assertThrows(UncheckedIOException.class, () -> provider.generate(request));
+
+        // when & then
+        assertThrows(RejectedExecutionException.class, () -> provider.generate(request));
+        assertEquals(CircuitBreaker.State.OPEN, provider.circuitState());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void generate_shouldHedgeSlowRequest() {
+        // given - after warming up the client, the next request stalls and any later one is fast
+        latencyMs = n -> 10;
+        HttpAiProvider provider = provider(environment()
+                .withProperty("flickit.ai.http.hedge.enabled", "true")
+                .withProperty("flickit.ai.http.hedge.initial-delay", "300ms"));
+        provider.generate(request);
+        int slow = requests.get() + 1;
+        double wonBefore = hedgesWon();
+        latencyMs = n -> n == slow ? 3000 : 10;
+
+        // when
+        long started = System.nanoTime();
+        GeneratedContentDto result = provider.generate(request);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // then
+        assertEquals("Pizza -30%", result.getTitle());
+        assertTrue(elapsedMs < 2000, "hedged call took " + elapsedMs + "ms");
+        assertEquals(slow + 1, requests.get());
+        assertTrue(elapsedMs >= 300, "answered before the hedge delay in " + elapsedMs + "ms");
+        assertEquals(wonBefore + 1, hedgesWon());
+    }
+
+    @Test
+    void generate_shouldNotHedgeFastRequest() {
+        // given
+        latencyMs = n -> 10;
+        HttpAiProvider provider = provider(environment()
+                .withProperty("flickit.ai.http.hedge.enabled", "true")
+                .withProperty("flickit.ai.http.hedge.initial-delay", "4s"));
+
+        // when
+        provider.generate(request);
+
+        // then
+        assertEquals(1, requests.get());
+        assertEquals(0.0, meterRegistry.get("flickit.ai.provider.hedges").tag("result", "sent").counter().count());
+    }
+
+    private double hedgesWon() {
+        return meterRegistry.get("flickit.ai.provider.hedges").tag("result", "won").counter().count();
+    }
+
+    private MockEnvironment environment() {
+        return new MockEnvironment()
+                .withProperty("flickit.ai.http.endpoint",
+                        "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/generate")
+                .withProperty("flickit.ai.http.deadline", "5s");
+    }
+
+    private HttpAiProvider provider(MockEnvironment environment) {
+        return new HttpAiProvider(objectMapper, environment, meterRegistry);
+    }
+}
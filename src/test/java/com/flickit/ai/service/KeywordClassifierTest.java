@@ -0,0 +1,117 @@
+package com.flickit.ai.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordClassifierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void classify_shouldReadEachField() {
+        // given
+        KeywordClassifier classifier = classifier(new MockEnvironment());
+
+        // when
+        KeywordClassifier.Classification classification = classifier.classify(
+                request("https://example.com/salon-interior.jpg", "retail", "Pizza included"));
+
+        // then
+        assertEquals(KeywordClassifier.Kind.SERVICE, classification.urlKind());
+        assertEquals(KeywordClassifier.Kind.SHOP, classification.businessKind());
+        assertEquals(KeywordClassifier.Kind.FOOD, classification.promptKind());
+        assertEquals(KeywordClassifier.Kind.SHOP, classification.contentKind());
+        assertEquals("SERVICE", classification.category());
+        assertFalse(classification.obvious());
+    }
+
+    @Test
+    void classify_shouldPreferFoodWhenUrlMatchesSeveralKinds() {
+        // given
+        KeywordClassifier classifier = classifier(new MockEnvironment());
+
+        // when
+        KeywordClassifier.Classification classification = classifier.classify(
+                request("https://example.com/shop-burger.jpg", null, null));
+
+        // then
+        assertEquals(KeywordClassifier.Kind.FOOD, classification.urlKind());
+        assertEquals("FOOD", classification.category());
+        assertEquals("food", classification.labels().get(0).getLabel());
+    }
+
+    @Test
+    void classify_shouldFallBackToGenericLabels() {
+        // given
+        KeywordClassifier classifier = classifier(new MockEnvironment());
+
+        // when
+        KeywordClassifier.Classification classification = classifier.classify(
+                request("https://example.com/image.jpg", "consulting", null));
+
+        // then
+        assertNull(classification.contentKind());
+        assertEquals("OTHER", classification.category());
+        assertEquals("business", classification.labels().get(0).getLabel());
+    }
+
+    @Test
+    void classify_shouldUseConfiguredKeywords() {
+        // given
+        KeywordClassifier classifier = classifier(new MockEnvironment()
+                .withProperty("flickit.ai.classifier.keywords.food", "kebab, sushi"));
+
+        // when & then
+        assertEquals(KeywordClassifier.Kind.FOOD,
+                classifier.classify(request("https://example.com/sushi.jpg", null, null)).urlKind());
+        assertNull(classifier.classify(request("https://example.com/pizza.jpg", null, null)).urlKind());
+    }
+
+    @Test
+    void preClassify_shouldAnswerObviousRequestWhenEnabled() {
+        // given
+        KeywordClassifier classifier = classifier(new MockEnvironment()
+                .withProperty("flickit.ai.classifier.pre-classify", "true"));
+
+        // when
+        GeneratedContentDto content = classifier.preClassify(
+                request("https://example.com/pizza.jpg", "restaurant", "Lunch special")).orElseThrow();
+
+        // then
+        assertEquals("keyword-classifier", content.getModelUsed());
+        assertEquals("FOOD", content.getSuggestedCategory());
+        assertTrue(content.getDescription().contains("Lunch special"));
+        assertEquals(1.0, meterRegistry.get("flickit.ai.classifier.pre-classified").counter().count());
+    }
+
+    @Test
+    void preClassify_shouldLeaveAmbiguousOrDisabledRequestsToModel() {
+        // given
+        KeywordClassifier enabled = classifier(new MockEnvironment()
+                .withProperty("flickit.ai.classifier.pre-classify", "true"));
+        KeywordClassifier disabled = classifier(new MockEnvironment());
+
+        // when & then
+        assertTrue(enabled.preClassify(request("https://example.com/pizza.jpg", "shop", null)).isEmpty());
+        assertTrue(enabled.preClassify(request("https://example.com/pizza.jpg", null, null)).isEmpty());
+        assertTrue(enabled.preClassify(request("https://example.com/pizza.jpg", "restaurant", "Spa day")).isEmpty());
+        assertTrue(disabled.preClassify(request("https://example.com/pizza.jpg", "restaurant", null)).isEmpty());
+    }
+
+    private KeywordClassifier classifier(MockEnvironment environment) {
+        return new KeywordClassifier(environment, meterRegistry);
+    }
+
+    private static GenerateContentRequest request(String imageUrl, String businessType, String prompt) {
+        GenerateContentRequest request = new GenerateContentRequest();
+        request.setImageUrl(imageUrl);
+        request.setBusinessType(businessType);
+        request.setAdditionalPrompt(prompt);
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.flickit.ai.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    void execute_shouldLetFollowersShareTheLeadersResult() throws Exception {
+        // given - a leader blocked inside the supplier
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            executions.incrementAndGet();
+            return "other";
+        }));
+        while (meterRegistry.get("flickit.test.singleflight.requests").tag("role", "follower").counter().count() < 1) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        // then
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_shouldPropagateLeaderFailureAndReleaseKey() {
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals("retried", singleFlight.execute("key", () -> "retried"));
+    }
+
+    @Test
+    void execute_shouldRunDistinctKeysIndependently() {
+        // when
+        String first = singleFlight.execute("a", () -> "1");
+        String second = singleFlight.execute("b", () -> "2");
+
+        // then
+        assertEquals("1", first);
+        assertEquals("2", second);
+        assertEquals(2.0, meterRegistry.get("flickit.test.singleflight.requests").tag("role", "leader").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
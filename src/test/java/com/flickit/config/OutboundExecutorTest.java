@@ -0,0 +1,79 @@
+package com.flickit.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private OutboundExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_shouldRejectOnceConcurrencyAndQueueAreFull() throws Exception {
+        // given
+        executor = new OutboundExecutor("test", 2, 1, false, meterRegistry);
+        CountDownLatch started = new CountDownLatch(2);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+        }
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        // then
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(2, executor.getActive());
+        assertEquals(1, executor.getQueued());
+        assertEquals(2.0, meterRegistry.get("flickit.executor.active").tag("pool", "test").gauge().value());
+        assertEquals(1.0, meterRegistry.get("flickit.executor.queued").tag("pool", "test").gauge().value());
+        assertEquals(1.0, meterRegistry.get("flickit.executor.rejected").tag("pool", "test").counter().count());
+    }
+
+    @Test
+    void execute_shouldAdmitNewTasksOnceRunningOnesFinish() throws Exception {
+        // given
+        executor = new OutboundExecutor("test", 1, 0, true, meterRegistry);
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+
+        // when
+        CountDownLatch second = new CountDownLatch(1);
+        waitUntilIdle();
+        executor.execute(second::countDown);
+
+        // then
+        assertTrue(second.await(1, TimeUnit.SECONDS));
+    }
+
+    private void waitUntilIdle() throws InterruptedException {
+        for (int i = 0; i < 100 && executor.getQueued() + executor.getActive() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
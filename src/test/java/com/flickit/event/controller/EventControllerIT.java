@@ -10,6 +10,7 @@ import com.flickit.user.dto.UserDto;
 import com.flickit.user.dto.UserLoginRequest;
 import com.flickit.user.model.UserEntity;
 import com.flickit.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -44,6 +46,9 @@ class EventControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void setUp() {
         eventRepository.deleteAll();
@@ -73,7 +78,7 @@ class EventControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.titleVendor", is("Pizza Sale")))
                 .andExpect(jsonPath("$.title", is("Pizza Sale"))) // computed field
-                .andExpect(jsonPath("$.titleAi", startsWith("AI: ")))
+                .andExpect(jsonPath("$.titleAi", is("Pizza Sale"))) // vendor text until enrichment finishes
                 .andExpect(jsonPath("$.lat", is(50.0647)))
                 .andExpect(jsonPath("$.lon", is(19.9450)))
                 .andExpect(jsonPath("$.category", is("FOOD")))
@@ -144,6 +149,38 @@ class EventControllerIT {
                 .andExpect(jsonPath("$[0].titleVendor", is("Kraków Event")));
     }
 
+    @Test
+    void createEvent_shouldPersistImageUrls() throws Exception {
+        // given
+        String vendorToken = createVendorAndGetToken();
+
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitleVendor("Gallery Event");
+        request.setLat(50.0);
+        request.setLon(20.0);
+        request.setCategory(EventEntity.Category.FOOD);
+        request.setExpiresAt(Instant.now().plusSeconds(3600));
+        request.setImageUrls(List.of("/images/a.jpg", "/images/b.jpg"));
+        request.setAiImageUrl("/images/a.jpg");
+
+        String eventResponse = mockMvc.perform(post("/events")
+                        .header("Authorization", "Bearer " + vendorToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        EventDto event = objectMapper.readValue(eventResponse, EventDto.class);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when & then - read back from the database
+        mockMvc.perform(get("/events/" + event.getId())
+                        .header("Authorization", "Bearer " + vendorToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageUrls", contains("/images/a.jpg", "/images/b.jpg")))
+                .andExpect(jsonPath("$.aiImageUrl", is("/images/a.jpg")));
+    }
+
     @Test
     void claimEvent_shouldClaimEventSuccessfully() throws Exception {
         // given
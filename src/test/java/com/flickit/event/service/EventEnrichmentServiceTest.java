@@ -0,0 +1,230 @@
+package com.flickit.event.service;
+
+import com.flickit.ai.dto.GenerateContentRequest;
+import com.flickit.ai.dto.GeneratedContentDto;
+import com.flickit.ai.service.AiRequestScheduler;
+import com.flickit.event.dto.CreateEventRequest;
+import com.flickit.event.model.EventEntity;
+import com.flickit.event.repository.EventRepository;
+import com.flickit.image.service.ImageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EventEnrichmentServiceTest {
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID vendorId = UUID.randomUUID();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompletableFuture<GeneratedContentDto> generation = new CompletableFuture<>();
+    private AiRequestScheduler aiRequestScheduler;
+    private EventRepository eventRepository;
+    private ImageService imageService;
+    private EventEnrichmentService enrichmentService;
+    private CreateEventRequest request;
+
+    @BeforeEach
+    void setUp() {
+        aiRequestScheduler = mock(AiRequestScheduler.class);
+        eventRepository = mock(EventRepository.class);
+        imageService = mock(ImageService.class);
+        when(imageService.modelInputUrl(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(aiRequestScheduler.submitWaitingForQuota(any(), any())).thenReturn(generation);
+        enrichmentService = new EventEnrichmentService(aiRequestScheduler, eventRepository, imageService, meterRegistry,
+                Duration.ofHours(24), Duration.ofMinutes(10), 2);
+        request = new CreateEventRequest();
+        request.setTitleVendor("Pizza Sale");
+        request.setDescriptionVendor("50% off all pizzas!");
+        request.setCategory(EventEntity.Category.FOOD);
+        request.setImageUrls(List.of("https://example.com/pizza.jpg"));
+    }
+
+    @Test
+    void enqueue_shouldGenerateUnderVendorQuotaAndStoreAiText() {
+        // given
+        when(eventRepository.updateAiContent(eq(eventId), any(), any(), any())).thenReturn(1);
+
+        // when
+        enrichmentService.enqueue(eventId, request, vendorId);
+
+        // then - nothing is stored until generation finishes
+        ArgumentCaptor<GenerateContentRequest> generated = ArgumentCaptor.forClass(GenerateContentRequest.class);
+        verify(aiRequestScheduler).submitWaitingForQuota(generated.capture(), eq(vendorId));
+        assertEquals("https://example.com/pizza.jpg", generated.getValue().getImageUrl());
+        assertEquals("food", generated.getValue().getBusinessType());
+        assertEquals("Pizza Sale. 50% off all pizzas!", generated.getValue().getAdditionalPrompt());
+        verifyNoInteractions(eventRepository);
+        assertEquals(1, enrichmentService.pending());
+
+        generation.complete(GeneratedContentDto.builder()
+                .title("Hot pizza deal")
+                .description("Half price on every pizza")
+                .build());
+
+        verify(eventRepository).updateAiContent(eq(eventId), eq("Hot pizza deal"), eq("Half price on every pizza"),
+                any(Instant.class));
+        assertEquals(0, enrichmentService.pending());
+        assertEquals(1, meterRegistry.get("flickit.events.enrichment").tag("outcome", "enriched").counter().count());
+        assertEquals(1, meterRegistry.get("flickit.events.enrichment.lag").timer().count());
+    }
+
+    @Test
+    void enqueue_shouldPreferAiImageAndTruncatePrompt() {
+        // given
+        request.setAiImageUrl("https://example.com/ai.jpg");
+        request.setDescriptionVendor("x".repeat(1000));
+
+        // when
+        GenerateContentRequest generated = enrichmentService.toGenerateRequest(request);
+
+        // then
+        assertEquals("https://example.com/ai.jpg", generated.getImageUrl());
+        assertEquals(500, generated.getAdditionalPrompt().length());
+    }
+
+    @Test
+    void enqueue_shouldSendDownscaledCopyOfStoredImage() {
+        // given
+        UUID imageId = UUID.randomUUID();
+        request.setImageUrls(List.of("/images/" + imageId));
+        when(imageService.modelInputUrl("/images/" + imageId)).thenReturn("/images/" + imageId + "/model");
+
+        // when
+        GenerateContentRequest generated = enrichmentService.toGenerateRequest(request);
+
+        // then
+        assertEquals("/images/" + imageId + "/model", generated.getImageUrl());
+    }
+
+    @Test
+    void enqueue_shouldSkipEventsWithoutImage() {
+        // given
+        request.setImageUrls(null);
+
+        // when
+        enrichmentService.enqueue(eventId, request, vendorId);
+
+        // then
+        verifyNoInteractions(aiRequestScheduler);
+        assertEquals(1, meterRegistry.get("flickit.events.enrichment").tag("outcome", "skipped").counter().count());
+    }
+
+    @Test
+    void enqueue_shouldKeepVendorTextWhenGenerationFails() {
+        // given
+        enrichmentService.enqueue(eventId, request, vendorId);
+
+        // when
+        generation.completeExceptionally(new IllegalStateException("provider down"));
+
+        // then
+        verify(eventRepository, never()).updateAiContent(any(), any(), any(), any());
+        assertEquals(0, enrichmentService.pending());
+        assertEquals(1, meterRegistry.get("flickit.events.enrichment").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void enqueue_shouldDropWhenQueuesAreFull() {
+        // given
+        when(aiRequestScheduler.submitWaitingForQuota(any(), any())).thenThrow(new RejectedExecutionException("full"));
+
+        // when
+        enrichmentService.enqueue(eventId, request, vendorId);
+
+        // then
+        assertEquals(0, enrichmentService.pending());
+        assertEquals(1, meterRegistry.get("flickit.events.enrichment").tag("outcome", "dropped").counter().count());
+    }
+
+    @Test
+    void sweep_shouldRequeueClaimedEventsPagingAfterTheLastIdRead() {
+        // given
+        EventEntity first = event();
+        EventEntity second = event();
+        EventEntity third = event();
+        when(eventRepository.findAwaitingAiContent(eq(EventEntity.Status.ACTIVE), any(), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(eventRepository.findAwaitingAiContentAfter(eq(EventEntity.Status.ACTIVE), any(), any(),
+                eq(second.getId()), any())).thenReturn(List.of(third));
+        when(eventRepository.claimAiEnrichment(any(), any(), any())).thenReturn(1);
+        // Claimed by another node
+        when(eventRepository.claimAiEnrichment(eq(second.getId()), any(), any())).thenReturn(0);
+
+        // when
+        int queued = enrichmentService.sweep();
+
+        // then
+        assertEquals(2, queued);
+        ArgumentCaptor<GenerateContentRequest> generated = ArgumentCaptor.forClass(GenerateContentRequest.class);
+        verify(aiRequestScheduler, times(2)).submitWaitingForQuota(generated.capture(), eq(vendorId));
+        assertEquals("https://example.com/pizza.jpg", generated.getValue().getImageUrl());
+        assertEquals("Pizza Sale. 50% off all pizzas!", generated.getValue().getAdditionalPrompt());
+        assertEquals(2, enrichmentService.pending());
+    }
+
+    @Test
+    void sweep_shouldNotRequeueEventStillWaitingOnThisNode() {
+        // given
+        EventEntity event = event();
+        enrichmentService.enqueue(event.getId(), request, vendorId);
+        when(eventRepository.findAwaitingAiContent(eq(EventEntity.Status.ACTIVE), any(), any(), any()))
+                .thenReturn(List.of(event));
+
+        // when
+        int queued = enrichmentService.sweep();
+
+        // then
+        assertEquals(0, queued);
+        verify(eventRepository, never()).claimAiEnrichment(any(), any(), any());
+        verify(aiRequestScheduler, times(1)).submitWaitingForQuota(any(), any());
+
+        // when - the generation fails and the event becomes due again
+        generation.completeExceptionally(new IllegalStateException("provider down"));
+        when(eventRepository.claimAiEnrichment(eq(event.getId()), any(), any())).thenReturn(1);
+
+        // then
+        assertEquals(1, enrichmentService.sweep());
+    }
+
+    @Test
+    void sweep_shouldStopWhenQueuesAreFull() {
+        // given
+        when(eventRepository.findAwaitingAiContent(eq(EventEntity.Status.ACTIVE), any(), any(), any()))
+                .thenReturn(List.of(event(), event()));
+        when(eventRepository.claimAiEnrichment(any(), any(), any())).thenReturn(1);
+        when(aiRequestScheduler.submitWaitingForQuota(any(), any())).thenThrow(new RejectedExecutionException("full"));
+
+        // when
+        int queued = enrichmentService.sweep();
+
+        // then
+        assertEquals(0, queued);
+        verify(eventRepository, times(1)).claimAiEnrichment(any(), any(), any());
+        verify(eventRepository, never()).findAwaitingAiContentAfter(any(), any(), any(), any(), any());
+    }
+
+    private EventEntity event() {
+        EventEntity event = new EventEntity();
+        ReflectionTestUtils.setField(event, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(event, "titleVendor", request.getTitleVendor());
+        ReflectionTestUtils.setField(event, "descriptionVendor", request.getDescriptionVendor());
+        ReflectionTestUtils.setField(event, "category", request.getCategory());
+        ReflectionTestUtils.setField(event, "imageUrls", request.getImageUrls());
+        ReflectionTestUtils.setField(event, "vendorId", vendorId);
+        ReflectionTestUtils.setField(event, "createdAt", Instant.now().minus(Duration.ofMinutes(30)));
+        return event;
+    }
+}
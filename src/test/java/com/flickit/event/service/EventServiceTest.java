@@ -5,6 +5,8 @@ import com.flickit.event.dto.CreateEventRequest;
 import com.flickit.event.dto.EventDto;
 import com.flickit.event.model.EventEntity;
 import com.flickit.event.repository.EventRepository;
+import com.flickit.notification.service.NotificationOutboxService;
+import com.flickit.notification.service.EventExpiryReminderScheduler;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -25,6 +27,12 @@ class EventServiceTest {
 
     @MockBean
     private EventRepository eventRepository;
+    @MockBean
+    private EventExpiryReminderScheduler expiryReminderScheduler;
+    @MockBean
+    private NotificationOutboxService notificationOutboxService;
+    @MockBean
+    private EventEnrichmentService eventEnrichmentService;
     @Autowired
     private ObjectMapper objectMapper;
     @Autowired
@@ -66,6 +74,8 @@ class EventServiceTest {
         // then
         assertNotNull(result);
         verify(eventRepository).save(any(EventEntity.class));
+        verify(notificationOutboxService).enqueueEventCreated(saved.getId(), 50.0, 20.0, "Test Event", null, EventEntity.Category.OTHER);
+        verify(eventEnrichmentService).enqueue(saved.getId(), request, vendorId);
     }
 
     @Test
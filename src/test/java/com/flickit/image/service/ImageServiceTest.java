@@ -0,0 +1,342 @@
+package com.flickit.image.service;
+
+import com.flickit.image.dto.ImageDto;
+import com.flickit.image.model.ImageEntity;
+import com.flickit.image.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final Map<UUID, ImageEntity> rows = new HashMap<>();
+    private final UUID uploaderId = UUID.randomUUID();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ImageRepository imageRepository;
+    private MockEnvironment environment;
+    private ImageService imageService;
+
+    @BeforeEach
+    void setUp() {
+        imageRepository = mock(ImageRepository.class);
+        when(imageRepository.save(any())).thenAnswer(invocation -> {
+            ImageEntity image = invocation.getArgument(0);
+            rows.put(image.getId(), image);
+            return image;
+        });
+        when(imageRepository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.getArgument(0))));
+        when(imageRepository.existsById(any())).thenAnswer(invocation -> rows.containsKey(invocation.getArgument(0)));
+        when(imageRepository.findFirstBySha256(anyString())).thenAnswer(invocation -> rows.values().stream()
+                .filter(image -> image.getSha256().equals(invocation.getArgument(0)))
+                .findFirst());
+        environment = new MockEnvironment()
+                .withProperty(ImageService.PREFIX + "dir", dir.toString())
+                .withProperty(ImageService.PREFIX + "max-bytes", "1MB")
+                .withProperty(ImageService.PREFIX + "model-size", "256")
+                .withProperty(ImageService.PREFIX + "thumbnail-size", "64");
+        imageService = new ImageService(imageRepository, environment, meterRegistry);
+    }
+
+    @Test
+    void ingest_shouldStoreOriginalAndDownscaledVariants() throws IOException {
+        // given
+        byte[] png = encode(gradient(1200, 800, Color.RED, Color.BLUE), "png");
+
+        // when
+        ImageDto image = imageService.ingest(new ByteArrayInputStream(png), uploaderId);
+
+        // then
+        assertFalse(image.isDuplicate());
+        assertEquals("image/png", image.getContentType());
+        assertEquals(1200, image.getWidth());
+        assertEquals(800, image.getHeight());
+        assertEquals(png.length, image.getSizeBytes());
+        assertEquals("/images/" + image.getId() + "/model", image.getModelUrl());
+
+        Path original = imageService.find(image.getId(), ImageService.Variant.ORIGINAL).orElseThrow().path();
+        assertArrayEquals(png, Files.readAllBytes(original));
+        BufferedImage model = ImageIO.read(imageService.find(image.getId(), ImageService.Variant.MODEL).orElseThrow().path().toFile());
+        assertEquals(256, model.getWidth());
+        assertEquals(171, model.getHeight());
+        BufferedImage thumbnail = ImageIO.read(imageService.find(image.getId(), ImageService.Variant.THUMBNAIL).orElseThrow().path().toFile());
+        assertEquals(64, thumbnail.getWidth());
+        assertEquals(uploaderId, rows.get(image.getId()).getUploaderId());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void ingest_shouldReturnExistingImageForIdenticalUpload() throws IOException {
+        // given
+        byte[] png = encode(gradient(400, 300, Color.RED, Color.BLUE), "png");
+        ImageDto first = imageService.ingest(new ByteArrayInputStream(png), uploaderId);
+
+        // when
+        ImageDto second = imageService.ingest(new ByteArrayInputStream(png), uploaderId);
+
+        // then
+        assertTrue(second.isDuplicate());
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1, rows.size());
+        assertEquals(1, meterRegistry.get("flickit.images.uploads").tag("result", "exact-duplicate").counter().count());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void ingest_shouldReturnExistingImageForResizedReencodedCopy() throws IOException {
+        // given
+        BufferedImage photo = photo(1000, 700, 7);
+        ImageDto first = imageService.ingest(new ByteArrayInputStream(encode(photo, "png")), uploaderId);
+        byte[] smallerJpeg = encode(ImageScaler.fit(photo, 500), "jpeg");
+
+        // when
+        ImageDto copy = imageService.ingest(new ByteArrayInputStream(smallerJpeg), uploaderId);
+
+        // then
+        assertTrue(copy.isDuplicate());
+        assertEquals(first.getId(), copy.getId());
+        assertEquals(1, rows.size());
+        assertEquals(1, meterRegistry.get("flickit.images.uploads").tag("result", "near-duplicate").counter().count());
+    }
+
+    @Test
+    void ingest_shouldReleaseHashWhenStoringFails() throws IOException {
+        // given
+        BufferedImage photo = photo(1000, 700, 7);
+        doThrow(new IllegalStateException("database down")).when(imageRepository).save(any());
+        assertThrows(IllegalStateException.class,
+                () -> imageService.ingest(new ByteArrayInputStream(encode(photo, "png")), uploaderId));
+        doAnswer(invocation -> {
+            ImageEntity image = invocation.getArgument(0);
+            rows.put(image.getId(), image);
+            return image;
+        }).when(imageRepository).save(any());
+
+        // when
+        ImageDto retry = imageService.ingest(new ByteArrayInputStream(encode(ImageScaler.fit(photo, 500), "jpeg")), uploaderId);
+
+        // then
+        assertFalse(retry.isDuplicate());
+        assertTrue(rows.containsKey(retry.getId()));
+        assertEquals(1, meterRegistry.get("flickit.images.indexed").gauge().value());
+    }
+
+    @Test
+    void rebuildIndex_shouldPageByIdAndNotIndexIngestedImagesTwice() throws IOException {
+        // given - one image already indexed by an ingest, one only in the database
+        BufferedImage photo = photo(1000, 700, 7);
+        ImageDto ingested = imageService.ingest(new ByteArrayInputStream(encode(photo, "png")), uploaderId);
+        ImageEntity earlier = ImageEntity.builder()
+                .id(UUID.randomUUID())
+                .sha256("stored-before-restart")
+                .perceptualHash(PerceptualHash.of(ImageScaler.fit(photo(1000, 700, 8), 256)))
+                .contentType("image/png")
+                .width(1000)
+                .height(700)
+                .sizeBytes(1)
+                .uploaderId(uploaderId)
+                .build();
+        rows.put(earlier.getId(), earlier);
+        List<ImageEntity> sorted = rows.values().stream().sorted(Comparator.comparing(ImageEntity::getId)).toList();
+        when(imageRepository.findAllByOrderByIdAsc(any())).thenReturn(sorted);
+
+        // when
+        imageService.rebuildIndex();
+
+        // then
+        assertEquals(2, meterRegistry.get("flickit.images.indexed").gauge().value());
+        ImageDto copy = imageService.ingest(new ByteArrayInputStream(
+                encode(ImageScaler.fit(photo(1000, 700, 8), 500), "jpeg")), uploaderId);
+        assertTrue(copy.isDuplicate());
+        assertEquals(earlier.getId(), copy.getId());
+    }
+
+    @Test
+    void ingest_shouldNotShareNearDuplicatesBetweenUploaders() throws IOException {
+        // given
+        BufferedImage photo = photo(1000, 700, 7);
+        ImageDto first = imageService.ingest(new ByteArrayInputStream(encode(photo, "png")), uploaderId);
+        byte[] smallerJpeg = encode(ImageScaler.fit(photo, 500), "jpeg");
+
+        // when
+        ImageDto other = imageService.ingest(new ByteArrayInputStream(smallerJpeg), UUID.randomUUID());
+
+        // then
+        assertFalse(other.isDuplicate());
+        assertNotEquals(first.getId(), other.getId());
+    }
+
+    @Test
+    void ingest_shouldShareExactDuplicatesBetweenUploaders() throws IOException {
+        // given
+        byte[] png = encode(gradient(400, 300, Color.RED, Color.BLUE), "png");
+        ImageDto first = imageService.ingest(new ByteArrayInputStream(png), uploaderId);
+
+        // when
+        ImageDto other = imageService.ingest(new ByteArrayInputStream(png), UUID.randomUUID());
+
+        // then
+        assertTrue(other.isDuplicate());
+        assertEquals(first.getId(), other.getId());
+    }
+
+    @Test
+    void ingest_shouldNotMatchFlatImagesByPerceptualHash() throws IOException {
+        // given - both hash to 0
+        ImageDto white = imageService.ingest(new ByteArrayInputStream(
+                encode(flat(300, 200, Color.WHITE), "png")), uploaderId);
+
+        // when
+        ImageDto black = imageService.ingest(new ByteArrayInputStream(
+                encode(flat(300, 200, Color.BLACK), "png")), uploaderId);
+
+        // then
+        assertFalse(black.isDuplicate());
+        assertNotEquals(white.getId(), black.getId());
+    }
+
+    @Test
+    void ingest_shouldStoreDifferentImagesSeparately() throws IOException {
+        // given
+        ImageDto first = imageService.ingest(new ByteArrayInputStream(
+                encode(gradient(400, 300, Color.RED, Color.BLUE), "png")), uploaderId);
+
+        // when - the gradient runs the other way
+        ImageDto second = imageService.ingest(new ByteArrayInputStream(
+                encode(gradient(400, 300, Color.BLUE, Color.RED), "png")), uploaderId);
+
+        // then
+        assertFalse(second.isDuplicate());
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    void ingest_shouldRejectOversizedUploadWithoutKeepingIt() throws IOException {
+        // given
+        byte[] body = new byte[2 * 1024 * 1024];
+
+        // when & then
+        assertThrows(IllegalArgumentException.class,
+                () -> imageService.ingest(new ByteArrayInputStream(body), uploaderId));
+        assertTrue(rows.isEmpty());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void ingest_shouldRejectNonImage() throws IOException {
+        // when & then
+        assertThrows(IllegalArgumentException.class,
+                () -> imageService.ingest(new ByteArrayInputStream("not an image".getBytes()), uploaderId));
+        assertTrue(rows.isEmpty());
+        assertNoTempFiles();
+    }
+
+    @Test
+    void modelInputUrl_shouldPointStoredImagesAtModelVariant() throws IOException {
+        // given
+        ImageDto image = imageService.ingest(new ByteArrayInputStream(
+                encode(gradient(400, 300, Color.RED, Color.BLUE), "png")), uploaderId);
+
+        // when & then
+        assertEquals("/images/" + image.getId() + "/model", imageService.modelInputUrl("/images/" + image.getId()));
+        assertEquals("/images/" + image.getId() + "/model", imageService.modelInputUrl(image.getUrl() + "/"));
+    }
+
+    @Test
+    void modelInputUrl_shouldLeaveOtherUrlsUnchanged() {
+        // given
+        UUID unknown = UUID.randomUUID();
+
+        // when & then - vendor hosting with the same path shape, and an id not stored here
+        assertEquals("https://cdn.example.com/images/" + unknown,
+                imageService.modelInputUrl("https://cdn.example.com/images/" + unknown));
+        assertEquals("/images/" + unknown, imageService.modelInputUrl("/images/" + unknown));
+        assertEquals("https://example.com/pizza.jpg", imageService.modelInputUrl("https://example.com/pizza.jpg"));
+    }
+
+    @Test
+    void modelInputUrl_shouldPrefixPublicBaseUrl() throws IOException {
+        // given
+        environment.setProperty(ImageService.PREFIX + "public-base-url", "https://api.flickit.app/");
+        ImageService published = new ImageService(imageRepository, environment, meterRegistry);
+        ImageDto image = published.ingest(new ByteArrayInputStream(
+                encode(gradient(400, 300, Color.RED, Color.BLUE), "png")), uploaderId);
+
+        // when & then
+        assertEquals("https://api.flickit.app/images/" + image.getId() + "/model",
+                published.modelInputUrl(image.getUrl()));
+    }
+
+    private void assertNoTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    private static BufferedImage gradient(int width, int height, Color from, Color to) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, from, width, height / 2f, to));
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.WHITE);
+        graphics.fillOval(width / 4, height / 4, width / 3, height / 3);
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage photo(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = gradient(width, height, Color.ORANGE, Color.DARK_GRAY);
+        Graphics2D graphics = image.createGraphics();
+        for (int i = 0; i < 40; i++) {
+            graphics.setColor(new Color(random.nextInt(0xffffff)));
+            graphics.fillRect(random.nextInt(width), random.nextInt(height), width / 6, height / 6);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage flat(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,103 @@
+package com.flickit.image.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerceptualHashIndexTest {
+
+    @Test
+    void nearest_shouldFindEveryHashWithinMaxDistance() {
+        // given
+        Random random = new Random(42);
+        PerceptualHashIndex index = new PerceptualHashIndex(5);
+        for (int i = 0; i < 1000; i++) {
+            index.add(UUID.randomUUID(), random.nextLong());
+        }
+        long stored = random.nextLong();
+        UUID id = UUID.randomUUID();
+        index.add(id, stored);
+
+        for (int trial = 0; trial < 500; trial++) {
+            // when - flip up to five random bits
+            long query = stored;
+            int flips = trial % 6;
+            while (PerceptualHash.distance(query, stored) < flips) {
+                query ^= 1L << random.nextInt(64);
+            }
+            Optional<PerceptualHashIndex.Match> match = index.nearest(query);
+
+            // then
+            assertTrue(match.isPresent(), "missed a hash " + flips + " bits away");
+            assertEquals(id, match.get().id());
+            assertEquals(flips, match.get().distance());
+        }
+    }
+
+    @Test
+    void nearest_shouldIgnoreHashesBeyondMaxDistance() {
+        // given
+        PerceptualHashIndex index = new PerceptualHashIndex(3);
+        index.add(UUID.randomUUID(), 0L);
+
+        // when & then
+        assertTrue(index.nearest(0b111L).isPresent());
+        assertTrue(index.nearest(0b1111L).isEmpty());
+        assertTrue(index.nearest(-1L).isEmpty());
+    }
+
+    @Test
+    void nearest_shouldPreferClosestMatch() {
+        // given
+        PerceptualHashIndex index = new PerceptualHashIndex(4);
+        UUID far = UUID.randomUUID();
+        UUID close = UUID.randomUUID();
+        index.add(far, 0b1111L);
+        index.add(close, 0b1L);
+
+        // when
+        PerceptualHashIndex.Match match = index.nearest(0L).orElseThrow();
+
+        // then
+        assertEquals(close, match.id());
+        assertEquals(1, match.distance());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void remove_shouldDropOnlyThatImage() {
+        // given
+        PerceptualHashIndex index = new PerceptualHashIndex(4);
+        UUID kept = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        index.add(kept, 0b1111L);
+        index.add(removed, 0b1L);
+
+        // when
+        index.remove(removed, 0b1L);
+
+        // then
+        assertEquals(kept, index.nearest(0L).orElseThrow().id());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void add_shouldIgnoreImageAlreadyIndexed() {
+        // given
+        PerceptualHashIndex index = new PerceptualHashIndex(4);
+        UUID id = UUID.randomUUID();
+        index.add(id, 0b1L);
+
+        // when
+        index.add(id, 0b1L);
+        index.remove(id, 0b1L);
+
+        // then
+        assertEquals(0, index.size());
+        assertTrue(index.nearest(0b1L).isEmpty());
+    }
+}
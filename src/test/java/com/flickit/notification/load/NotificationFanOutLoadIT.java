@@ -0,0 +1,204 @@
+package com.flickit.notification.load;
+
+import com.flickit.event.dto.CreateEventRequest;
+import com.flickit.event.model.EventEntity;
+import com.flickit.event.service.EventService;
+import com.flickit.notification.model.NotificationSubscription;
+import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import com.flickit.notification.service.SubscriptionIndex;
+import com.flickit.notification.support.FcmStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fan-out load harness: creates N subscriptions around one point, creates M events there through
+ * {@link EventService} and measures how long it takes until the FCM stub has answered every push
+ * of each event (outbox poll, index match, chunked multicast and bookkeeping included).
+ *
+ * <p>Tunable with system properties, e.g.
+ * {@code mvn test -Dtest=NotificationFanOutLoadIT -Dload.subscriptions=20000 -Dload.events=50
+ * -Dload.latency-median-ms=40 -Dload.latency-p99-ms=400 -Dload.unavailable-rate=0.01}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fan-out-load;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.show-sql=false",
+        "flickit.fcm.transport=http",
+        "flickit.notifications.coalesce.event-created.window=0s",
+        "flickit.notifications.outbox.poll-interval-ms=20",
+        "flickit.notifications.retry.poll-interval-ms=200",
+        "flickit.notifications.retry.base-backoff=200ms",
+        "logging.level.com.flickit=WARN"
+})
+@ActiveProfiles("test")
+class NotificationFanOutLoadIT {
+
+    private static final double CENTER_LAT = 50.0614;
+    private static final double CENTER_LON = 19.9366;
+
+    private static final int SUBSCRIPTIONS = Integer.getInteger("load.subscriptions", 2000);
+    private static final int EVENTS = Integer.getInteger("load.events", 10);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("load.timeout-seconds", 120));
+
+    private static final FcmStubServer STUB = startStub();
+
+    @Autowired
+    private EventService eventService;
+    @Autowired
+    private NotificationSubscriptionRepository subscriptionRepository;
+    @Autowired
+    private SubscriptionIndex subscriptionIndex;
+
+    @DynamicPropertySource
+    static void fcmEndpoint(DynamicPropertyRegistry registry) {
+        registry.add("flickit.fcm.endpoint", STUB::endpoint);
+        registry.add("flickit.executors.fcm.max-concurrency", () -> Integer.getInteger("load.fcm-concurrency", 8));
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void fanOut_shouldDeliverEveryEventToEverySubscriber() throws InterruptedException {
+        // given
+        createSubscriptions();
+        long expectedTokens = (long) SUBSCRIPTIONS * EVENTS;
+
+        // when
+        Map<String, Long> firedAt = new HashMap<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            String title = "Load event " + i;
+            firedAt.put("Check out: " + title, System.nanoTime());
+            eventService.createEvent(eventRequest(title), UUID.randomUUID());
+        }
+        awaitDeliveries(expectedTokens);
+        long end = System.nanoTime();
+
+        // then
+        Map<String, Long> completedAt = new HashMap<>();
+        Map<String, Long> deliveredPerEvent = new HashMap<>();
+        for (FcmStubServer.Delivery delivery : STUB.deliveries()) {
+            completedAt.merge(delivery.body(), delivery.completedAtNanos(), Math::max);
+            deliveredPerEvent.merge(delivery.body(), (long) delivery.delivered(), Long::sum);
+        }
+        long[] latenciesMs = firedAt.entrySet().stream()
+                .filter(fired -> completedAt.containsKey(fired.getKey()))
+                .mapToLong(fired -> (completedAt.get(fired.getKey()) - fired.getValue()) / 1_000_000)
+                .sorted()
+                .toArray();
+
+        long delivered = STUB.tokensDelivered();
+        double seconds = (end - start) / 1e9;
+        System.out.printf("%n=== Notification fan-out load ===%n");
+        System.out.printf("subscriptions       %d%n", SUBSCRIPTIONS);
+        System.out.printf("events              %d%n", EVENTS);
+        System.out.printf("pushes delivered    %d / %d%n", delivered, expectedTokens);
+        System.out.printf("FCM requests        %d (max %d in flight)%n", STUB.requests(), STUB.maxInFlight());
+        System.out.printf("wall time           %.2f s%n", seconds);
+        System.out.printf("throughput          %.0f pushes/s%n", delivered / seconds);
+        System.out.printf("event fan-out p50   %d ms%n", percentile(latenciesMs, 50));
+        System.out.printf("event fan-out p95   %d ms%n", percentile(latenciesMs, 95));
+        System.out.printf("event fan-out p99   %d ms%n", percentile(latenciesMs, 99));
+        System.out.printf("event fan-out max   %d ms%n%n", percentile(latenciesMs, 100));
+
+        if (Double.parseDouble(System.getProperty("load.token-error-rate", "0")) == 0) {
+            assertEquals(expectedTokens, delivered);
+            assertTrue(deliveredPerEvent.values().stream().allMatch(count -> count == SUBSCRIPTIONS),
+                    "every event reaches every subscriber exactly once: " + deliveredPerEvent);
+        }
+    }
+
+    private void createSubscriptions() {
+        Random random = new Random(42);
+        List<NotificationSubscription> subscriptions = new ArrayList<>(SUBSCRIPTIONS);
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            subscriptions.add(NotificationSubscription.builder()
+                    .userId(UUID.randomUUID())
+                    .fcmToken("load-token-" + i)
+                    .latitude(CENTER_LAT + (random.nextDouble() - 0.5) * 0.02)
+                    .longitude(CENTER_LON + (random.nextDouble() - 0.5) * 0.02)
+                    .radiusMeters(5000.0)
+                    .isActive(true)
+                    .createdAt(Instant.now())
+                    .build());
+        }
+        subscriptionRepository.saveAll(subscriptions);
+        subscriptionIndex.rebuild();
+        assertEquals(SUBSCRIPTIONS, subscriptionIndex.findContaining(CENTER_LAT, CENTER_LON).size());
+    }
+
+    /**
+     * Waits until everything expected was delivered, or until deliveries stop making progress.
+     */
+    private static void awaitDeliveries(long expectedTokens) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        long lastCount = -1;
+        long lastProgress = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            long count = STUB.tokensDelivered();
+            if (count >= expectedTokens) {
+                return;
+            }
+            if (count != lastCount) {
+                lastCount = count;
+                lastProgress = System.nanoTime();
+            } else if (System.nanoTime() - lastProgress > Duration.ofSeconds(10).toNanos()) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) return -1;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static CreateEventRequest eventRequest(String title) {
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitleVendor(title);
+        request.setLat(CENTER_LAT);
+        request.setLon(CENTER_LON);
+        request.setCategory(EventEntity.Category.FOOD);
+        request.setExpiresAt(Instant.now().plusSeconds(3600));
+        return request;
+    }
+
+    private static FcmStubServer startStub() {
+        try {
+            FcmStubServer stub = new FcmStubServer()
+                    .seed(Long.getLong("load.seed", 1))
+                    .latencyLogNormalMs(Double.parseDouble(System.getProperty("load.latency-median-ms", "30")),
+                            Double.parseDouble(System.getProperty("load.latency-p99-ms", "250")))
+                    .unavailableRate(Double.parseDouble(System.getProperty("load.unavailable-rate", "0")));
+            double tokenErrorRate = Double.parseDouble(System.getProperty("load.token-error-rate", "0"));
+            if (tokenErrorRate > 0) {
+                stub.tokenErrorRate("Unavailable", tokenErrorRate);
+            }
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.flickit.notification.service;
+
+import com.flickit.claim.model.ClaimEntity;
+import com.flickit.claim.model.ClaimId;
+import com.flickit.claim.repository.ClaimRepository;
+import com.flickit.event.model.EventEntity;
+import com.flickit.event.repository.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventExpiryReminderSchedulerTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ClaimRepository claimRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    private EventExpiryReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        // 10 minute lead time, 10ms ticks
+        scheduler = new EventExpiryReminderScheduler(eventRepository, claimRepository, notificationService,
+                new SimpleMeterRegistry(), Duration.ofMinutes(10), 10, 100);
+    }
+
+    @Test
+    void tick_shouldRemindClaimersOnceWhenLeadTimeIsReached() throws InterruptedException {
+        // given - expires in 10 minutes, so it is due right away
+        EventEntity event = event(Instant.now().plus(Duration.ofMinutes(10)).plusMillis(30));
+        UUID claimer = UUID.randomUUID();
+        when(eventRepository.findAllById(List.of(event.getId()))).thenReturn(List.of(event));
+        when(eventRepository.markExpiryReminderSent(eq(event.getId()), any())).thenReturn(1);
+        when(claimRepository.findByIdEventId(event.getId()))
+                .thenReturn(List.of(ClaimEntity.builder().id(new ClaimId(event.getId(), claimer)).build()));
+        scheduler.schedule(event.getId(), event.getExpiresAt());
+
+        // when
+        Thread.sleep(60);
+        scheduler.tick();
+        scheduler.tick();
+
+        // then
+        verify(notificationService).sendEventExpiringNotification(eq(event), eq(List.of(claimer)), any());
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void tick_shouldSkipEventsAlreadyRemindedElsewhere() throws InterruptedException {
+        // given
+        EventEntity event = event(Instant.now().plus(Duration.ofMinutes(5)));
+        when(eventRepository.findAllById(List.of(event.getId()))).thenReturn(List.of(event));
+        when(eventRepository.markExpiryReminderSent(eq(event.getId()), any())).thenReturn(0);
+        scheduler.schedule(event.getId(), event.getExpiresAt());
+
+        // when
+        Thread.sleep(30);
+        scheduler.tick();
+
+        // then
+        verify(notificationService, never()).sendEventExpiringNotification(any(), any(), any());
+    }
+
+    @Test
+    void cancel_shouldDropPendingReminder() {
+        // given
+        UUID eventId = UUID.randomUUID();
+        scheduler.schedule(eventId, Instant.now().plus(Duration.ofHours(2)));
+        scheduler.schedule(eventId, Instant.now().plus(Duration.ofHours(3)));
+
+        // when
+        scheduler.cancel(eventId);
+
+        // then
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void rebuild_shouldScheduleActiveEventsFromDatabase() {
+        // given
+        EventEntity event = event(Instant.now().plus(Duration.ofHours(1)));
+        when(eventRepository.findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullOrderByIdAsc(eq(EventEntity.Status.ACTIVE), any(), any()))
+                .thenReturn(List.of(event));
+
+        // when
+        scheduler.rebuild();
+
+        // then
+        assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    void rebuild_shouldContinueEachPageAfterTheLastIdRead() {
+        // given - pages of two
+        scheduler = new EventExpiryReminderScheduler(eventRepository, claimRepository, notificationService,
+                new SimpleMeterRegistry(), Duration.ofMinutes(10), 10, 2);
+        EventEntity first = event(Instant.now().plus(Duration.ofHours(1)));
+        EventEntity second = event(Instant.now().plus(Duration.ofHours(2)));
+        EventEntity third = event(Instant.now().plus(Duration.ofHours(3)));
+        when(eventRepository.findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullOrderByIdAsc(eq(EventEntity.Status.ACTIVE), any(), any()))
+                .thenReturn(List.of(first, second));
+        when(eventRepository.findByStatusAndExpiresAtAfterAndExpiryReminderSentAtIsNullAndIdGreaterThanOrderByIdAsc(
+                eq(EventEntity.Status.ACTIVE), any(), eq(second.getId()), eq(PageRequest.ofSize(2))))
+                .thenReturn(List.of(third));
+
+        // when
+        scheduler.rebuild();
+
+        // then
+        assertEquals(3, scheduler.size());
+    }
+
+    private static EventEntity event(Instant expiresAt) {
+        EventEntity event = new EventEntity();
+        ReflectionTestUtils.setField(event, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(event, "expiresAt", expiresAt);
+        return event;
+    }
+}
@@ -0,0 +1,119 @@
+package com.flickit.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.config.OutboundExecutor;
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.support.FcmStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FcmServiceTest {
+
+    private FcmStubServer stub;
+    private OutboundExecutor executor;
+    private FcmService fcmService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new FcmStubServer().latencyMs(50);
+        executor = new OutboundExecutor("fcm", 2, 100, true, new SimpleMeterRegistry());
+        fcmService = new FcmService(transport(), executor, 500, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void sendMulticast_shouldSplitIntoProviderSizedChunks() {
+        // given
+        List<String> tokens = tokens(1200);
+
+        // when
+        MulticastResult result = fcmService.sendMulticast(tokens, "Title", "Body").join();
+
+        // then
+        assertEquals(1200, result.getResults().size());
+        assertEquals(1200, result.count(FcmSendResult.Status.SENT));
+        assertEquals(List.of(200, 500, 500), stub.chunkSizes().stream().sorted().toList());
+        assertEquals(tokens, result.getResults().stream().map(FcmSendResult::getFcmToken).toList());
+    }
+
+    @Test
+    void sendMulticast_shouldRespectConcurrencyLimit() {
+        // when
+        fcmService.sendMulticast(tokens(3000), "Title", "Body").join();
+
+        // then
+        assertEquals(6, stub.requests());
+        assertTrue(stub.maxInFlight() <= 2, "max in flight was " + stub.maxInFlight());
+    }
+
+    @Test
+    void sendMulticast_shouldReportPerTokenResultsAndRetryTransientFailures() {
+        // given
+        stub.failToken("token-1", "Unavailable")
+                .failToken("token-2", "NotRegistered")
+                .failToken("token-3", "Unavailable", "Unavailable")
+                .failToken("token-4", "MessageTooBig");
+
+        // when
+        MulticastResult result = fcmService.sendMulticast(tokens(10), "Title", "Body").join();
+
+        // then
+        assertEquals(FcmSendResult.Status.SENT, result.getResults().get(1).getStatus()); // recovered on retry
+        assertEquals(List.of("token-2"), result.tokens(FcmSendResult.Status.UNREGISTERED));
+        assertEquals(List.of("token-3"), result.tokens(FcmSendResult.Status.RETRYABLE));
+        assertEquals(List.of("token-4"), result.tokens(FcmSendResult.Status.FAILED));
+        assertEquals(7, result.count(FcmSendResult.Status.SENT));
+        assertEquals(List.of(2, 10), stub.chunkSizes().stream().sorted().toList()); // retry only resends failures
+    }
+
+    @Test
+    void sendMulticast_shouldMarkEverythingRetryableWhenProviderUnreachable() {
+        // given
+        stub.close();
+
+        // when
+        MulticastResult result = fcmService.sendMulticast(tokens(3), "Title", "Body").join();
+
+        // then
+        assertEquals(3, result.count(FcmSendResult.Status.RETRYABLE));
+    }
+
+    @Test
+    void sendMulticast_shouldMarkChunksRetryableWhenExecutorIsSaturated() {
+        // given
+        OutboundExecutor single = new OutboundExecutor("fcm-single", 1, 0, false, new SimpleMeterRegistry());
+        FcmService saturated = new FcmService(transport(), single, 500, 0, 10);
+
+        // when
+        MulticastResult result = saturated.sendMulticast(tokens(1500), "Title", "Body").join();
+        single.shutdown();
+
+        // then
+        assertEquals(500, result.count(FcmSendResult.Status.SENT));
+        assertEquals(1000, result.count(FcmSendResult.Status.RETRYABLE));
+        assertEquals(1, stub.requests());
+    }
+
+    private HttpFcmTransport transport() {
+        return new HttpFcmTransport(new ObjectMapper(), stub.endpoint(), "test-key",
+                Duration.ofSeconds(1), Duration.ofSeconds(5));
+    }
+
+    private static List<String> tokens(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "token-" + i).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.flickit.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void advance_shouldExpireItemsAtTheirDeadline() {
+        // given - 4 slots per level so short delays already span several levels
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 2, 3, START);
+        wheel.schedule(START.plusSeconds(2), "soon");
+        wheel.schedule(START.plusSeconds(9), "level-1");
+        wheel.schedule(START.plusSeconds(40), "level-2");
+
+        // when & then
+        assertEquals(List.of(), items(wheel.advance(START.plusSeconds(1))));
+        assertEquals(List.of("soon"), items(wheel.advance(START.plusSeconds(2))));
+        assertEquals(List.of(), items(wheel.advance(START.plusMillis(8_999))));
+        assertEquals(List.of("level-1"), items(wheel.advance(START.plusSeconds(9))));
+        assertEquals(List.of(), items(wheel.advance(START.plusSeconds(39))));
+        assertEquals(List.of("level-2"), items(wheel.advance(START.plusSeconds(40))));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldHandleDeadlinesBeyondTheTopLevel() {
+        // given - the whole wheel spans 64 ticks
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 2, 3, START);
+        wheel.schedule(START.plusSeconds(200), "far");
+
+        // when & then
+        assertEquals(List.of(), items(wheel.advance(START.plusSeconds(199))));
+        assertEquals(List.of("far"), items(wheel.advance(START.plusSeconds(200))));
+    }
+
+    @Test
+    void schedule_shouldExpirePastDeadlinesOnNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 8, 4, START);
+        wheel.schedule(START.minusSeconds(30), "late");
+
+        assertEquals(List.of("late"), items(wheel.advance(START.plusSeconds(1))));
+    }
+
+    @Test
+    void cancel_shouldRemoveItemOnce() {
+        // given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 8, 4, START);
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule(START.plusSeconds(600), "cancelled");
+        wheel.schedule(START.plusSeconds(600), "kept");
+
+        // when & then
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("kept"), items(wheel.advance(START.plusSeconds(600))));
+    }
+
+    @Test
+    void advance_shouldFireEveryRandomTimerExactlyOnceAndOnTime() {
+        // given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 3, 3, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = 1 + random.nextInt(2_000);
+            deadlines.add(deadline);
+            wheel.schedule(START.plusSeconds(deadline), deadline);
+        }
+
+        // when - tick second by second
+        int fired = 0;
+        for (long second = 1; second <= 2_000; second++) {
+            for (long deadline : items(wheel.advance(START.plusSeconds(second)))) {
+                assertEquals(second, deadline);
+                fired++;
+            }
+        }
+
+        // then
+        assertEquals(deadlines.size(), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_shouldReturnTheFiredHandles() {
+        // given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 8, 4, START);
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.schedule(START.plusSeconds(5), "due");
+
+        // when
+        List<HierarchicalTimingWheel.Timeout<String>> fired = wheel.advance(START.plusSeconds(5));
+
+        // then
+        assertEquals(List.of(timeout), fired);
+        assertFalse(timeout.cancel());
+    }
+
+    private static <T> List<T> items(List<HierarchicalTimingWheel.Timeout<T>> timeouts) {
+        return timeouts.stream().map(HierarchicalTimingWheel.Timeout::item).toList();
+    }
+}
@@ -0,0 +1,37 @@
+package com.flickit.notification.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordVocabularyTest {
+
+    private final KeywordVocabulary vocabulary = new KeywordVocabulary(List.of("pizza", "sushi", "ice-cream"));
+
+    @Test
+    void maskOf_shouldSetOneBitPerKeywordIgnoringCase() {
+        assertEquals(0L, vocabulary.maskOf(List.of()));
+        assertEquals(0b101L, vocabulary.maskOf(List.of("Pizza", " ice-cream ")));
+    }
+
+    @Test
+    void maskOf_shouldRejectUnknownKeyword() {
+        assertThrows(IllegalArgumentException.class, () -> vocabulary.maskOf(List.of("caviar")));
+    }
+
+    @Test
+    void maskOfText_shouldMatchWholeWordsAndHyphenatedKeywords() {
+        assertEquals(0b001L, vocabulary.maskOfText("Two PIZZAS? No - one pizza, half price!"));
+        assertEquals(0b110L, vocabulary.maskOfText("Sushi and ice-cream combo"));
+        assertEquals(0L, vocabulary.maskOfText("Sushiya opening"));
+        assertEquals(0L, vocabulary.maskOfText(null));
+    }
+
+    @Test
+    void constructor_shouldRejectMoreKeywordsThanBits() {
+        List<String> keywords = java.util.stream.IntStream.range(0, 65).mapToObj(i -> "k" + i).toList();
+        assertThrows(IllegalStateException.class, () -> new KeywordVocabulary(keywords));
+    }
+}
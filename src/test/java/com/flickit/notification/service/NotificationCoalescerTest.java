@@ -0,0 +1,78 @@
+package com.flickit.notification.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationCoalescerTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final NotificationCoalescer<String> coalescer =
+            new NotificationCoalescer<>("test", Duration.ofSeconds(60), 2, new SimpleMeterRegistry());
+
+    @Test
+    void offer_shouldSendFirstAndHoldTheRestUntilWindowCloses() {
+        // when
+        boolean first = coalescer.offer("sub-1", "a", null, T0);
+        boolean second = coalescer.offer("sub-1", "b", null, T0.plusSeconds(10));
+        boolean third = coalescer.offer("sub-1", "c", null, T0.plusSeconds(20));
+        boolean otherKey = coalescer.offer("sub-2", "x", null, T0.plusSeconds(20));
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(third);
+        assertTrue(otherKey);
+        assertTrue(coalescer.drainDue(T0.plusSeconds(59)).isEmpty());
+
+        List<NotificationCoalescer.Digest<String>> digests = coalescer.drainDue(T0.plusSeconds(60));
+        assertEquals(1, digests.size());
+        assertEquals("sub-1", digests.get(0).getKey());
+        assertEquals(2, digests.get(0).getCount());
+        assertEquals("c", digests.get(0).getLatest());
+    }
+
+    @Test
+    void drainDue_shouldKeepBoundedItemsAndForgetIdleKeys() {
+        // given
+        coalescer.offer("sub-1", "a", null, T0);
+        coalescer.offer("sub-1", "b", null, T0.plusSeconds(1));
+        coalescer.offer("sub-1", "c", null, T0.plusSeconds(2));
+        coalescer.offer("sub-1", "d", null, T0.plusSeconds(3));
+
+        // when
+        NotificationCoalescer.Digest<String> digest = coalescer.drainDue(T0.plusSeconds(60)).get(0);
+
+        // then - digest opened a new window, which then closes idle
+        assertEquals(3, digest.getCount());
+        assertEquals(List.of("c", "d"), digest.getItems());
+        assertFalse(coalescer.offer("sub-1", "e", null, T0.plusSeconds(61)));
+        coalescer.drainDue(T0.plusSeconds(120));
+        assertTrue(coalescer.drainDue(T0.plusSeconds(180)).isEmpty());
+        assertEquals(0, coalescer.size());
+        assertTrue(coalescer.offer("sub-1", "f", null, T0.plusSeconds(181)));
+    }
+
+    @Test
+    void offer_shouldHonourPersistedLastSentAndZeroWindow() {
+        // when
+        boolean recentlyNotified = coalescer.offer("sub-1", "a", T0.minusSeconds(30), T0);
+        boolean longAgo = coalescer.offer("sub-2", "a", T0.minusSeconds(300), T0);
+
+        // then
+        assertFalse(recentlyNotified);
+        assertTrue(longAgo);
+        assertEquals(1, coalescer.drainDue(T0.plusSeconds(30)).size());
+
+        NotificationCoalescer<String> disabled =
+                new NotificationCoalescer<>("off", Duration.ZERO, 2, new SimpleMeterRegistry());
+        assertTrue(disabled.offer("sub-1", "a", null, T0));
+        assertTrue(disabled.offer("sub-1", "b", null, T0));
+    }
+}
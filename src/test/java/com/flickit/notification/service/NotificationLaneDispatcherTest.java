@@ -0,0 +1,174 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationLaneDispatcherTest {
+
+    @Mock
+    private FcmService fcmService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> sentTitles = new ArrayList<>();
+    private final List<CompletableFuture<MulticastResult>> pending = new ArrayList<>();
+    private final List<List<String>> sentTokens = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(fcmService.getChunkSize()).thenReturn(100);
+        when(fcmService.sendMulticast(any(), any(), any())).thenAnswer(invocation -> {
+            List<String> tokens = invocation.getArgument(0);
+            sentTitles.add(invocation.getArgument(1));
+            CompletableFuture<MulticastResult> future = new CompletableFuture<>();
+            pending.add(future);
+            sentTokens.add(tokens);
+            return future;
+        });
+    }
+
+    @Test
+    void send_shouldServeExpiringPushAfterInFlightChunksOfLargeBulkFanOut() {
+        // given - a 2,000 token fan-out is twenty 100 token chunks; two slots, both taken by it
+        NotificationLaneDispatcher dispatcher = dispatcher(new MockEnvironment()
+                .withProperty("flickit.notifications.lanes.max-in-flight", "2")
+                .withProperty("flickit.notifications.lanes.event-created.max-concurrency", "2"));
+        CompletableFuture<MulticastResult> bulk =
+                dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED, tokens(2_000), "deal", "body");
+        assertEquals(18, dispatcher.queued(NotificationDto.NotificationType.EVENT_CREATED));
+
+        // when - an expiring reminder arrives behind the bulk backlog
+        CompletableFuture<MulticastResult> expiring =
+                dispatcher.send(NotificationDto.NotificationType.EVENT_EXPIRING, tokens(50), "expiring", "body");
+        completeNext();
+
+        // then - it starts on the first free slot, after one bulk chunk rather than twenty
+        assertEquals(List.of("deal", "deal", "expiring"), sentTitles);
+        int chunksBeforeExpiringDone = 1;
+        while (!expiring.isDone()) {
+            completeNext();
+            chunksBeforeExpiringDone++;
+        }
+        assertTrue(chunksBeforeExpiringDone <= 3, "expiring waited for " + chunksBeforeExpiringDone + " chunks");
+        assertFalse(bulk.isDone());
+
+        // when
+        while (!pending.isEmpty()) {
+            completeNext();
+        }
+
+        // then - the bulk result is reassembled in token order
+        assertEquals(tokens(2_000), bulk.join().tokens(FcmSendResult.Status.SENT));
+    }
+
+    @Test
+    void send_shouldServeUrgentLaneAheadOfQueuedBulkFanOut() {
+        // given - a single slot, occupied by the first bulk multicast
+        NotificationLaneDispatcher dispatcher = dispatcher(new MockEnvironment()
+                .withProperty("flickit.notifications.lanes.max-in-flight", "1"));
+        for (int i = 0; i < 4; i++) {
+            dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED, tokens(100), "deal-" + i, "body");
+        }
+
+        // when - an expiring reminder arrives behind three queued fan-outs
+        CompletableFuture<MulticastResult> expiring =
+                dispatcher.send(NotificationDto.NotificationType.EVENT_EXPIRING, tokens(100), "expiring", "body");
+        completeNext();
+
+        // then - it goes next, not last
+        assertEquals(List.of("deal-0", "expiring"), sentTitles);
+        completeNext();
+        assertTrue(expiring.isDone());
+        assertEquals(2, dispatcher.queued(NotificationDto.NotificationType.EVENT_CREATED));
+    }
+
+    @Test
+    void send_shouldShareSlotsByWeightUnderContention() {
+        // given - ratings (weight 2) and deals (weight 1) queued behind one slot
+        NotificationLaneDispatcher dispatcher = dispatcher(new MockEnvironment()
+                .withProperty("flickit.notifications.lanes.max-in-flight", "1"));
+        for (int i = 0; i < 6; i++) {
+            dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED, tokens(10), "deal", "body");
+            dispatcher.send(NotificationDto.NotificationType.RATING_RECEIVED, tokens(10), "rating", "body");
+        }
+
+        // when
+        for (int i = 0; i < 6; i++) {
+            completeNext();
+        }
+
+        // then - after the first deal, ratings get two multicasts for every deal
+        List<String> served = sentTitles.subList(1, 7);
+        assertEquals(4, served.stream().filter("rating"::equals).count());
+        assertEquals(2, served.stream().filter("deal"::equals).count());
+    }
+
+    @Test
+    void send_shouldCapLaneConcurrency() {
+        // given
+        NotificationLaneDispatcher dispatcher = dispatcher(new MockEnvironment()
+                .withProperty("flickit.notifications.lanes.event-created.max-concurrency", "2"));
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED, tokens(1), "deal", "body");
+        }
+        dispatcher.send(NotificationDto.NotificationType.EVENT_CLAIMED, tokens(1), "claimed", "body");
+
+        // then - the claimed push is not held back by the capped bulk lane
+        assertEquals(2, dispatcher.inFlight(NotificationDto.NotificationType.EVENT_CREATED));
+        assertEquals(3, dispatcher.queued(NotificationDto.NotificationType.EVENT_CREATED));
+        assertEquals(1, dispatcher.inFlight(NotificationDto.NotificationType.EVENT_CLAIMED));
+    }
+
+    @Test
+    void send_shouldDeferMulticastAsRetryableWhenLaneIsFull() {
+        // given
+        NotificationLaneDispatcher dispatcher = dispatcher(new MockEnvironment()
+                .withProperty("flickit.notifications.lanes.max-in-flight", "1")
+                .withProperty("flickit.notifications.lanes.event-created.queue-capacity", "1"));
+        dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED, tokens(1), "running", "body");
+        dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED, tokens(1), "queued", "body");
+
+        // when
+        MulticastResult result = dispatcher.send(NotificationDto.NotificationType.EVENT_CREATED,
+                List.of("a", "b"), "overflow", "body").join();
+
+        // then
+        assertEquals(List.of("a", "b"), result.tokens(FcmSendResult.Status.RETRYABLE));
+        assertEquals(1.0, meterRegistry.get("flickit.notifications.lane.rejected").tag("lane", "EVENT_CREATED").counter().count());
+    }
+
+    private NotificationLaneDispatcher dispatcher(MockEnvironment environment) {
+        return new NotificationLaneDispatcher(fcmService, environment, meterRegistry);
+    }
+
+    private void completeNext() {
+        List<String> tokens = sentTokens.remove(0);
+        pending.remove(0).complete(new MulticastResult(tokens.stream().map(FcmSendResult::sent).toList()));
+    }
+
+    private static List<String> tokens(int count) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add("token-" + i);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,104 @@
+package com.flickit.notification.service;
+
+import com.flickit.auth.model.CurrentUser;
+import com.flickit.auth.service.AuthContext;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.dto.NotificationHistoryDto;
+import com.flickit.notification.repository.NotificationLogRepository;
+import com.flickit.user.model.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mockStatic;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:notification-log;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class NotificationLogServiceTest {
+
+    @Autowired
+    private NotificationLogService notificationLogService;
+    @Autowired
+    private NotificationLogRepository logRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM notification_log");
+    }
+
+    @Test
+    void getHistory_shouldPageNewestFirstWithKeysetCursor() {
+        // given
+        Instant base = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            notificationLogService.record(notification(userId, "Deal " + i, base.plusSeconds(i)));
+        }
+        notificationLogService.record(notification(UUID.randomUUID(), "Someone else", base.plusSeconds(10)));
+        assertEquals(6, notificationLogService.flush());
+
+        try (MockedStatic<AuthContext> authContext = mockStatic(AuthContext.class)) {
+            authContext.when(AuthContext::getCurrentUser).thenReturn(new CurrentUser(userId, UserEntity.Role.CUSTOMER));
+
+            // when
+            List<String> titles = new ArrayList<>();
+            String cursor = null;
+            int pages = 0;
+            do {
+                NotificationHistoryDto page = notificationLogService.getHistory(cursor, 2);
+                page.getItems().forEach(item -> titles.add(item.getTitle()));
+                cursor = page.getNextCursor();
+                pages++;
+            } while (cursor != null);
+
+            // then
+            assertEquals(List.of("Deal 4", "Deal 3", "Deal 2", "Deal 1", "Deal 0"), titles);
+            assertEquals(3, pages);
+            assertThrows(IllegalArgumentException.class, () -> notificationLogService.getHistory("not-a-cursor", 2));
+            assertThrows(IllegalArgumentException.class, () -> notificationLogService.getHistory(null, 0));
+        }
+    }
+
+    @Test
+    void purgeBefore_shouldDropWholeDaysPastRetention() {
+        // given
+        Instant now = Instant.now();
+        notificationLogService.record(notification(userId, "Old", now.minus(40, ChronoUnit.DAYS)));
+        notificationLogService.record(notification(userId, "Recent", now));
+        notificationLogService.flush();
+
+        // when
+        int purged = logRepository.purgeBefore(NotificationLogRepository.dayOf(now).minusDays(30));
+
+        // then
+        assertEquals(1, purged);
+        assertEquals(List.of("Recent"), jdbcTemplate.queryForList("SELECT title FROM notification_log", String.class));
+    }
+
+    private static NotificationDto notification(UUID userId, String title, Instant createdAt) {
+        return NotificationDto.builder()
+                .userId(userId)
+                .fcmToken("token")
+                .title(title)
+                .body("Body")
+                .type(NotificationDto.NotificationType.EVENT_CREATED)
+                .status(NotificationDto.NotificationStatus.SENT)
+                .createdAt(createdAt)
+                .sentAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.flickit.notification.service;
+
+import com.flickit.event.model.EventEntity;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationOutboxEntry;
+import com.flickit.notification.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// Own in-memory database: dispatchers of other cached test contexts poll the shared one
+@SpringBootTest(properties = {
+        "flickit.notifications.outbox.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:outbox-dispatcher;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class NotificationOutboxDispatcherTest {
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationService notificationService;
+    private SubscriptionIndex subscriptionIndex;
+    private NotificationOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        notificationService = mock(NotificationService.class);
+        subscriptionIndex = mock(SubscriptionIndex.class);
+        when(subscriptionIndex.isReady()).thenReturn(true);
+        dispatcher = new NotificationOutboxDispatcher(outboxRepository, notificationService, subscriptionIndex, transactionManager, false,
+                100, 2, Duration.ofDays(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void dispatchPending_shouldSendAndMarkEntriesDone() {
+        // given
+        NotificationOutboxEntry entry = outboxRepository.save(pendingEntry("Pizza Sale"));
+
+        // when
+        int dispatched = dispatcher.dispatchPending();
+
+        // then
+        assertEquals(1, dispatched);
+        verify(notificationService).sendEventCreatedNotification(50.0, 20.0, "Pizza Sale", EventEntity.Category.FOOD, 1L);
+        NotificationOutboxEntry stored = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(NotificationOutboxEntry.Status.DONE, stored.getStatus());
+        assertNotNull(stored.getProcessedAt());
+        assertNull(stored.getClaimedBy());
+    }
+
+    @Test
+    void dispatchPending_shouldLeaveEntriesPendingUntilSubscriptionIndexIsLoaded() {
+        // given - a row left pending by a restart, before the index rebuild has run
+        NotificationOutboxEntry entry = outboxRepository.save(pendingEntry("Pizza Sale"));
+        when(subscriptionIndex.isReady()).thenReturn(false);
+
+        // when
+        int dispatched = dispatcher.dispatchPending();
+
+        // then
+        assertEquals(0, dispatched);
+        verifyNoInteractions(notificationService);
+        NotificationOutboxEntry stored = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(NotificationOutboxEntry.Status.PENDING, stored.getStatus());
+        assertNull(stored.getClaimedBy());
+
+        // when
+        when(subscriptionIndex.isReady()).thenReturn(true);
+        dispatched = dispatcher.dispatchPending();
+
+        // then
+        assertEquals(1, dispatched);
+        verify(notificationService).sendEventCreatedNotification(50.0, 20.0, "Pizza Sale", EventEntity.Category.FOOD, 1L);
+    }
+
+    @Test
+    void dispatchPending_shouldRetryAndEventuallyFailEntry() {
+        // given - an error message longer than the lastError column
+        NotificationOutboxEntry entry = outboxRepository.save(pendingEntry("Broken"));
+        doThrow(new IllegalStateException("index unavailable " + "x".repeat(2000)))
+                .when(notificationService).sendEventCreatedNotification(anyDouble(), anyDouble(), any(), any(), anyLong());
+
+        // when
+        dispatcher.dispatchPending();
+
+        // then - first failure keeps it pending and claimable
+        NotificationOutboxEntry stored = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(NotificationOutboxEntry.Status.PENDING, stored.getStatus());
+        assertEquals(1, stored.getAttempts());
+        assertEquals(1000, stored.getLastError().length());
+
+        // when
+        dispatcher.dispatchPending();
+
+        // then - max attempts reached
+        stored = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertEquals(NotificationOutboxEntry.Status.FAILED, stored.getStatus());
+        assertTrue(stored.getLastError().startsWith("index unavailable"));
+    }
+
+    @Test
+    void dispatchPending_shouldNotDispatchEntriesClaimedByAnotherNode() {
+        // given - another node holds the lease on the only entry
+        NotificationOutboxEntry entry = pendingEntry("Claimed");
+        entry.setClaimedBy("other-node");
+        entry.setClaimedUntil(Instant.now().plusSeconds(60));
+        outboxRepository.save(entry);
+
+        // when
+        int dispatched = dispatcher.dispatchPending();
+
+        // then
+        assertEquals(0, dispatched);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void dispatchPending_shouldReclaimEntriesWhoseLeaseExpired() {
+        // given - a node died holding the lease
+        NotificationOutboxEntry entry = pendingEntry("Orphaned");
+        entry.setClaimedBy("dead-node");
+        entry.setClaimedUntil(Instant.now().minusSeconds(1));
+        outboxRepository.save(entry);
+
+        // when
+        int dispatched = dispatcher.dispatchPending();
+
+        // then
+        assertEquals(1, dispatched);
+        verify(notificationService).sendEventCreatedNotification(anyDouble(), anyDouble(), eq("Orphaned"), any(), anyLong());
+    }
+
+    @Test
+    void dispatchPending_shouldDoNothingWhenOutboxEmpty() {
+        // when
+        int dispatched = dispatcher.dispatchPending();
+
+        // then
+        assertEquals(0, dispatched);
+        verifyNoInteractions(notificationService);
+    }
+
+    private NotificationOutboxEntry pendingEntry(String title) {
+        return NotificationOutboxEntry.builder()
+                .type(NotificationDto.NotificationType.EVENT_CREATED)
+                .eventId(UUID.randomUUID())
+                .latitude(50.0)
+                .longitude(20.0)
+                .title(title)
+                .category(EventEntity.Category.FOOD)
+                .keywordMask(1L)
+                .status(NotificationOutboxEntry.Status.PENDING)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
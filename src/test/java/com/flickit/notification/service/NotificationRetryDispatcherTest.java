@@ -0,0 +1,96 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationQueueEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationRetryDispatcherTest {
+
+    private NotificationRetryQueue retryQueue;
+    private NotificationLaneDispatcher laneDispatcher;
+    private FcmTokenRegistry tokenRegistry;
+    private NotificationRetryDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        retryQueue = mock(NotificationRetryQueue.class);
+        laneDispatcher = mock(NotificationLaneDispatcher.class);
+        tokenRegistry = mock(FcmTokenRegistry.class);
+        dispatcher = new NotificationRetryDispatcher(retryQueue, laneDispatcher, tokenRegistry,
+                mock(NotificationLogService.class), 500);
+    }
+
+    @Test
+    void dispatchDue_shouldNotWaitForFcmAndCompleteRowsWhenAnswered() {
+        // given
+        List<NotificationQueueEntry> claimed = List.of(entry("a"), entry("b"));
+        when(retryQueue.claimDue(500)).thenReturn(claimed);
+        CompletableFuture<MulticastResult> answer = new CompletableFuture<>();
+        when(laneDispatcher.send(any(), anyList(), anyString(), anyString())).thenReturn(answer);
+
+        // when
+        int dispatched = dispatcher.dispatchDue();
+
+        // then - returned while FCM is still pending
+        assertEquals(2, dispatched);
+        assertEquals(1, dispatcher.sending());
+        verify(retryQueue, never()).complete(any(), any());
+
+        // when
+        MulticastResult result = new MulticastResult(List.of(
+                FcmSendResult.sent("a"),
+                FcmSendResult.of("b", FcmSendResult.Status.UNREGISTERED, "NotRegistered")));
+        answer.complete(result);
+
+        // then
+        verify(retryQueue).complete(claimed, result);
+        verify(tokenRegistry).deactivate(List.of("b"));
+        assertEquals(0, dispatcher.sending());
+    }
+
+    @Test
+    void dispatchDue_shouldNotClaimWhileEarlierMulticastsAreInFlight() {
+        // given
+        when(retryQueue.claimDue(500)).thenReturn(List.of(entry("a")));
+        CompletableFuture<MulticastResult> answer = new CompletableFuture<>();
+        when(laneDispatcher.send(any(), anyList(), anyString(), anyString())).thenReturn(answer);
+        dispatcher.dispatchDue();
+
+        // when
+        int dispatched = dispatcher.dispatchDue();
+
+        // then
+        assertEquals(0, dispatched);
+        verify(retryQueue, times(1)).claimDue(500);
+
+        // when - a failed send leaves the rows to their lease
+        answer.completeExceptionally(new IllegalStateException("lane closed"));
+
+        // then
+        verify(retryQueue, never()).complete(any(), any());
+        assertEquals(0, dispatcher.sending());
+    }
+
+    private NotificationQueueEntry entry(String fcmToken) {
+        return NotificationQueueEntry.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .fcmToken(fcmToken)
+                .title("Title")
+                .body("Body")
+                .type(NotificationDto.NotificationType.EVENT_CREATED)
+                .status(NotificationDto.NotificationStatus.PENDING)
+                .build();
+    }
+}
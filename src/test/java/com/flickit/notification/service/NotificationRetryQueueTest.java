@@ -0,0 +1,179 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
+import com.flickit.notification.dto.NotificationDto;
+import com.flickit.notification.model.NotificationQueueEntry;
+import com.flickit.notification.repository.NotificationQueueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own in-memory database: dispatchers of other cached test contexts poll the shared one
+@SpringBootTest(properties = {
+        "flickit.notifications.retry.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:retry-queue;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class NotificationRetryQueueTest {
+
+    @Autowired
+    private NotificationQueueRepository queueRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationRetryQueue retryQueue;
+
+    @BeforeEach
+    void setUp() {
+        queueRepository.deleteAll();
+        retryQueue = new NotificationRetryQueue(queueRepository, transactionManager, false, 3,
+                Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60));
+    }
+
+    @Test
+    void enqueueFailures_shouldQueueRetryableAndDeadLetterPermanentFailures() {
+        // given
+        UUID userId = UUID.randomUUID();
+        MulticastResult result = new MulticastResult(List.of(
+                FcmSendResult.sent("sent"),
+                FcmSendResult.of("gone", FcmSendResult.Status.UNREGISTERED, "NotRegistered"),
+                FcmSendResult.of("busy", FcmSendResult.Status.RETRYABLE, "Unavailable"),
+                FcmSendResult.of("bad", FcmSendResult.Status.FAILED, "MessageTooBig")));
+
+        // when
+        int queued = retryQueue.enqueueFailures(result, Map.of("busy", userId),
+                NotificationDto.NotificationType.EVENT_CREATED, "Title", "Body");
+
+        // then
+        assertEquals(2, queued);
+        Map<String, NotificationQueueEntry> byToken = queueRepository.findAll().stream()
+                .collect(Collectors.toMap(NotificationQueueEntry::getFcmToken, entry -> entry));
+        NotificationQueueEntry busy = byToken.get("busy");
+        assertEquals(NotificationDto.NotificationStatus.PENDING, busy.getStatus());
+        assertEquals(1, busy.getAttempts());
+        assertEquals(userId, busy.getUserId());
+        assertTrue(busy.getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals(NotificationDto.NotificationStatus.DEAD_LETTER, byToken.get("bad").getStatus());
+    }
+
+    @Test
+    void enqueueFailures_shouldStoreLongTokensAndTruncateLongErrors() {
+        // given - a token longer than the default column and an oversized provider error
+        String token = "t".repeat(400);
+        MulticastResult result = new MulticastResult(List.of(
+                FcmSendResult.of(token, FcmSendResult.Status.RETRYABLE, "Unavailable " + "x".repeat(2000))));
+
+        // when
+        retryQueue.enqueueFailures(result, Map.of(), NotificationDto.NotificationType.EVENT_CREATED, "Title", "Body");
+
+        // then
+        NotificationQueueEntry stored = find(token);
+        assertEquals(NotificationQueueEntry.MAX_ERROR_LENGTH, stored.getLastError().length());
+        assertTrue(stored.getLastError().startsWith("Unavailable"));
+    }
+
+    @Test
+    void claimDue_shouldLeaseEachDueRowToOnlyOneCaller() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            queueRepository.save(dueEntry("token-" + i));
+        }
+        queueRepository.save(entry("later", Instant.now().plusSeconds(3600)));
+
+        // when
+        List<NotificationQueueEntry> first = retryQueue.claimDue(3);
+        List<NotificationQueueEntry> second = retryQueue.claimDue(3);
+        List<NotificationQueueEntry> third = retryQueue.claimDue(3);
+
+        // then
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertTrue(third.isEmpty());
+        Set<UUID> ids = new HashSet<>();
+        first.forEach(entry -> ids.add(entry.getId()));
+        second.forEach(entry -> ids.add(entry.getId()));
+        assertEquals(5, ids.size());
+    }
+
+    @Test
+    void complete_shouldRescheduleWithBackoffAndDeadLetterAfterMaxAttempts() {
+        // given
+        queueRepository.save(dueEntry("flaky"));
+        queueRepository.save(dueEntry("ok"));
+        MulticastResult result = new MulticastResult(List.of(
+                FcmSendResult.of("flaky", FcmSendResult.Status.RETRYABLE, "Unavailable"),
+                FcmSendResult.sent("ok")));
+
+        // when
+        retryQueue.complete(retryQueue.claimDue(10), result);
+
+        // then
+        NotificationQueueEntry flaky = find("flaky");
+        assertEquals(NotificationDto.NotificationStatus.PENDING, flaky.getStatus());
+        assertEquals(1, flaky.getAttempts());
+        assertNull(flaky.getClaimedBy());
+        assertTrue(flaky.getNextAttemptAt().isAfter(Instant.now()));
+        assertEquals(NotificationDto.NotificationStatus.SENT, find("ok").getStatus());
+
+        // when - two more failures reach max-attempts
+        for (int i = 0; i < 2; i++) {
+            flaky = find("flaky");
+            flaky.setNextAttemptAt(Instant.now().minusSeconds(1));
+            queueRepository.save(flaky);
+            retryQueue.complete(retryQueue.claimDue(10), result);
+        }
+
+        // then
+        flaky = find("flaky");
+        assertEquals(NotificationDto.NotificationStatus.DEAD_LETTER, flaky.getStatus());
+        assertEquals(3, flaky.getAttempts());
+        assertTrue(retryQueue.claimDue(10).isEmpty());
+    }
+
+    @Test
+    void backoff_shouldGrowExponentiallyWithinJitterBoundsAndCap() {
+        for (int attempt = 1; attempt <= 8; attempt++) {
+            long expected = Math.min(10_000, 1_000L << (attempt - 1));
+            long delay = retryQueue.backoff(attempt).toMillis();
+            assertTrue(delay >= expected / 2 && delay <= expected, "attempt " + attempt + " -> " + delay);
+        }
+    }
+
+    private NotificationQueueEntry find(String token) {
+        return queueRepository.findAll().stream()
+                .filter(entry -> entry.getFcmToken().equals(token))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static NotificationQueueEntry dueEntry(String token) {
+        return entry(token, Instant.now().minusSeconds(1));
+    }
+
+    private static NotificationQueueEntry entry(String token, Instant nextAttemptAt) {
+        return NotificationQueueEntry.builder()
+                .fcmToken(token)
+                .title("Title")
+                .body("Body")
+                .type(NotificationDto.NotificationType.EVENT_CREATED)
+                .status(NotificationDto.NotificationStatus.PENDING)
+                .nextAttemptAt(nextAttemptAt)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
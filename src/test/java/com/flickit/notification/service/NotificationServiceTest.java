@@ -2,26 +2,34 @@ package com.flickit.notification.service;
 
 import com.flickit.auth.model.CurrentUser;
 import com.flickit.auth.service.AuthContext;
+import com.flickit.event.model.EventEntity;
 import com.flickit.user.model.UserEntity;
+import com.flickit.notification.dto.FcmSendResult;
+import com.flickit.notification.dto.MulticastResult;
 import com.flickit.notification.dto.SubscribeRequest;
 import com.flickit.notification.model.NotificationSubscription;
 import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +41,18 @@ class NotificationServiceTest {
     @Mock
     private FcmService fcmService;
 
-    @InjectMocks
+    @Mock
+    private SubscriptionIndex subscriptionIndex;
+
+    @Mock
+    private SubscriptionBulkUpdater subscriptionBulkUpdater;
+
+    @Mock
+    private NotificationRetryQueue retryQueue;
+
+    @Mock
+    private NotificationLogService notificationLogService;
+
     private NotificationService notificationService;
 
     private UUID testUserId;
@@ -42,6 +61,16 @@ class NotificationServiceTest {
 
     @BeforeEach
     void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        lenient().when(fcmService.getChunkSize()).thenReturn(500);
+        notificationService = new NotificationService(subscriptionRepository,
+                new NotificationLaneDispatcher(fcmService, new MockEnvironment(), meterRegistry), subscriptionIndex,
+                subscriptionBulkUpdater, retryQueue,
+                new NotificationCoalescer<>("test", Duration.ofMillis(50), 5, meterRegistry),
+                new NotificationCoalescer<>("test-rating", Duration.ofMillis(50), 5, meterRegistry),
+                notificationLogService,
+                new FcmTokenRegistry(subscriptionRepository, subscriptionIndex, meterRegistry),
+                new KeywordVocabulary(List.of("pizza", "sushi", "coffee")));
         testUserId = UUID.randomUUID();
         testUser = new CurrentUser(testUserId, UserEntity.Role.CUSTOMER);
         
@@ -77,6 +106,43 @@ class NotificationServiceTest {
             assertNotNull(result.getCreatedAt());
 
             verify(subscriptionRepository).save(any(NotificationSubscription.class));
+            verify(subscriptionIndex).put(result);
+        }
+    }
+
+    @Test
+    void subscribe_shouldStoreCategoryAndKeywordMasks() {
+        // given
+        testRequest.setCategories(List.of(EventEntity.Category.FOOD, EventEntity.Category.SERVICE));
+        testRequest.setKeywords(List.of("Sushi", "coffee"));
+        when(subscriptionRepository.findByUserIdAndFcmToken(testUserId, testRequest.getFcmToken()))
+                .thenReturn(Optional.empty());
+        when(subscriptionRepository.save(any(NotificationSubscription.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        try (MockedStatic<AuthContext> authContextMock = mockStatic(AuthContext.class)) {
+            authContextMock.when(AuthContext::getCurrentUser).thenReturn(testUser);
+
+            // when
+            NotificationSubscription result = notificationService.subscribe(testRequest);
+
+            // then
+            assertEquals(0b011, result.getCategoryMask());
+            assertEquals(0b110L, result.getKeywordMask());
+        }
+    }
+
+    @Test
+    void subscribe_shouldRejectUnknownKeyword() {
+        // given
+        testRequest.setKeywords(List.of("caviar"));
+
+        try (MockedStatic<AuthContext> authContextMock = mockStatic(AuthContext.class)) {
+            authContextMock.when(AuthContext::getCurrentUser).thenReturn(testUser);
+
+            // when & then
+            assertThrows(IllegalArgumentException.class, () -> notificationService.subscribe(testRequest));
+            verify(subscriptionRepository, never()).save(any());
         }
     }
 
@@ -158,30 +224,202 @@ class NotificationServiceTest {
     @Test
     void sendEventCreatedNotification_shouldFindSubscriptionsInRadius() {
         // given
-        List<NotificationSubscription> subscriptions = List.of(
-                NotificationSubscription.builder()
+        List<SubscriptionIndex.Entry> subscriptions = List.of(
+                SubscriptionIndex.Entry.builder()
+                        .id(UUID.randomUUID())
                         .fcmToken("token1")
-                        .isActive(true)
                         .build(),
-                NotificationSubscription.builder()
+                SubscriptionIndex.Entry.builder()
+                        .id(UUID.randomUUID())
                         .fcmToken("token2")
-                        .isActive(true)
                         .build()
         );
 
-        when(subscriptionRepository.findActiveSubscriptionsInRadius(50.0, 20.0))
+        when(subscriptionIndex.findContaining(50.0, 20.0, SubscriptionFilter.categoryBit(EventEntity.Category.FOOD), 0L))
                 .thenReturn(subscriptions);
-        when(fcmService.sendNotificationToTokens(any(), any(), any()))
-                .thenReturn(CompletableFuture.completedFuture(true));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(
+                        FcmSendResult.sent("token1"), FcmSendResult.sent("token2")))));
 
         // when
-        notificationService.sendEventCreatedNotification(50.0, 20.0, "Test Event");
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Test Event", EventEntity.Category.FOOD, 0L);
 
         // then
-        verify(fcmService).sendNotificationToTokens(
+        verify(fcmService).sendMulticast(
                 List.of("token1", "token2"),
                 "New Deal Nearby!",
                 "Check out: Test Event"
         );
+        verify(subscriptionBulkUpdater).markNotified(eq(List.of(subscriptions.get(0).getId(), subscriptions.get(1).getId())), any());
+        verify(subscriptionRepository, never()).deactivateByFcmTokens(any());
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void sendEventCreatedNotification_shouldPruneUnregisteredTokens() {
+        // given
+        SubscriptionIndex.Entry live = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("live").build();
+        SubscriptionIndex.Entry dead = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("dead").build();
+        when(subscriptionIndex.findContaining(50.0, 20.0, SubscriptionFilter.categoryBit(EventEntity.Category.FOOD), 0L)).thenReturn(List.of(live, dead));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(
+                        FcmSendResult.sent("live"),
+                        FcmSendResult.of("dead", FcmSendResult.Status.UNREGISTERED, "NotRegistered")))));
+
+        // when
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Test Event", EventEntity.Category.FOOD, 0L);
+
+        // then
+        verify(subscriptionRepository).deactivateByFcmTokens(Set.of("dead"));
+        verify(subscriptionIndex).removeByFcmTokens(Set.of("dead"));
+    }
+
+    @Test
+    void sendEventCreatedNotification_shouldSendOncePerDeviceAndStampAllItsSubscriptions() {
+        // given - one device subscribed twice with different radii
+        SubscriptionIndex.Entry near = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("phone").build();
+        SubscriptionIndex.Entry far = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("phone").build();
+        SubscriptionIndex.Entry other = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("tablet").build();
+        when(subscriptionIndex.findContaining(50.0, 20.0, SubscriptionFilter.categoryBit(EventEntity.Category.FOOD), 0L)).thenReturn(List.of(near, other, far));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(
+                        FcmSendResult.sent("phone"), FcmSendResult.sent("tablet")))));
+
+        // when
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Test Event", EventEntity.Category.FOOD, 0L);
+
+        // then
+        verify(fcmService).sendMulticast(List.of("phone", "tablet"), "New Deal Nearby!", "Check out: Test Event");
+        verify(subscriptionBulkUpdater).markNotified(eq(List.of(near.getId(), far.getId(), other.getId())), any());
+    }
+
+    @Test
+    void sendEventCreatedNotification_shouldCoalesceBurstIntoDigest() throws InterruptedException {
+        // given
+        SubscriptionIndex.Entry subscription = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("token1").build();
+        when(subscriptionIndex.findContaining(50.0, 20.0, SubscriptionFilter.categoryBit(EventEntity.Category.FOOD), 0L)).thenReturn(List.of(subscription));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(FcmSendResult.sent("token1")))));
+
+        // when - a burst of three deals
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Pizza", EventEntity.Category.FOOD, 0L);
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Pasta", EventEntity.Category.FOOD, 0L);
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Tiramisu", EventEntity.Category.FOOD, 0L);
+        notificationService.flushEventCreatedDigests(); // window still open
+        Thread.sleep(100);
+        notificationService.flushEventCreatedDigests();
+
+        // then - first push immediately, the rest as one digest
+        verify(fcmService).sendMulticast(List.of("token1"), "New Deal Nearby!", "Check out: Pizza");
+        verify(fcmService).sendMulticast(List.of("token1"), "2 new deals nearby", "Latest: Tiramisu");
+        verify(fcmService, times(2)).sendMulticast(any(), any(), any());
+    }
+
+    @Test
+    void sendEventCreatedNotification_shouldKeepOneDigestWindowPerDevice() throws InterruptedException {
+        // given - one user's subscriptions on two devices, the tablet's covering fewer deals
+        UUID userId = UUID.randomUUID();
+        SubscriptionIndex.Entry phone = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).userId(userId).fcmToken("phone").build();
+        SubscriptionIndex.Entry tablet = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).userId(userId).fcmToken("tablet").build();
+        int food = SubscriptionFilter.categoryBit(EventEntity.Category.FOOD);
+        when(subscriptionIndex.findContaining(50.0, 20.0, food, 0L)).thenReturn(List.of(phone));
+        when(subscriptionIndex.findContaining(50.1, 20.0, food, 0L)).thenReturn(List.of(phone, tablet));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of())));
+
+        // when
+        notificationService.sendEventCreatedNotification(50.0, 20.0, "Pizza", EventEntity.Category.FOOD, 0L);
+        notificationService.sendEventCreatedNotification(50.1, 20.0, "Pasta", EventEntity.Category.FOOD, 0L);
+        notificationService.sendEventCreatedNotification(50.1, 20.0, "Tiramisu", EventEntity.Category.FOOD, 0L);
+        Thread.sleep(100);
+        notificationService.flushEventCreatedDigests();
+
+        // then - each device's digest holds only what it would have been sent
+        verify(fcmService).sendMulticast(List.of("phone"), "New Deal Nearby!", "Check out: Pizza");
+        verify(fcmService).sendMulticast(List.of("tablet"), "New Deal Nearby!", "Check out: Pasta");
+        verify(fcmService).sendMulticast(List.of("phone"), "2 new deals nearby", "Latest: Tiramisu");
+        verify(fcmService).sendMulticast(List.of("tablet"), "New Deal Nearby!", "Check out: Tiramisu");
+        verify(fcmService, times(4)).sendMulticast(any(), any(), any());
+    }
+
+    @Test
+    void sendRatingNotification_shouldMulticastOncePerDeviceAndStampInBulk() {
+        // given - two subscriptions on the same phone, one on a tablet
+        NotificationSubscription phoneNear = vendorSubscription("phone");
+        NotificationSubscription phoneFar = vendorSubscription("phone");
+        NotificationSubscription tablet = vendorSubscription("tablet");
+        when(subscriptionRepository.findByUserIdAndIsActiveTrue(testUserId)).thenReturn(List.of(phoneNear, phoneFar, tablet));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(
+                        FcmSendResult.sent("phone"), FcmSendResult.sent("tablet")))));
+
+        // when
+        notificationService.sendRatingNotification(testUserId, "Pizza Sale", 5);
+
+        // then
+        verify(fcmService).sendMulticast(List.of("phone", "tablet"), "Rating Received!",
+                "Your event 'Pizza Sale' received a 5-star rating");
+        verify(subscriptionBulkUpdater).markNotified(eq(List.of(phoneNear.getId(), phoneFar.getId(), tablet.getId())), any());
+        verify(subscriptionRepository, never()).save(any());
+        verify(fcmService, never()).sendNotification(any());
+    }
+
+    @Test
+    void sendRatingNotification_shouldCoalesceBurstPerVendorIntoDigest() throws InterruptedException {
+        // given
+        when(subscriptionRepository.findByUserIdAndIsActiveTrue(testUserId)).thenReturn(List.of(vendorSubscription("phone")));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(FcmSendResult.sent("phone")))));
+
+        // when - three ratings in quick succession
+        notificationService.sendRatingNotification(testUserId, "Pizza", 5);
+        notificationService.sendRatingNotification(testUserId, "Pasta", 3);
+        notificationService.sendRatingNotification(testUserId, "Tiramisu", 4);
+        notificationService.flushRatingDigests(); // window still open
+        Thread.sleep(100);
+        notificationService.flushRatingDigests();
+
+        // then
+        verify(fcmService).sendMulticast(List.of("phone"), "Rating Received!", "Your event 'Pizza' received a 5-star rating");
+        verify(fcmService).sendMulticast(List.of("phone"), "2 new ratings", "Latest: 4 stars for 'Tiramisu'");
+        verify(fcmService, times(2)).sendMulticast(any(), any(), any());
+    }
+
+    @Test
+    void sendEventExpiringNotification_shouldRemindClaimersAndNearbyDevicesOnce() {
+        // given - the claimer's phone is also subscribed near the event
+        EventEntity event = new EventEntity();
+        ReflectionTestUtils.setField(event, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(event, "titleVendor", "Pizza Sale");
+        ReflectionTestUtils.setField(event, "lat", 50.0);
+        ReflectionTestUtils.setField(event, "lon", 20.0);
+        ReflectionTestUtils.setField(event, "category", EventEntity.Category.FOOD);
+        NotificationSubscription claimerPhone = vendorSubscription("phone");
+        SubscriptionIndex.Entry nearbyPhone = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("phone").build();
+        SubscriptionIndex.Entry neighbour = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("neighbour").build();
+        when(subscriptionRepository.findByUserIdInAndIsActiveTrue(List.of(testUserId))).thenReturn(List.of(claimerPhone));
+        when(subscriptionIndex.findContaining(50.0, 20.0, SubscriptionFilter.categoryBit(EventEntity.Category.FOOD), 1L))
+                .thenReturn(List.of(nearbyPhone, neighbour));
+        when(fcmService.sendMulticast(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new MulticastResult(List.of(
+                        FcmSendResult.sent("phone"), FcmSendResult.sent("neighbour")))));
+
+        // when
+        notificationService.sendEventExpiringNotification(event, List.of(testUserId), Duration.ofMinutes(10));
+
+        // then
+        verify(fcmService).sendMulticast(List.of("phone", "neighbour"), "Ending Soon!", "'Pizza Sale' ends in 10 min");
+    }
+
+    private NotificationSubscription vendorSubscription(String fcmToken) {
+        return NotificationSubscription.builder()
+                .id(UUID.randomUUID())
+                .userId(testUserId)
+                .fcmToken(fcmToken)
+                .latitude(50.0)
+                .longitude(20.0)
+                .radiusMeters(1000.0)
+                .isActive(true)
+                .build();
     }
 }
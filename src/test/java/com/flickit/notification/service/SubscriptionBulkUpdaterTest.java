@@ -0,0 +1,77 @@
+package com.flickit.notification.service;
+
+import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionBulkUpdaterTest {
+
+    @Mock
+    private NotificationSubscriptionRepository subscriptionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SubscriptionBulkUpdater bulkUpdater;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bulkUpdater = new SubscriptionBulkUpdater(subscriptionRepository, transactionManager, meterRegistry, 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void markNotified_shouldIssueOneUpdatePerChunkInItsOwnTransaction() {
+        // given
+        List<UUID> ids = IntStream.range(0, 2500).mapToObj(i -> UUID.randomUUID()).toList();
+        Instant sentAt = Instant.now();
+        when(subscriptionRepository.updateLastNotificationSent(any(), eq(sentAt)))
+                .thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).size());
+
+        // when
+        int updated = bulkUpdater.markNotified(ids, sentAt);
+
+        // then
+        assertEquals(2500, updated);
+        ArgumentCaptor<Collection<UUID>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(subscriptionRepository, times(3)).updateLastNotificationSent(chunks.capture(), eq(sentAt));
+        assertEquals(List.of(1000, 1000, 500), chunks.getAllValues().stream().map(Collection::size).toList());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+
+        DistributionSummary rows = meterRegistry.get("flickit.notifications.last_sent.batch.rows").summary();
+        assertEquals(3, rows.count());
+        assertEquals(2500.0, rows.totalAmount());
+    }
+
+    @Test
+    void markNotified_shouldDoNothingForEmptyFanOut() {
+        // when
+        int updated = bulkUpdater.markNotified(List.of(), Instant.now());
+
+        // then
+        assertEquals(0, updated);
+        verifyNoInteractions(subscriptionRepository, transactionManager);
+    }
+}
@@ -0,0 +1,219 @@
+package com.flickit.notification.service;
+
+import com.flickit.event.model.EventEntity;
+import com.flickit.notification.model.NotificationSubscription;
+import com.flickit.notification.repository.NotificationSubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionIndexTest {
+
+    @Mock
+    private NotificationSubscriptionRepository subscriptionRepository;
+
+    private SubscriptionIndex subscriptionIndex;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionIndex = new SubscriptionIndex(subscriptionRepository, 0.05, 100);
+    }
+
+    @Test
+    void findContaining_shouldMatchOnlyCirclesContainingPoint() {
+        // given - Kraków market square, 2km and 500m circles
+        SubscriptionIndex.Entry wide = circle(50.0617, 19.9373, 2000);
+        SubscriptionIndex.Entry narrow = circle(50.0617, 19.9373, 500);
+        subscriptionIndex.put(wide);
+        subscriptionIndex.put(narrow);
+
+        // when - point ~1.1km north of the centre
+        List<SubscriptionIndex.Entry> result = subscriptionIndex.findContaining(50.0717, 19.9373);
+
+        // then
+        assertEquals(List.of(wide), result);
+    }
+
+    @Test
+    void findContaining_shouldMatchLargeCircleAcrossManyCells() {
+        // given
+        SubscriptionIndex.Entry large = circle(52.2297, 21.0122, 50000);
+        subscriptionIndex.put(large);
+
+        // when & then - ~40km east is inside, ~60km east is not
+        assertEquals(1, subscriptionIndex.findContaining(52.2297, 21.6000).size());
+        assertTrue(subscriptionIndex.findContaining(52.2297, 21.8900).isEmpty());
+    }
+
+    @Test
+    void findContaining_shouldHandleCirclesCrossingTheAntimeridian() {
+        // given
+        SubscriptionIndex.Entry fiji = circle(-17.0, 179.99, 5000);
+        subscriptionIndex.put(fiji);
+
+        // when & then
+        assertEquals(1, subscriptionIndex.findContaining(-17.0, -179.99).size());
+    }
+
+    @Test
+    void findContaining_shouldApplyCategoryAndKeywordFilters() {
+        // given - one unfiltered, one food-only, one food-with-sushi subscription at the same spot
+        int food = SubscriptionFilter.categoryBit(EventEntity.Category.FOOD);
+        SubscriptionIndex.Entry any = circle(50.0, 20.0, 1000);
+        SubscriptionIndex.Entry foodOnly = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("food")
+                .latitude(50.0).longitude(20.0).radiusMeters(1000).categoryMask(food).build();
+        SubscriptionIndex.Entry sushi = SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("sushi")
+                .latitude(50.0).longitude(20.0).radiusMeters(1000).categoryMask(food).keywordMask(0b100L).build();
+        subscriptionIndex.put(any);
+        subscriptionIndex.put(foodOnly);
+        subscriptionIndex.put(sushi);
+
+        // when & then
+        assertEquals(Set.of(any, foodOnly, sushi),
+                Set.copyOf(subscriptionIndex.findContaining(50.0, 20.0, food, 0b110L)));
+        assertEquals(Set.of(any, foodOnly),
+                Set.copyOf(subscriptionIndex.findContaining(50.0, 20.0, food, 0b001L)));
+        assertEquals(Set.of(any),
+                Set.copyOf(subscriptionIndex.findContaining(50.0, 20.0,
+                        SubscriptionFilter.categoryBit(EventEntity.Category.SERVICE), 0b100L)));
+    }
+
+    @Test
+    void remove_shouldDropCircleFromAllCells() {
+        // given
+        SubscriptionIndex.Entry entry = circle(50.0, 20.0, 10000);
+        subscriptionIndex.put(entry);
+
+        // when
+        subscriptionIndex.remove(entry.getId());
+
+        // then
+        assertTrue(subscriptionIndex.findContaining(50.0, 20.0).isEmpty());
+        assertEquals(0, subscriptionIndex.size());
+    }
+
+    @Test
+    void put_shouldReplacePreviousCircleForSameSubscription() {
+        // given
+        UUID id = UUID.randomUUID();
+        subscriptionIndex.put(SubscriptionIndex.Entry.builder().id(id).fcmToken("t")
+                .latitude(50.0).longitude(20.0).radiusMeters(1000).build());
+
+        // when
+        subscriptionIndex.put(SubscriptionIndex.Entry.builder().id(id).fcmToken("t")
+                .latitude(51.0).longitude(20.0).radiusMeters(1000).build());
+
+        // then
+        assertTrue(subscriptionIndex.findContaining(50.0, 20.0).isEmpty());
+        assertEquals(1, subscriptionIndex.findContaining(51.0, 20.0).size());
+    }
+
+    @Test
+    void removeByFcmTokens_shouldDropEverySubscriptionOfThoseDevices() {
+        // given - one device with two circles, another with one
+        subscriptionIndex.put(SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("dead")
+                .latitude(50.0).longitude(20.0).radiusMeters(1000).build());
+        subscriptionIndex.put(SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("dead")
+                .latitude(50.0).longitude(20.0).radiusMeters(5000).build());
+        subscriptionIndex.put(SubscriptionIndex.Entry.builder().id(UUID.randomUUID()).fcmToken("live")
+                .latitude(50.0).longitude(20.0).radiusMeters(1000).build());
+
+        // when
+        subscriptionIndex.removeByFcmTokens(List.of("dead", "unknown"));
+
+        // then
+        assertEquals(1, subscriptionIndex.size());
+        assertEquals("live", subscriptionIndex.findContaining(50.0, 20.0).get(0).getFcmToken());
+    }
+
+    @Test
+    void rebuild_shouldLoadActiveSubscriptionsFromDatabase() {
+        // given
+        NotificationSubscription subscription = NotificationSubscription.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .fcmToken("token")
+                .latitude(50.0)
+                .longitude(20.0)
+                .radiusMeters(1000.0)
+                .isActive(true)
+                .build();
+        when(subscriptionRepository.findByIsActiveTrueOrderByIdAsc(any())).thenReturn(List.of(subscription));
+
+        assertFalse(subscriptionIndex.isReady());
+
+        // when
+        subscriptionIndex.rebuild();
+
+        // then
+        assertTrue(subscriptionIndex.isReady());
+        assertEquals(1, subscriptionIndex.size());
+        assertEquals("token", subscriptionIndex.findContaining(50.0, 20.0).get(0).getFcmToken());
+    }
+
+    @Test
+    void rebuild_shouldContinueEachPageAfterTheLastIdReadAndKeepServingOldIndexUntilDone() {
+        // given
+        SubscriptionIndex index = new SubscriptionIndex(subscriptionRepository, 0.05, 2);
+        index.put(circle(10.0, 10.0, 1000.0));
+        NotificationSubscription first = subscription("first");
+        NotificationSubscription second = subscription("second");
+        NotificationSubscription third = subscription("third");
+        when(subscriptionRepository.findByIsActiveTrueOrderByIdAsc(any())).thenAnswer(invocation -> {
+            // then - mid-rebuild readers still see the previous index
+            assertEquals(1, index.findContaining(10.0, 10.0).size());
+            return List.of(first, second);
+        });
+        when(subscriptionRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(eq(second.getId()), any()))
+                .thenReturn(List.of(third));
+
+        // when
+        index.rebuild();
+
+        // then
+        verify(subscriptionRepository).findByIsActiveTrueOrderByIdAsc(PageRequest.ofSize(2));
+        verify(subscriptionRepository).findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(second.getId(), PageRequest.ofSize(2));
+        verifyNoMoreInteractions(subscriptionRepository);
+        assertEquals(3, index.size());
+        assertTrue(index.findContaining(10.0, 10.0).isEmpty());
+        assertEquals(3, index.findContaining(50.0, 20.0).size());
+    }
+
+    private NotificationSubscription subscription(String fcmToken) {
+        return NotificationSubscription.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .fcmToken(fcmToken)
+                .latitude(50.0)
+                .longitude(20.0)
+                .radiusMeters(1000.0)
+                .isActive(true)
+                .build();
+    }
+
+    private SubscriptionIndex.Entry circle(double lat, double lon, double radius) {
+        return SubscriptionIndex.Entry.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .fcmToken(UUID.randomUUID().toString())
+                .latitude(lat)
+                .longitude(lon)
+                .radiusMeters(radius)
+                .build();
+    }
+}
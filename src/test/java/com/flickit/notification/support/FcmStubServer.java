@@ -0,0 +1,214 @@
+package com.flickit.notification.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Local stand-in for the FCM {@code /fcm/send} multicast endpoint. Simulates latency (fixed or
+ * drawn from a distribution), random per-token and per-request error rates and scripted per-token
+ * errors, and records what it received for assertions and load measurements.
+ */
+public class FcmStubServer implements AutoCloseable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, List<String>> scriptedErrors = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<Delivery> deliveries = new ConcurrentLinkedQueue<>();
+    private final Map<String, Double> tokenErrorRates = new ConcurrentHashMap<>();
+    private volatile LongSupplier latencyMs = () -> 0;
+    private volatile double unavailableRate;
+    private volatile Random random = new Random();
+
+    public FcmStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fcm/send", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/fcm/send";
+    }
+
+    public FcmStubServer latencyMs(long latencyMs) {
+        this.latencyMs = () -> latencyMs;
+        return this;
+    }
+
+    public FcmStubServer latencyUniformMs(long minMs, long maxMs) {
+        this.latencyMs = () -> minMs + (long) (random.nextDouble() * (maxMs - minMs + 1));
+        return this;
+    }
+
+    /**
+     * Log-normal latency with the given median and 99th percentile, the usual shape of a remote
+     * API's response times (a long right tail).
+     */
+    public FcmStubServer latencyLogNormalMs(double medianMs, double p99Ms) {
+        double mu = Math.log(medianMs);
+        double sigma = (Math.log(p99Ms) - mu) / 2.326; // z-score of the 99th percentile
+        this.latencyMs = () -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        return this;
+    }
+
+    /**
+     * Fails each token independently with {@code error} (e.g. {@code Unavailable}, {@code NotRegistered})
+     * at the given rate. Rates of different errors add up.
+     */
+    public FcmStubServer tokenErrorRate(String error, double rate) {
+        tokenErrorRates.put(error, rate);
+        return this;
+    }
+
+    /**
+     * Answers whole requests with HTTP 503 at the given rate.
+     */
+    public FcmStubServer unavailableRate(double rate) {
+        this.unavailableRate = rate;
+        return this;
+    }
+
+    public FcmStubServer seed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    /**
+     * Scripts the errors returned for a token on successive sends; once exhausted the token succeeds.
+     */
+    public FcmStubServer failToken(String token, String... errors) {
+        scriptedErrors.put(token, new ArrayList<>(List.of(errors)));
+        return this;
+    }
+
+    public int requests() {
+        return requests.get();
+    }
+
+    public int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public List<Integer> chunkSizes() {
+        return chunkSizes;
+    }
+
+    /**
+     * Every successfully answered request, in completion order.
+     */
+    public List<Delivery> deliveries() {
+        return List.copyOf(deliveries);
+    }
+
+    public long tokensDelivered() {
+        return deliveries.stream().mapToLong(Delivery::delivered).sum();
+    }
+
+    /**
+     * One answered multicast: its notification text, how many tokens it carried, how many of
+     * them succeeded and when the response was sent.
+     */
+    public record Delivery(String title, String body, int tokens, int delivered, long completedAtNanos) {
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int concurrent = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(concurrent, Math::max);
+        requests.incrementAndGet();
+        try {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            JsonNode tokens = request.path("registration_ids");
+            chunkSizes.add(tokens.size());
+            long latency = latencyMs.getAsLong();
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (unavailableRate > 0 && random.nextDouble() < unavailableRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            List<Map<String, String>> results = new ArrayList<>();
+            int success = 0;
+            for (JsonNode token : tokens) {
+                String error = nextError(token.asText());
+                Map<String, String> result = new LinkedHashMap<>();
+                if (error == null) {
+                    result.put("message_id", "0:" + System.nanoTime());
+                    success++;
+                } else {
+                    result.put("error", error);
+                }
+                results.add(result);
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("multicast_id", System.nanoTime());
+            response.put("success", success);
+            response.put("failure", tokens.size() - success);
+            response.put("results", results);
+            JsonNode notification = request.path("notification");
+            deliveries.add(new Delivery(notification.path("title").asText(), notification.path("body").asText(),
+                    tokens.size(), success, System.nanoTime()));
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private String nextError(String token) {
+        List<String> errors = scriptedErrors.get(token);
+        if (errors != null) {
+            synchronized (errors) {
+                if (!errors.isEmpty()) return errors.remove(0);
+            }
+        }
+        if (tokenErrorRates.isEmpty()) return null;
+        double roll = random.nextDouble();
+        for (Map.Entry<String, Double> rate : tokenErrorRates.entrySet()) {
+            roll -= rate.getValue();
+            if (roll < 0) return rate.getKey();
+        }
+        return null;
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -65,6 +66,11 @@ class RatingControllerIT {
                 .andExpect(jsonPath("$.id", notNullValue()))
                 .andExpect(jsonPath("$.eventId", notNullValue()))
                 .andExpect(jsonPath("$.userId", notNullValue()));
+        mockMvc.perform(get("/ratings/summary").param("eventId", event.getId().toString())
+                        .header("Authorization", "Bearer " + customerToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratingCount", is(1)))
+                .andExpect(jsonPath("$.histogram.5", is(1)));
     }
 
     private String createUserAndGetToken(String phone, UserEntity.Role role) throws Exception {
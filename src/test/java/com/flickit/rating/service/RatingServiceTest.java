@@ -12,6 +12,7 @@ import com.flickit.rating.repository.RatingRepository;
 import com.flickit.user.model.UserEntity;
 import com.flickit.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
+import com.flickit.notification.service.EventExpiryReminderScheduler;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -35,6 +36,8 @@ class RatingServiceTest {
     @MockBean
     private EventRepository eventRepository;
     @MockBean
+    private EventExpiryReminderScheduler expiryReminderScheduler;
+    @MockBean
     private UserRepository userRepository;
     @Autowired
     private ObjectMapper objectMapper;
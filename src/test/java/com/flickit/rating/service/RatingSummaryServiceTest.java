@@ -0,0 +1,160 @@
+package com.flickit.rating.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flickit.rating.dto.RatingSummaryDto;
+import com.flickit.rating.model.RatingSummaryEntity;
+import com.flickit.rating.model.RatingSummaryEntity.SubjectType;
+import com.flickit.rating.model.RatingSummaryId;
+import com.flickit.rating.repository.RatingSummaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingSummaryServiceTest {
+
+    @Mock
+    private RatingSummaryRepository summaryRepository;
+
+    private RatingSummaryService ratingSummaryService;
+
+    private final Map<RatingSummaryId, RatingSummaryEntity> table = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ratingSummaryService = new RatingSummaryService(summaryRepository,
+                new ObjectMapper().findAndRegisterModules(), false, 2, 100);
+
+        lenient().when(summaryRepository.mergeIfAbsent(any(), any(), any())).thenAnswer(invocation -> {
+            RatingSummaryId id = new RatingSummaryId(SubjectType.valueOf(invocation.getArgument(0)), invocation.getArgument(1));
+            return table.putIfAbsent(id, RatingSummaryEntity.builder().id(id).updatedAt(invocation.getArgument(2)).build()) == null ? 1 : 0;
+        });
+
+        lenient().when(summaryRepository.findByIdForUpdate(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(table.get(invocation.<RatingSummaryId>getArgument(0))));
+        lenient().when(summaryRepository.save(any(RatingSummaryEntity.class)))
+                .thenAnswer(invocation -> {
+                    RatingSummaryEntity entity = invocation.getArgument(0);
+                    table.put(entity.getId(), entity);
+                    return entity;
+                });
+    }
+
+    @Test
+    void recordRating_shouldUpdateEventAndVendorHistograms() {
+        // given
+        UUID eventId = UUID.randomUUID();
+        UUID vendorId = UUID.randomUUID();
+
+        // when
+        ratingSummaryService.recordRating(eventId, vendorId, 5, "Great", Instant.now());
+        ratingSummaryService.recordRating(eventId, vendorId, 3, null, Instant.now());
+
+        // then
+        RatingSummaryDto event = ratingSummaryService.getSummary(SubjectType.EVENT, eventId);
+        RatingSummaryDto vendor = ratingSummaryService.getSummary(SubjectType.VENDOR, vendorId);
+        assertEquals(2, event.getRatingCount());
+        assertEquals(4.0, event.getAverageRating());
+        assertEquals(1L, event.getHistogram().get(5));
+        assertEquals(1L, event.getHistogram().get(3));
+        assertEquals(0L, event.getHistogram().get(1));
+        assertEquals(2, vendor.getRatingCount());
+        // served from memory, never read back from the table
+        verify(summaryRepository, never()).findById(any());
+    }
+
+    @Test
+    void recordRating_shouldKeepOnlyLastNCommentsNewestFirst() {
+        // given
+        UUID eventId = UUID.randomUUID();
+
+        // when
+        ratingSummaryService.recordRating(eventId, null, 4, "first", Instant.now());
+        ratingSummaryService.recordRating(eventId, null, 5, "second", Instant.now());
+        ratingSummaryService.recordRating(eventId, null, 1, "third", Instant.now());
+
+        // then
+        RatingSummaryDto summary = ratingSummaryService.getSummary(SubjectType.EVENT, eventId);
+        assertEquals(2, summary.getRecentComments().size());
+        assertEquals("third", summary.getRecentComments().get(0).getComment());
+        assertEquals("second", summary.getRecentComments().get(1).getComment());
+    }
+
+    @Test
+    void getEventSummaries_shouldLoadMissesInOneBatchAndDefaultToEmpty() {
+        // given
+        UUID rated = UUID.randomUUID();
+        UUID unrated = UUID.randomUUID();
+        RatingSummaryEntity entity = RatingSummaryEntity.builder()
+                .id(new RatingSummaryId(SubjectType.EVENT, rated))
+                .ratingCount(1).ratingSum(4).fourStars(1)
+                .updatedAt(Instant.now())
+                .build();
+        when(summaryRepository.findAllById(any())).thenReturn(List.of(entity));
+
+        // when
+        Map<UUID, RatingSummaryDto> result = ratingSummaryService.getEventSummaries(List.of(rated, unrated));
+        ratingSummaryService.getEventSummaries(List.of(rated, unrated));
+
+        // then
+        assertEquals(4.0, result.get(rated).getAverageRating());
+        assertEquals(0, result.get(unrated).getRatingCount());
+        assertNull(result.get(unrated).getAverageRating());
+        verify(summaryRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void getSummary_shouldNotReplaceNewerCachedSummaryWithReadThatLandsLate() {
+        // given - a summary with one rating, not cached yet
+        UUID eventId = UUID.randomUUID();
+        ratingSummaryService.recordRating(eventId, null, 4, null, Instant.now());
+        RatingSummaryService reader = new RatingSummaryService(summaryRepository,
+                new ObjectMapper().findAndRegisterModules(), false, 2, 100);
+        RatingSummaryEntity stored = table.get(new RatingSummaryId(SubjectType.EVENT, eventId));
+        when(summaryRepository.findById(any())).thenAnswer(invocation -> {
+            RatingSummaryEntity stale = RatingSummaryEntity.builder()
+                    .id(stored.getId()).ratingCount(stored.getRatingCount()).ratingSum(stored.getRatingSum())
+                    .fourStars(stored.getFourStars()).updatedAt(stored.getUpdatedAt())
+                    .build();
+            // a second rating commits while the read is in flight
+            reader.recordRating(eventId, null, 2, null, Instant.now());
+            return Optional.of(stale);
+        });
+
+        // when
+        reader.getSummary(SubjectType.EVENT, eventId);
+
+        // then - the late read did not overwrite the committed summary
+        assertEquals(2, reader.getSummary(SubjectType.EVENT, eventId).getRatingCount());
+    }
+
+    @Test
+    void recordRating_shouldCreateSummaryRowBeforeLockingIt() {
+        // given
+        UUID eventId = UUID.randomUUID();
+
+        // when
+        ratingSummaryService.recordRating(eventId, null, 5, null, Instant.now());
+
+        // then
+        InOrder inOrder = inOrder(summaryRepository);
+        inOrder.verify(summaryRepository).mergeIfAbsent(eq("EVENT"), eq(eventId), any());
+        inOrder.verify(summaryRepository).findByIdForUpdate(new RatingSummaryId(SubjectType.EVENT, eventId));
+        verify(summaryRepository, never()).insertIfAbsent(any(), any(), any());
+    }
+}
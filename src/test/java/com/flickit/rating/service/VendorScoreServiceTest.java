@@ -0,0 +1,99 @@
+package com.flickit.rating.service;
+
+import com.flickit.user.model.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VendorScoreServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-19T20:00:00Z");
+
+    private VendorScoreService vendorScoreService;
+
+    @BeforeEach
+    void setUp() {
+        vendorScoreService = new VendorScoreService(3.5, 5, Duration.ofDays(30));
+    }
+
+    @Test
+    void score_shouldReturnPriorMeanForUnratedVendor() {
+        // given
+        UserEntity vendor = new UserEntity();
+
+        // when & then
+        assertEquals(3.5, vendorScoreService.score(vendor, NOW));
+    }
+
+    @Test
+    void score_shouldNotLetFewPerfectRatingsOutrankManyGoodOnes() {
+        // given
+        UserEntity newcomer = new UserEntity();
+        for (int i = 0; i < 3; i++) {
+            vendorScoreService.applyRating(newcomer, 5, NOW);
+        }
+        UserEntity established = new UserEntity();
+        for (int i = 0; i < 200; i++) {
+            vendorScoreService.applyRating(established, i % 5 == 0 ? 4 : 5, NOW);
+        }
+
+        // when
+        double newcomerScore = vendorScoreService.score(newcomer, NOW);
+        double establishedScore = vendorScoreService.score(established, NOW);
+
+        // then
+        assertEquals((5 * 3.5 + 15) / 8, newcomerScore, 0.01);
+        assertTrue(establishedScore > newcomerScore);
+    }
+
+    @Test
+    void applyRating_shouldHalveOldWeightAfterOneHalfLife() {
+        // given
+        UserEntity vendor = new UserEntity();
+        vendorScoreService.applyRating(vendor, 1, NOW);
+
+        // when
+        vendorScoreService.applyRating(vendor, 5, NOW.plus(Duration.ofDays(30)));
+
+        // then
+        assertEquals(1.5, vendor.getDecayedRatingWeight(), 1e-9);
+        assertEquals(5.5, vendor.getDecayedRatingSum(), 1e-9);
+        assertEquals(NOW.plus(Duration.ofDays(30)), vendor.getScoreReferenceAt());
+    }
+
+    @Test
+    void applyRating_shouldDecayLateRatingsToExistingReference() {
+        // given
+        UserEntity vendor = new UserEntity();
+        vendorScoreService.applyRating(vendor, 5, NOW);
+
+        // when
+        vendorScoreService.applyRating(vendor, 1, NOW.minus(Duration.ofDays(30)));
+
+        // then
+        assertEquals(1.5, vendor.getDecayedRatingWeight(), 1e-9);
+        assertEquals(5.5, vendor.getDecayedRatingSum(), 1e-9);
+        assertEquals(NOW, vendor.getScoreReferenceAt());
+    }
+
+    @Test
+    void score_shouldDriftTowardsPriorWithoutNewRatings() {
+        // given
+        UserEntity vendor = new UserEntity();
+        for (int i = 0; i < 20; i++) {
+            vendorScoreService.applyRating(vendor, 5, NOW);
+        }
+
+        // when
+        double fresh = vendorScoreService.score(vendor, NOW);
+        double stale = vendorScoreService.score(vendor, NOW.plus(Duration.ofDays(365)));
+
+        // then
+        assertTrue(fresh > stale);
+        assertEquals(3.5, stale, 0.01);
+    }
+}